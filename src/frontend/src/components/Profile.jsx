@@ -1471,7 +1471,7 @@ const Profile = ({ Login, Logout, showToast }) => {
                                                         {selectedListItem.isAdult && <div className="is-adult">⚠️ Adult Content</div>}
                                                         {selectedListItem.nextAiringEpisode && (
                                                             <div className="next-airing">
-                                                                <strong>Next Episode:</strong> Episode {selectedListItem.nextAiringEpisode.episode} releases on {new Date(Date.now() + selectedListItem.nextAiringEpisode.timeUntilAiring * 1000).toLocaleDateString()}
+                                                                <strong>Next Episode:</strong> Episode {selectedListItem.nextAiringEpisode.episode} releases on {new Date(selectedListItem.nextAiringEpisode.airingAt != null ? selectedListItem.nextAiringEpisode.airingAt * 1000 : Date.now() + selectedListItem.nextAiringEpisode.timeUntilAiring * 1000).toLocaleDateString()}
                                                             </div>
                                                         )}
                                                     </div>
@@ -76,7 +76,7 @@ const TitleDetail = ({
                 {selectedItem.isAdult && <div className="is-adult" data-testid="adult-warning">⚠️ Adult Content</div>}
                 {selectedItem.nextAiringEpisode && (
                     <div className="next-airing">
-                        <strong>Next Episode:</strong> Episode {selectedItem.nextAiringEpisode.episode} releases on {new Date(Date.now() + selectedItem.nextAiringEpisode.timeUntilAiring * 1000).toLocaleDateString()}
+                        <strong>Next Episode:</strong> Episode {selectedItem.nextAiringEpisode.episode} releases on {new Date(selectedItem.nextAiringEpisode.airingAt != null ? selectedItem.nextAiringEpisode.airingAt * 1000 : Date.now() + selectedItem.nextAiringEpisode.timeUntilAiring * 1000).toLocaleDateString()}
                     </div>
                 )}
             </div>
@@ -292,6 +292,29 @@ describe('TitleDetail Component', () => {
     expect(screen.getByText(/Episode 5/)).toBeInTheDocument();
   });
 
+  test('dates the next episode from airingAt when present', () => {
+    const airingAt = Math.floor(Date.UTC(2030, 0, 15, 12) / 1000);
+    const itemWithAiring = {
+      ...mockItem,
+      status: 'RELEASING',
+      nextAiringEpisode: {
+        episode: 5,
+        airingAt,
+        timeUntilAiring: 0
+      }
+    };
+
+    const propsWithAiring = {
+      ...mockProps,
+      selectedItem: itemWithAiring
+    };
+
+    render(<TitleDetail {...propsWithAiring} />);
+
+    expect(screen.getByText(/Next Episode:/).parentElement.textContent)
+      .toContain(new Date(airingAt * 1000).toLocaleDateString());
+  });
+
   test('does not display next airing episode when null', () => {
     render(<TitleDetail {...mockProps} />);
 
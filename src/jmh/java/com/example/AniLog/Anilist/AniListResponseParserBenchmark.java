@@ -0,0 +1,89 @@
+package com.example.AniLog.Anilist;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Compares the streaming AniListResponseParser with the previous tree-based parsing.
+// Run with: gradle jmh  (the gc profiler reports gc.alloc.rate.norm, i.e. bytes per page;
+// divide by mediaCount for allocation per result)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AniListResponseParserBenchmark {
+
+    @Param({"20", "50"})
+    private int mediaCount;
+
+    private byte[] body;
+    private final AniListResponseParser streamingParser = new AniListResponseParser();
+    private final TreeResponseParser treeParser = new TreeResponseParser();
+
+    @Setup
+    public void setUp() {
+        body = pageResponse(mediaCount).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<AnilistResult> treeParser() {
+        // Mirrors the old path: response.body().string() then JsonParser.parseString
+        return treeParser.parse(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public List<AnilistResult> streamingParser() throws IOException {
+        // Mirrors the new path: response.body().charStream()
+        return streamingParser.parse(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    private static String pageResponse(int mediaCount) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"data\":{\"Page\":{\"pageInfo\":{\"total\":5000,\"currentPage\":1,\"lastPage\":100,\"hasNextPage\":true},\"media\":[");
+        for (int i = 0; i < mediaCount; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(1000 + i)
+                .append(",\"type\":\"ANIME\"")
+                .append(",\"title\":{\"romaji\":\"Shingeki no Kyojin ").append(i)
+                .append("\",\"english\":\"Attack on Titan ").append(i)
+                .append("\",\"native\":\"進撃の巨人 ").append(i).append("\"}")
+                .append(",\"description\":\"").append("Several hundred years ago, humans were nearly exterminated by Titans. <br><br>".repeat(8)).append('"')
+                .append(",\"format\":\"TV\",\"episodes\":25,\"chapters\":null,\"volumes\":null,\"averageScore\":85")
+                .append(",\"nextAiringEpisode\":{\"episode\":12,\"timeUntilAiring\":86400}")
+                .append(",\"startDate\":{\"day\":7,\"month\":4,\"year\":2013}")
+                .append(",\"coverImage\":{\"extraLarge\":\"https://s4.anilist.co/file/anilistcdn/media/anime/cover/large/bx").append(1000 + i).append(".jpg\"}")
+                .append(",\"status\":\"FINISHED\",\"genres\":[\"Action\",\"Drama\",\"Fantasy\",\"Mystery\"]")
+                .append(",\"streamingEpisodes\":[");
+            for (int e = 0; e < 12; e++) {
+                if (e > 0) json.append(',');
+                json.append("{\"site\":\"Crunchyroll\",\"thumbnail\":\"https://img1.ak.crunchyroll.com/i/spire1-tmb/").append(e)
+                    .append("_full.jpg\",\"title\":\"Episode ").append(e + 1)
+                    .append(" - To You, in 2000 Years\",\"url\":\"http://www.crunchyroll.com/episode-").append(e + 1).append("\"}");
+            }
+            json.append("]")
+                .append(",\"studios\":{\"nodes\":[{\"name\":\"Wit Studio\"},{\"name\":\"Production I.G\"}]}")
+                .append(",\"synonyms\":[\"AoT\",\"SnK\",\"Attack on Titan Season 1\"]")
+                .append(",\"trailer\":{\"site\":\"youtube\",\"thumbnail\":\"https://i.ytimg.com/vi/abc/hqdefault.jpg\"}")
+                .append(",\"isAdult\":false}");
+        }
+        json.append("]}}}");
+        return json.toString();
+    }
+}
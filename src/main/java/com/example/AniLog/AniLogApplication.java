@@ -1,21 +1,128 @@
 package com.example.AniLog;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.CircuitBreaker;
+import com.example.AniLog.Anilist.RateLimitGovernor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
 @SpringBootApplication
+@EnableScheduling
 public class AniLogApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(AniLogApplication.class, args);
 	}
 
+	// Shared transport for AniList calls. The call timeout bounds the whole exchange so a
+	// stalled upstream fails the call instead of holding a dispatcher slot indefinitely.
+	@Bean
+	public OkHttpClient aniListHttpClient(
+			@Value("${anilist.http.pool.max-idle-connections:16}") int maxIdleConnections,
+			@Value("${anilist.http.pool.keep-alive:PT5M}") Duration keepAlive,
+			@Value("${anilist.http.dispatcher.max-requests:64}") int maxRequests,
+			@Value("${anilist.http.dispatcher.max-requests-per-host:64}") int maxRequestsPerHost,
+			@Value("${anilist.http.connect-timeout:PT5S}") Duration connectTimeout,
+			@Value("${anilist.http.read-timeout:PT15S}") Duration readTimeout,
+			@Value("${anilist.http.write-timeout:PT10S}") Duration writeTimeout,
+			@Value("${anilist.http.call-timeout:PT30S}") Duration callTimeout,
+			@Value("${anilist.http.http2:true}") boolean http2,
+			@Value("${anilist.http.gzip:true}") boolean gzip) {
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(maxRequests);
+		dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+		OkHttpClient.Builder builder = new OkHttpClient.Builder()
+				.dispatcher(dispatcher)
+				.connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+				.connectTimeout(connectTimeout)
+				.readTimeout(readTimeout)
+				.writeTimeout(writeTimeout)
+				.callTimeout(callTimeout)
+				// HTTP/2 is negotiated over ALPN when enabled, multiplexing calls on one connection
+				.protocols(http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1));
+		if (!gzip) {
+			// OkHttp asks for gzip (and decodes it) unless a request sets Accept-Encoding itself
+			builder.addInterceptor(chain -> chain.proceed(
+					chain.request().newBuilder().header("Accept-Encoding", "identity").build()));
+		}
+		return builder.build();
+	}
+
+	@Bean
+	public AniListClient aniListClient(
+			OkHttpClient aniListHttpClient,
+			@Value("${anilist.api-url:https://graphql.anilist.co}") String apiUrl,
+			@Value("${anilist.rate-limit.requests-per-minute:90}") int requestsPerMinute,
+			@Value("${anilist.rate-limit.max-queue-delay:PT30S}") Duration maxQueueDelay,
+			@Value("${anilist.circuit-breaker.window-size:20}") int windowSize,
+			@Value("${anilist.circuit-breaker.minimum-calls:10}") int minimumCalls,
+			@Value("${anilist.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+			@Value("${anilist.circuit-breaker.slow-call-threshold:PT5S}") Duration slowCallThreshold,
+			@Value("${anilist.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+			@Value("${anilist.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+			@Value("${anilist.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+		return new AniListClient(
+				apiUrl,
+				aniListHttpClient,
+				new RateLimitGovernor(requestsPerMinute, maxQueueDelay),
+				new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallThreshold,
+						slowCallRateThreshold, openDuration, halfOpenProbes));
+	}
+
+	@Bean
+	public MeterBinder aniListHttpMetrics(OkHttpClient aniListHttpClient) {
+		ConnectionPool pool = aniListHttpClient.connectionPool();
+		Dispatcher dispatcher = aniListHttpClient.dispatcher();
+		return registry -> {
+			Gauge.builder("anilist.http.pool.connections", pool, ConnectionPool::connectionCount)
+					.description("Open connections in the AniList connection pool")
+					.register(registry);
+			Gauge.builder("anilist.http.pool.idle", pool, ConnectionPool::idleConnectionCount)
+					.description("Idle connections in the AniList connection pool")
+					.register(registry);
+			Gauge.builder("anilist.http.dispatcher.running", dispatcher, Dispatcher::runningCallsCount)
+					.description("AniList calls currently executing")
+					.register(registry);
+			Gauge.builder("anilist.http.dispatcher.queued", dispatcher, Dispatcher::queuedCallsCount)
+					.description("AniList calls waiting for a dispatcher slot")
+					.register(registry);
+		};
+	}
+
 	@Bean
-	public AniListClient aniListClient() {
-		return new AniListClient("https://graphql.anilist.co");
+	public MeterBinder aniListRateLimitMetrics(AniListClient aniListClient) {
+		RateLimitGovernor governor = aniListClient.getRateLimitGovernor();
+		CircuitBreaker circuitBreaker = aniListClient.getCircuitBreaker();
+		return registry -> {
+			Gauge.builder("anilist.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+					.description("AniList circuit breaker state (0 closed, 1 open, 2 half-open)")
+					.register(registry);
+			Gauge.builder("anilist.ratelimit.remaining", governor, RateLimitGovernor::getRemaining)
+					.description("Requests left in the current AniList window, as last reported by AniList")
+					.register(registry);
+			Gauge.builder("anilist.ratelimit.tokens", governor, RateLimitGovernor::getAvailableTokens)
+					.description("Tokens available in the local AniList rate limit bucket")
+					.register(registry);
+			Gauge.builder("anilist.ratelimit.queued", governor, RateLimitGovernor::getQueued)
+					.description("AniList requests waiting for a rate limit token")
+					.register(registry);
+		};
 	}
 
 }
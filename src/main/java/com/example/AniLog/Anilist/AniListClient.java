@@ -1,18 +1,23 @@
 package com.example.AniLog.Anilist;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
-import com.example.AniLog.Anilist.AnilistResult.NextAiringEpisode;
-import com.example.AniLog.Anilist.AnilistResult.Title;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -20,192 +25,239 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 
 public class AniListClient {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+    private static final int MAX_RATE_LIMIT_RETRIES = 2;
+    private static final int MAX_FALLBACK_ENTRIES = 256;
+
     private final String apiUrl;
     private final OkHttpClient httpClient;
     private final Gson gson;
+    private final AniListResponseParser parser = new AniListResponseParser();
+    private final RateLimitGovernor rateLimitGovernor;
+    private final CircuitBreaker circuitBreaker;
+    // Upstream calls currently in flight, keyed by canonical (query, variables)
+    private final ConcurrentHashMap<String, CompletableFuture<List<AnilistResult>>> inFlight = new ConcurrentHashMap<>();
+    // Last non-empty result per request key, served while AniList is failing
+    private final Map<String, List<AnilistResult>> lastGood = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<AnilistResult>> eldest) {
+            return size() > MAX_FALLBACK_ENTRIES;
+        }
+    };
 
     public AniListClient(String apiUrl) {
-        this.apiUrl = apiUrl;
-        this.httpClient = new OkHttpClient();
-        this.gson = new Gson();
+        this(apiUrl, new RateLimitGovernor(90, Duration.ofSeconds(30)));
     }
 
-    public List<AnilistResult> executeQuery(String query, Map<String, Object> variables) {
-        List<AnilistResult> results = new ArrayList<>();
+    public AniListClient(String apiUrl, RateLimitGovernor rateLimitGovernor) {
+        this(apiUrl, defaultHttpClient(), rateLimitGovernor);
+    }
 
-        // Prepare GraphQL request payload
-        JsonObject payload = new JsonObject();
-        payload.addProperty("query", query);
-        payload.add("variables", gson.toJsonTree(variables));
+    public AniListClient(String apiUrl, OkHttpClient httpClient, RateLimitGovernor rateLimitGovernor) {
+        this(apiUrl, httpClient, rateLimitGovernor, CircuitBreaker.withDefaults());
+    }
 
-        MediaType jsonMediaType = MediaType.parse("application/json; charset=utf-8");
-        RequestBody body = RequestBody.create(payload.toString(), jsonMediaType);
+    public AniListClient(
+            String apiUrl,
+            OkHttpClient httpClient,
+            RateLimitGovernor rateLimitGovernor,
+            CircuitBreaker circuitBreaker) {
+        this.apiUrl = apiUrl;
+        this.httpClient = httpClient;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.circuitBreaker = circuitBreaker;
+        this.gson = new Gson();
+    }
 
-        Request request = new Request.Builder()
-                .url(this.apiUrl)
-                .post(body)
-                .addHeader("Accept", "application/json")
-                .addHeader("Content-Type", "application/json")
+    // Used outside of Spring (tests); the application wires a configured client
+    private static OkHttpClient defaultHttpClient() {
+        // Every call goes through the dispatcher, so lift OkHttp's default of 5 per host
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(64);
+        dispatcher.setMaxRequestsPerHost(64);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .callTimeout(Duration.ofSeconds(30))
                 .build();
+    }
 
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                System.err.println("Request failed with status code: " + response.code());
-                System.err.println("Response message: " + (response.body() != null ? response.body().string() : "null"));
-                return results;
-            }
-
-            String responseBody = response.body() != null ? response.body().string() : "";
-            if (responseBody.isEmpty()) {
-                return results;
-            }
+    public List<AnilistResult> executeQuery(String query, Map<String, Object> variables) {
+        return executeQueryAsync(query, variables).join();
+    }
 
-            JsonObject root = JsonParser.parseString(responseBody).getAsJsonObject();
-            JsonObject data = root.has("data") && root.get("data").isJsonObject() ? root.getAsJsonObject("data") : null;
-            if (data == null) {
-                return results;
-            }
+    // Non-blocking variant: the future completes on an OkHttp dispatcher thread once the
+    // response has been parsed. Like executeQuery, failures complete with the last good
+    // result for the same request, or an empty list when there is none.
+    public CompletableFuture<List<AnilistResult>> executeQueryAsync(String query, Map<String, Object> variables) {
+        // Concurrent identical requests share a single upstream call and its parsed result
+        String key = requestKey(query, variables);
+        CompletableFuture<List<AnilistResult>> call = new CompletableFuture<>();
+        CompletableFuture<List<AnilistResult>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return existing;
+        }
+        call.whenComplete((results, error) -> inFlight.remove(key, call));
 
-            JsonObject page = data.has("Page") && data.get("Page").isJsonObject() ? data.getAsJsonObject("Page") : null;
-            if (page == null) {
-                return results;
-            }
+        // Fail fast while the breaker is open
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            call.complete(fallback(key));
+            return call;
+        }
 
-            JsonArray media = page.has("media") && page.get("media").isJsonArray() ? page.getAsJsonArray("media") : null;
-            if (media == null) {
-                return results;
+        CompletableFuture<List<AnilistResult>> fetch = new CompletableFuture<>();
+        fetch.whenComplete((results, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause == null) {
+                if (!results.isEmpty()) {
+                    synchronized (lastGood) {
+                        lastGood.put(key, results);
+                    }
+                }
+                call.complete(results);
+            } else if (cause instanceof UpstreamUnavailableException) {
+                call.complete(fallback(key));
+            } else {
+                call.completeExceptionally(cause);
             }
+        });
+        send(buildRequest(query, variables), permit, fetch, 0);
+        return call;
+    }
 
-            for (JsonElement el : media) {
-                if (!el.isJsonObject()) continue;
-                JsonObject item = el.getAsJsonObject();
-
-                int id = getInteger(item, "id") != null ? getInteger(item, "id") : 0;
-                Title title = parseTitle(item);
-                String type = getString(item, "type");
-                String description = getString(item, "description");
-                String format = getString(item, "format");
-                Integer episodes = getInteger(item, "episodes");
-                Integer chapters = getInteger(item, "chapters");
-                Integer volumes = getInteger(item, "volumes");
-                Integer averageScore = getInteger(item, "averageScore");
-                NextAiringEpisode nextAiring = parseNextAiring(item);
-                Integer day = parseDay(item);
-                Integer month = parseMonth(item);
-                Integer year = parseYear(item);
-                String coverImageUrl = parseCoverImage(item);
-                String status = getString(item, "status");
-                List<String> genres = parseStringArray(item, "genres");
-                List<String> studios = parseStudios(item);
-                List<String> synonyms = parseStringArray(item, "synonyms");
-                boolean isAdult = item.has("isAdult") && !item.get("isAdult").isJsonNull() && item.get("isAdult").getAsBoolean();
-
-                results.add(new AnilistResult(
-                        id,
-                        type,
-                        title,
-                        description,
-                        format,
-                        episodes,
-                        chapters,
-                        volumes,
-                        averageScore,
-                        nextAiring,
-                        day,
-                        month,
-                        year,
-                        coverImageUrl,
-                        status,
-                        genres,
-                        studios,
-                        synonyms,
-                        isAdult));
-            }
-        } catch (IOException e) {
-            System.err.println("IOException during API request: " + e.getMessage());
-            return results;
-        }
+    public RateLimitGovernor getRateLimitGovernor() {
+        return rateLimitGovernor;
+    }
 
-        return results;
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
     }
 
-    private Title parseTitle(JsonObject item) {
-        if (!item.has("title") || !item.get("title").isJsonObject()) {
-            return new Title(null, null, null);
+    private List<AnilistResult> fallback(String key) {
+        synchronized (lastGood) {
+            List<AnilistResult> results = lastGood.get(key);
+            return results != null ? results : Collections.emptyList();
         }
-        JsonObject t = item.getAsJsonObject("title");
-        String romaji = getString(t, "romaji");
-        String english = getString(t, "english");
-        String nativeTitle = getString(t, "native");
-        return new Title(romaji, english, nativeTitle);
     }
 
-    private NextAiringEpisode parseNextAiring(JsonObject item) {
-        if (!item.has("nextAiringEpisode") || !item.get("nextAiringEpisode").isJsonObject()) return null;
-        JsonObject nae = item.getAsJsonObject("nextAiringEpisode");
-        Integer episode = getInteger(nae, "episode");
-        Integer timeUntilAiring = getInteger(nae, "timeUntilAiring");
-        if (episode == null && timeUntilAiring == null) return null;
-        return new NextAiringEpisode(episode, timeUntilAiring);
+    // Waits for a rate limit token, then enqueues the call. A 429 is retried (up to
+    // MAX_RATE_LIMIT_RETRIES times) after the governor's Retry-After backoff.
+    // The fetch completes exceptionally with UpstreamUnavailableException when AniList
+    // could not answer (I/O error, timeout, 5xx or rate limit), so callers can fall back.
+    private void send(Request request, CircuitBreaker.Permit permit, CompletableFuture<List<AnilistResult>> fetch, int attempt) {
+        long delay = rateLimitGovernor.reserve();
+        if (delay == RateLimitGovernor.REJECTED) {
+            System.err.println("AniList rate limit budget exhausted, dropping request");
+            circuitBreaker.release(permit);
+            fetch.completeExceptionally(new UpstreamUnavailableException("rate limit budget exhausted"));
+            return;
+        }
+        if (delay > 0) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                rateLimitGovernor.dequeued();
+                enqueue(request, permit, fetch, attempt);
+            });
+        } else {
+            enqueue(request, permit, fetch, attempt);
+        }
     }
 
-    private Integer parseDay(JsonObject item) {
-        if (!item.has("startDate") || !item.get("startDate").isJsonObject()) return null;
-        JsonObject sd = item.getAsJsonObject("startDate");
-        return getInteger(sd, "day");
-    }
+    private void enqueue(Request request, CircuitBreaker.Permit permit, CompletableFuture<List<AnilistResult>> fetch, int attempt) {
+        long start = System.nanoTime();
+        try {
+            httpClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call httpCall, IOException e) {
+                    System.err.println("IOException during API request: " + e.getMessage());
+                    circuitBreaker.onFailure(permit, System.nanoTime() - start);
+                    fetch.completeExceptionally(new UpstreamUnavailableException(e.getMessage()));
+                }
 
-    private Integer parseMonth(JsonObject item) {
-        if (!item.has("startDate") || !item.get("startDate").isJsonObject()) return null;
-        JsonObject sd = item.getAsJsonObject("startDate");
-        return getInteger(sd, "month");
+                @Override
+                public void onResponse(Call httpCall, Response response) {
+                    try (response) {
+                        rateLimitGovernor.onResponse(
+                                response.code(),
+                                response.header("X-RateLimit-Limit"),
+                                response.header("X-RateLimit-Remaining"),
+                                response.header("Retry-After"));
+                        if (response.code() == 429) {
+                            // Throttling is the governor's concern, not a health signal
+                            if (attempt < MAX_RATE_LIMIT_RETRIES) {
+                                send(request, permit, fetch, attempt + 1);
+                            } else {
+                                circuitBreaker.release(permit);
+                                fetch.completeExceptionally(new UpstreamUnavailableException("rate limited"));
+                            }
+                            return;
+                        }
+                        if (response.code() >= 500) {
+                            System.err.println("Request failed with status code: " + response.code());
+                            circuitBreaker.onFailure(permit, System.nanoTime() - start);
+                            fetch.completeExceptionally(new UpstreamUnavailableException("status " + response.code()));
+                            return;
+                        }
+                        // Read-only either way: an AnilistPage, or an empty list when the body was unusable
+                        List<AnilistResult> results = readResults(response);
+                        circuitBreaker.onSuccess(permit, System.nanoTime() - start);
+                        fetch.complete(results);
+                    } catch (IOException e) {
+                        System.err.println("IOException during API request: " + e.getMessage());
+                        circuitBreaker.onFailure(permit, System.nanoTime() - start);
+                        fetch.completeExceptionally(new UpstreamUnavailableException(e.getMessage()));
+                    } catch (RuntimeException e) {
+                        circuitBreaker.onFailure(permit, System.nanoTime() - start);
+                        fetch.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            circuitBreaker.release(permit);
+            fetch.completeExceptionally(e);
+        }
     }
 
-    private Integer parseYear(JsonObject item) {
-        if (!item.has("startDate") || !item.get("startDate").isJsonObject()) return null;
-        JsonObject sd = item.getAsJsonObject("startDate");
-        return getInteger(sd, "year");
+    String requestKey(String query, Map<String, Object> variables) {
+        String normalizedQuery = query == null ? "" : WHITESPACE.matcher(query.trim()).replaceAll(" ");
+        Map<String, Object> sortedVariables = variables == null ? new TreeMap<>() : new TreeMap<>(variables);
+        return normalizedQuery + "|" + gson.toJson(sortedVariables);
     }
 
-    private String parseCoverImage(JsonObject item) {
-        if (!item.has("coverImage") || !item.get("coverImage").isJsonObject()) return null;
-        JsonObject ci = item.getAsJsonObject("coverImage");
-        return getString(ci, "extraLarge");
+    private Request buildRequest(String query, Map<String, Object> variables) {
+        // Prepare GraphQL request payload
+        JsonObject payload = new JsonObject();
+        payload.addProperty("query", query);
+        payload.add("variables", gson.toJsonTree(variables));
+
+        RequestBody body = RequestBody.create(payload.toString(), JSON_MEDIA_TYPE);
+
+        return new Request.Builder()
+                .url(this.apiUrl)
+                .post(body)
+                .addHeader("Accept", "application/json")
+                .addHeader("Content-Type", "application/json")
+                .build();
     }
 
-    private List<String> parseStringArray(JsonObject item, String key) {
-        if (!item.has(key) || !item.get(key).isJsonArray()) return Collections.emptyList();
-        List<String> list = new ArrayList<>();
-        for (JsonElement el : item.getAsJsonArray(key)) {
-            if (!el.isJsonNull()) list.add(el.getAsString());
+    private List<AnilistResult> readResults(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            System.err.println("Request failed with status code: " + response.code());
+            System.err.println("Response message: " + (response.body() != null ? response.body().string() : "null"));
+            return Collections.emptyList();
         }
-        return list;
-    }
-
-    private List<String> parseStudios(JsonObject item) {
-        if (!item.has("studios") || !item.get("studios").isJsonObject()) return Collections.emptyList();
-        JsonObject studios = item.getAsJsonObject("studios");
-        if (!studios.has("nodes") || !studios.get("nodes").isJsonArray()) return Collections.emptyList();
-        List<String> list = new ArrayList<>();
-        for (JsonElement el : studios.getAsJsonArray("nodes")) {
-            if (!el.isJsonObject()) continue;
-            String name = getString(el.getAsJsonObject(), "name");
-            if (name != null && !name.isBlank()) list.add(name);
+
+        if (response.body() == null) {
+            return Collections.emptyList();
         }
-        return list;
-    }
 
-    private String getString(JsonObject obj, String key) {
-        if (obj == null || !obj.has(key) || obj.get(key).isJsonNull()) return null;
-        return obj.get(key).getAsString();
+        return parser.parse(response.body().charStream());
     }
 
-    private Integer getInteger(JsonObject obj, String key) {
-        if (obj == null || !obj.has(key) || obj.get(key).isJsonNull()) return null;
-        try {
-            return obj.get(key).getAsInt();
-        } catch (Exception e) {
-            return null;
+    // AniList could not answer; the caller falls back to the last good result
+    private static class UpstreamUnavailableException extends RuntimeException {
+        private UpstreamUnavailableException(String message) {
+            super(message);
         }
     }
-}
\ No newline at end of file
+}
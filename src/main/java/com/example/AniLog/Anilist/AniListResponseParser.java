@@ -0,0 +1,352 @@
+package com.example.AniLog.Anilist;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.AniLog.Anilist.AnilistResult.NextAiringEpisode;
+import com.example.AniLog.Anilist.AnilistResult.Title;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+// Token-level decoder for AniList Page responses. Reads data.Page.media straight
+// off the response stream into AnilistResult objects without building a JSON tree,
+// along with data.Page.pageInfo.hasNextPage when the query selects it.
+public class AniListResponseParser {
+
+    public AnilistPage parse(Reader body) throws IOException {
+        List<AnilistResult> results = new ArrayList<>();
+        boolean[] hasNextPage = new boolean[1];
+        JsonReader reader = new JsonReader(body);
+
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return new AnilistPage(results, false);
+            }
+        } catch (EOFException e) {
+            // Empty body
+            return new AnilistPage(results, false);
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("data") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                readData(reader, results, hasNextPage);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new AnilistPage(Collections.unmodifiableList(results), hasNextPage[0]);
+    }
+
+    private void readData(JsonReader reader, List<AnilistResult> results, boolean[] hasNextPage) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("Page") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                readPage(reader, results, hasNextPage);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readPage(JsonReader reader, List<AnilistResult> results, boolean[] hasNextPage) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("pageInfo") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                hasNextPage[0] = readHasNextPage(reader);
+            } else if (name.equals("media") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        results.add(readMedia(reader));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private boolean readHasNextPage(JsonReader reader) throws IOException {
+        boolean hasNextPage = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("hasNextPage")) {
+                hasNextPage = readBoolean(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return hasNextPage;
+    }
+
+    private AnilistResult readMedia(JsonReader reader) throws IOException {
+        Integer id = null;
+        String type = null;
+        Title title = null;
+        String description = null;
+        String format = null;
+        Integer episodes = null;
+        Integer chapters = null;
+        Integer volumes = null;
+        Integer averageScore = null;
+        NextAiringEpisode nextAiring = null;
+        Integer[] startDate = new Integer[3];
+        String coverImageUrl = null;
+        String status = null;
+        List<String> genres = null;
+        List<String> studios = null;
+        List<String> synonyms = null;
+        boolean isAdult = false;
+        Integer popularity = null;
+        Integer trending = null;
+        Integer updatedAt = null;
+        Integer idMal = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> id = readInteger(reader);
+                case "idMal" -> idMal = readInteger(reader);
+                case "type" -> type = readString(reader);
+                case "title" -> title = readTitle(reader);
+                case "description" -> description = readString(reader);
+                case "format" -> format = readString(reader);
+                case "episodes" -> episodes = readInteger(reader);
+                case "chapters" -> chapters = readInteger(reader);
+                case "volumes" -> volumes = readInteger(reader);
+                case "averageScore" -> averageScore = readInteger(reader);
+                case "nextAiringEpisode" -> nextAiring = readNextAiring(reader);
+                case "startDate" -> readStartDate(reader, startDate);
+                case "coverImage" -> coverImageUrl = readCoverImage(reader);
+                case "status" -> status = readString(reader);
+                case "genres" -> genres = readStringArray(reader);
+                case "studios" -> studios = readStudios(reader);
+                case "synonyms" -> synonyms = readStringArray(reader);
+                case "isAdult" -> isAdult = readBoolean(reader);
+                case "popularity" -> popularity = readInteger(reader);
+                case "trending" -> trending = readInteger(reader);
+                case "updatedAt" -> updatedAt = readInteger(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new AnilistResult(
+                id != null ? id : 0,
+                type,
+                title != null ? title : new Title(null, null, null),
+                description,
+                format,
+                episodes,
+                chapters,
+                volumes,
+                averageScore,
+                nextAiring,
+                startDate[0],
+                startDate[1],
+                startDate[2],
+                coverImageUrl,
+                status,
+                genres != null ? genres : Collections.emptyList(),
+                studios != null ? studios : Collections.emptyList(),
+                synonyms != null ? synonyms : Collections.emptyList(),
+                isAdult,
+                popularity,
+                trending,
+                updatedAt,
+                idMal);
+    }
+
+    private Title readTitle(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String romaji = null;
+        String english = null;
+        String nativeTitle = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "romaji" -> romaji = readString(reader);
+                case "english" -> english = readString(reader);
+                case "native" -> nativeTitle = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Title(romaji, english, nativeTitle);
+    }
+
+    private NextAiringEpisode readNextAiring(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        Integer episode = null;
+        Long airingAt = null;
+        Integer timeUntilAiring = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "episode" -> episode = readInteger(reader);
+                case "airingAt" -> {
+                    Integer value = readInteger(reader);
+                    airingAt = value != null ? value.longValue() : null;
+                }
+                case "timeUntilAiring" -> timeUntilAiring = readInteger(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        // Older queries only selected the countdown; pin it to an absolute time on arrival
+        if (airingAt == null && timeUntilAiring != null) {
+            airingAt = Instant.now().getEpochSecond() + timeUntilAiring;
+        }
+        if (episode == null && airingAt == null) return null;
+        return new NextAiringEpisode(episode, airingAt);
+    }
+
+    // Fills day, month, year
+    private void readStartDate(JsonReader reader, Integer[] startDate) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "day" -> startDate[0] = readInteger(reader);
+                case "month" -> startDate[1] = readInteger(reader);
+                case "year" -> startDate[2] = readInteger(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private String readCoverImage(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String url = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("extraLarge")) {
+                url = readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return url;
+    }
+
+    private List<String> readStudios(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        List<String> list = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("nodes") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                list = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String name = readStudioName(reader);
+                    if (name != null && !name.isBlank()) list.add(name);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return list;
+    }
+
+    private String readStudioName(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("name")) {
+                name = readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return name;
+    }
+
+    private List<String> readStringArray(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return null;
+        }
+        List<String> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String value = readString(reader);
+            if (value != null) list.add(value);
+        }
+        reader.endArray();
+        return list;
+    }
+
+    private String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING, NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private Integer readInteger(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            try {
+                return reader.nextInt();
+            } catch (NumberFormatException e) {
+                reader.skipValue();
+                return null;
+            }
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private boolean readBoolean(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        reader.skipValue();
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.AniLog.Anilist;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Read-only media list of one AniList Page, with its pageInfo.hasNextPage. It stays a
+// List so request coalescing and the last-good fallback in AniListClient carry it as is.
+public class AnilistPage extends AbstractList<AnilistResult> implements RandomAccess {
+    private final List<AnilistResult> media;
+    private final boolean hasNextPage;
+
+    public AnilistPage(List<AnilistResult> media, boolean hasNextPage) {
+        this.media = media;
+        this.hasNextPage = hasNextPage;
+    }
+
+    // False for failures and fallbacks, which AniListClient reports as plain empty lists
+    public static boolean hasNextPage(List<AnilistResult> results) {
+        return results instanceof AnilistPage page && page.hasNextPage;
+    }
+
+    public boolean hasNextPage() {
+        return hasNextPage;
+    }
+
+    @Override
+    public AnilistResult get(int index) {
+        return media.get(index);
+    }
+
+    @Override
+    public int size() {
+        return media.size();
+    }
+}
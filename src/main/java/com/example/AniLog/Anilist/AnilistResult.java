@@ -1,28 +1,46 @@
 package com.example.AniLog.Anilist;
 
-import java.util.Collections;
+import java.time.Instant;
 import java.util.List;
 
+// Results are held in the discovery cache, the search caches and the last-good fallback,
+// so the layout is kept compact: numbers are primitives with ABSENT (or ABSENT_SHORT /
+// ABSENT_BYTE) standing in for null, the title and next airing episode are flattened
+// into the result, and repeated codes and genre/studio lists come from the shared
+// Vocabulary pool. The getters still return the boxed, nested view used by the API.
 public class AnilistResult {
+    private static final int ABSENT = Integer.MIN_VALUE;
+    private static final long ABSENT_LONG = Long.MIN_VALUE;
+    private static final short ABSENT_SHORT = Short.MIN_VALUE;
+    private static final byte ABSENT_BYTE = Byte.MIN_VALUE;
+
     private final int id;
+    private final int idMal;
+    private final int episodes;
+    private final int chapters;
+    private final int volumes;
+    private final int averageScore;
+    private final int popularity;
+    private final int trending;
+    private final int updatedAt;
+    private final int nextEpisode;
+    private final long nextAiringAt;
+    private final short year;
+    private final byte month;
+    private final byte day;
+    private final boolean isAdult;
+    private final boolean hasNextAiring;
     private final String type;
-    private final Title title;
-    private final String description;
     private final String format;
-    private final Integer episodes;
-    private final Integer chapters;
-    private final Integer volumes;
-    private final Integer averageScore;
-    private final NextAiringEpisode nextAiringEpisode;
-    private final Integer day;
-    private final Integer month;
-    private final Integer year;
-    private final String coverImageUrl;
     private final String status;
+    private final String romajiTitle;
+    private final String englishTitle;
+    private final String nativeTitle;
+    private final String description;
+    private final String coverImageUrl;
     private final List<String> genres;
     private final List<String> studios;
     private final List<String> synonyms;
-    private final boolean isAdult;
 
     public AnilistResult(
             int id,
@@ -44,25 +62,92 @@ public class AnilistResult {
             List<String> studios,
             List<String> synonyms,
             boolean isAdult) {
+        this(id, type, title, description, format, episodes, chapters, volumes, averageScore,
+                nextAiringEpisode, day, month, year, coverImageUrl, status, genres, studios, synonyms,
+                isAdult, null, null, null);
+    }
+
+    public AnilistResult(
+            int id,
+            String type,
+            Title title,
+            String description,
+            String format,
+            Integer episodes,
+            Integer chapters,
+            Integer volumes,
+            Integer averageScore,
+            NextAiringEpisode nextAiringEpisode,
+            Integer day,
+            Integer month,
+            Integer year,
+            String coverImageUrl,
+            String status,
+            List<String> genres,
+            List<String> studios,
+            List<String> synonyms,
+            boolean isAdult,
+            Integer popularity,
+            Integer trending,
+            Integer updatedAt) {
+        this(id, type, title, description, format, episodes, chapters, volumes, averageScore,
+                nextAiringEpisode, day, month, year, coverImageUrl, status, genres, studios, synonyms,
+                isAdult, popularity, trending, updatedAt, null);
+    }
+
+    public AnilistResult(
+            int id,
+            String type,
+            Title title,
+            String description,
+            String format,
+            Integer episodes,
+            Integer chapters,
+            Integer volumes,
+            Integer averageScore,
+            NextAiringEpisode nextAiringEpisode,
+            Integer day,
+            Integer month,
+            Integer year,
+            String coverImageUrl,
+            String status,
+            List<String> genres,
+            List<String> studios,
+            List<String> synonyms,
+            boolean isAdult,
+            Integer popularity,
+            Integer trending,
+            Integer updatedAt,
+            Integer idMal) {
         this.id = id;
-        this.type = type;
-        this.title = title;
+        this.idMal = pack(idMal);
+        this.type = Vocabulary.intern(type);
+        this.romajiTitle = title != null ? title.getRomaji() : null;
+        this.englishTitle = title != null ? title.getEnglish() : null;
+        this.nativeTitle = title != null ? title.getNativeTitle() : null;
         this.description = description;
-        this.format = format;
-        this.episodes = episodes;
-        this.chapters = chapters;
-        this.volumes = volumes;
-        this.averageScore = averageScore;
-        this.nextAiringEpisode = nextAiringEpisode;
-        this.day = day;
-        this.month = month;
-        this.year = year;
+        this.format = Vocabulary.intern(format);
+        this.episodes = pack(episodes);
+        this.chapters = pack(chapters);
+        this.volumes = pack(volumes);
+        this.averageScore = pack(averageScore);
+        this.hasNextAiring = nextAiringEpisode != null;
+        this.nextEpisode = nextAiringEpisode != null ? pack(nextAiringEpisode.getEpisode()) : ABSENT;
+        this.nextAiringAt = nextAiringEpisode != null && nextAiringEpisode.getAiringAt() != null
+                ? nextAiringEpisode.getAiringAt()
+                : ABSENT_LONG;
+        this.day = packByte(day);
+        this.month = packByte(month);
+        this.year = packShort(year);
         this.coverImageUrl = coverImageUrl;
-        this.status = status;
-        this.genres = genres != null ? genres : Collections.emptyList();
-        this.studios = studios != null ? studios : Collections.emptyList();
-        this.synonyms = synonyms != null ? synonyms : Collections.emptyList();
+        this.status = Vocabulary.intern(status);
+        this.genres = Vocabulary.internAll(genres);
+        this.studios = Vocabulary.internAll(studios);
+        this.synonyms = Vocabulary.compact(synonyms);
         this.isAdult = isAdult;
+        this.popularity = pack(popularity);
+        this.trending = pack(trending);
+        this.updatedAt = pack(updatedAt);
     }
 
     public String getType() {
@@ -73,8 +158,14 @@ public class AnilistResult {
         return id;
     }
 
+    // MyAnimeList ID, only selected by queries that need to map MAL entries
+    public Integer getIdMal() {
+        return unpack(idMal);
+    }
+
+    // Built on access; callers only read the title for serialisation and indexing
     public Title getTitle() {
-        return title;
+        return new Title(romajiTitle, englishTitle, nativeTitle);
     }
 
     public String getFormat() {
@@ -82,35 +173,38 @@ public class AnilistResult {
     }
 
     public Integer getEpisodes() {
-        return episodes;
+        return unpack(episodes);
     }
 
     public Integer getChapters() {
-        return chapters;
+        return unpack(chapters);
     }
 
     public Integer getVolumes() {
-        return volumes;
+        return unpack(volumes);
     }
 
     public Integer getAverageScore() {
-        return averageScore;
+        return unpack(averageScore);
     }
 
     public NextAiringEpisode getNextAiringEpisode() {
-        return nextAiringEpisode;
+        if (!hasNextAiring) {
+            return null;
+        }
+        return new NextAiringEpisode(unpack(nextEpisode), nextAiringAt != ABSENT_LONG ? nextAiringAt : null);
     }
 
     public Integer getDay() {
-        return day;
+        return unpack(day);
     }
 
     public Integer getMonth() {
-        return month;
+        return unpack(month);
     }
 
     public Integer getYear() {
-        return year;
+        return unpack(year);
     }
 
     public String getCoverImageUrl() {
@@ -141,6 +235,44 @@ public class AnilistResult {
         return description;
     }
 
+    public Integer getPopularity() {
+        return unpack(popularity);
+    }
+
+    public Integer getTrending() {
+        return unpack(trending);
+    }
+
+    // Epoch seconds of AniList's last edit to this media
+    public Integer getUpdatedAt() {
+        return unpack(updatedAt);
+    }
+
+    private static int pack(Integer value) {
+        return value != null ? value : ABSENT;
+    }
+
+    // Out-of-range values cannot be represented and are dropped like a missing value
+    private static short packShort(Integer value) {
+        return value != null && value > ABSENT_SHORT && value <= Short.MAX_VALUE ? value.shortValue() : ABSENT_SHORT;
+    }
+
+    private static byte packByte(Integer value) {
+        return value != null && value > ABSENT_BYTE && value <= Byte.MAX_VALUE ? value.byteValue() : ABSENT_BYTE;
+    }
+
+    private static Integer unpack(int value) {
+        return value != ABSENT ? value : null;
+    }
+
+    private static Integer unpack(short value) {
+        return value != ABSENT_SHORT ? (int) value : null;
+    }
+
+    private static Integer unpack(byte value) {
+        return value != ABSENT_BYTE ? (int) value : null;
+    }
+
     public static class Title {
         private final String romaji;
         private final String english;
@@ -165,21 +297,33 @@ public class AnilistResult {
         }
     }
 
+    // Stores the absolute airing time so a cached result stays correct; the countdown
+    // the frontend shows is derived from it whenever the result is serialised
     public static class NextAiringEpisode {
         private final Integer episode;
-        private final Integer timeUntilAiring;
+        private final Long airingAt;
 
-        public NextAiringEpisode(Integer episode, Integer timeUntilAiring) {
+        public NextAiringEpisode(Integer episode, Long airingAt) {
             this.episode = episode;
-            this.timeUntilAiring = timeUntilAiring;
+            this.airingAt = airingAt;
         }
 
         public Integer getEpisode() {
             return episode;
         }
 
+        // Epoch seconds
+        public Long getAiringAt() {
+            return airingAt;
+        }
+
         public Integer getTimeUntilAiring() {
-            return timeUntilAiring;
+            return timeUntilAiring(Instant.now());
+        }
+
+        public Integer timeUntilAiring(Instant now) {
+            if (airingAt == null) return null;
+            return (int) Math.max(0, airingAt - now.getEpochSecond());
         }
     }
-}
\ No newline at end of file
+}
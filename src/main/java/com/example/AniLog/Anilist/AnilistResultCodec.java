@@ -0,0 +1,147 @@
+package com.example.AniLog.Anilist;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fixed-order binary encoding of AnilistResult for local snapshots. Absent numbers use
+// the same MIN_VALUE sentinels as AnilistResult and absent strings a length of -1.
+// Decoding reads from a ByteBuffer so a snapshot file can be memory-mapped.
+public final class AnilistResultCodec {
+    private static final int ABSENT = Integer.MIN_VALUE;
+    private static final long ABSENT_LONG = Long.MIN_VALUE;
+
+    private AnilistResultCodec() {
+    }
+
+    public static void write(DataOutput out, AnilistResult result) throws IOException {
+        out.writeInt(result.getId());
+        writeString(out, result.getType());
+        AnilistResult.Title title = result.getTitle();
+        writeString(out, title.getRomaji());
+        writeString(out, title.getEnglish());
+        writeString(out, title.getNativeTitle());
+        writeString(out, result.getDescription());
+        writeString(out, result.getFormat());
+        writeInt(out, result.getEpisodes());
+        writeInt(out, result.getChapters());
+        writeInt(out, result.getVolumes());
+        writeInt(out, result.getAverageScore());
+        AnilistResult.NextAiringEpisode next = result.getNextAiringEpisode();
+        out.writeBoolean(next != null);
+        if (next != null) {
+            writeInt(out, next.getEpisode());
+            out.writeLong(next.getAiringAt() != null ? next.getAiringAt() : ABSENT_LONG);
+        }
+        writeInt(out, result.getDay());
+        writeInt(out, result.getMonth());
+        writeInt(out, result.getYear());
+        writeString(out, result.getCoverImageUrl());
+        writeString(out, result.getStatus());
+        writeStrings(out, result.getGenres());
+        writeStrings(out, result.getStudios());
+        writeStrings(out, result.getSynonyms());
+        out.writeBoolean(result.isAdult());
+        writeInt(out, result.getPopularity());
+        writeInt(out, result.getTrending());
+        writeInt(out, result.getUpdatedAt());
+        writeInt(out, result.getIdMal());
+    }
+
+    public static AnilistResult read(ByteBuffer in) {
+        int id = in.getInt();
+        String type = readString(in);
+        AnilistResult.Title title = new AnilistResult.Title(readString(in), readString(in), readString(in));
+        String description = readString(in);
+        String format = readString(in);
+        Integer episodes = readInt(in);
+        Integer chapters = readInt(in);
+        Integer volumes = readInt(in);
+        Integer averageScore = readInt(in);
+        AnilistResult.NextAiringEpisode next = null;
+        if (in.get() != 0) {
+            Integer episode = readInt(in);
+            long airingAt = in.getLong();
+            next = new AnilistResult.NextAiringEpisode(episode, airingAt != ABSENT_LONG ? airingAt : null);
+        }
+        Integer day = readInt(in);
+        Integer month = readInt(in);
+        Integer year = readInt(in);
+        String coverImageUrl = readString(in);
+        String status = readString(in);
+        List<String> genres = readStrings(in);
+        List<String> studios = readStrings(in);
+        List<String> synonyms = readStrings(in);
+        boolean isAdult = in.get() != 0;
+        Integer popularity = readInt(in);
+        Integer trending = readInt(in);
+        Integer updatedAt = readInt(in);
+        Integer idMal = readInt(in);
+        return new AnilistResult(id, type, title, description, format, episodes, chapters, volumes,
+                averageScore, next, day, month, year, coverImageUrl, status, genres, studios, synonyms,
+                isAdult, popularity, trending, updatedAt, idMal);
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInt(DataOutput out, Integer value) throws IOException {
+        out.writeInt(value != null ? value : ABSENT);
+    }
+
+    private static Integer readInt(ByteBuffer in) {
+        int value = in.getInt();
+        return value != ABSENT ? value : null;
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    // A count read from disk, checked against what is left before anything is sized
+    // from it. Each element takes at least minBytes, so a corrupt count fails here
+    // rather than allocating
+    public static int readCount(ByteBuffer in, int minBytes) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / minBytes) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int size = readCount(in, Integer.BYTES);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
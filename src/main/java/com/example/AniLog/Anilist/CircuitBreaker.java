@@ -0,0 +1,196 @@
+package com.example.AniLog.Anilist;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// Count-based circuit breaker for upstream calls. Outcomes of the last windowSize calls
+// are kept in a ring; once at least minimumCalls are recorded and either the failure
+// rate or the slow-call rate reaches its threshold, the breaker opens and callers fail
+// fast for openDuration. It then lets halfOpenProbes calls through: all succeeding
+// closes it again, any failure reopens it. Every state change starts a new generation,
+// and an outcome only counts for the generation its permit was granted in, so a call
+// started before the breaker opened cannot pass for a probe.
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final LongSupplier nanoClock;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // Ring of outcomes: bit 0 = failed, bit 1 = slow
+    private final byte[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openUntil;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            double slowCallRateThreshold,
+            Duration openDuration,
+            int halfOpenProbes) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallThreshold, slowCallRateThreshold,
+                openDuration, halfOpenProbes, System::nanoTime);
+    }
+
+    CircuitBreaker(
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            double slowCallRateThreshold,
+            Duration openDuration,
+            int halfOpenProbes,
+            LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.outcomes = new byte[windowSize];
+    }
+
+    public static CircuitBreaker withDefaults() {
+        return new CircuitBreaker(20, 10, 0.5, Duration.ofSeconds(5), 0.8, Duration.ofSeconds(30), 3);
+    }
+
+    // A permit for a call to go upstream now, or null when the call must fail fast.
+    // Every permit must be handed back to onSuccess, onFailure or release.
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openUntil < 0) {
+                return null;
+            }
+            transition(State.HALF_OPEN);
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+                return null;
+            }
+            probesInFlight++;
+        }
+        return new Permit(state, generation);
+    }
+
+    public synchronized void onSuccess(Permit permit, long durationNanos) {
+        if (!isCurrent(permit)) {
+            return;
+        }
+        boolean slow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            // A slow probe means the upstream has not recovered yet
+            if (slow) {
+                open();
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        record(false, slow);
+    }
+
+    public synchronized void onFailure(Permit permit, long durationNanos) {
+        if (!isCurrent(permit)) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    // The call was permitted but never reached the upstream (e.g. dropped by the rate limiter)
+    public synchronized void release(Permit permit) {
+        if (isCurrent(permit) && state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openUntil >= 0) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    // Late outcomes of permits from an earlier generation are dropped
+    private boolean isCurrent(Permit permit) {
+        return permit.generation == generation && permit.state == state;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recorded == windowSize) {
+            byte evicted = outcomes[next];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        failures += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+        next = (next + 1) % windowSize;
+
+        if (recorded >= minimumCalls
+                && (failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded)) {
+            open();
+        }
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openUntil = nanoClock.getAsLong() + openNanos;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+    }
+
+    private void close() {
+        transition(State.CLOSED);
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+    }
+
+    // Handed out by tryAcquire, tagged with the state and generation it was granted in
+    public static final class Permit {
+        private final State state;
+        private final long generation;
+
+        private Permit(State state, long generation) {
+            this.state = state;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.AniLog.Anilist;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Token bucket sized to AniList's per-minute budget. Callers reserve a token before
+// each request and wait out the returned delay, so bursts are queued instead of being
+// rejected upstream. The bucket is corrected from X-RateLimit-* and Retry-After headers,
+// since the budget is shared with anything else calling AniList from the same address.
+public class RateLimitGovernor {
+    public static final long REJECTED = -1;
+
+    private final LongSupplier nanoClock;
+    private final long maxQueueDelayNanos;
+
+    private double capacity;
+    private double tokens;
+    private double refillPerNano;
+    private long lastRefill;
+    private long blockedUntil;
+    private int lastRemaining = -1;
+    private int queued;
+
+    public RateLimitGovernor(int requestsPerMinute, Duration maxQueueDelay) {
+        this(requestsPerMinute, maxQueueDelay, System::nanoTime);
+    }
+
+    RateLimitGovernor(int requestsPerMinute, Duration maxQueueDelay, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.maxQueueDelayNanos = maxQueueDelay.toNanos();
+        this.lastRefill = nanoClock.getAsLong();
+        this.blockedUntil = lastRefill;
+        setLimit(requestsPerMinute);
+        this.tokens = capacity;
+    }
+
+    // Returns how long to wait (in nanoseconds) before sending, or REJECTED when the
+    // wait would exceed the configured maximum queue delay.
+    public synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        long wait = Math.max(0, blockedUntil - now);
+        if (tokens < 1) {
+            wait = Math.max(wait, (long) Math.ceil((1 - tokens) / refillPerNano));
+        }
+        if (wait > maxQueueDelayNanos) {
+            return REJECTED;
+        }
+
+        // Tokens go negative while calls are queued, which pushes later callers further out
+        tokens -= 1;
+        if (wait > 0) {
+            queued++;
+        }
+        return wait;
+    }
+
+    // Called when a queued call has been dispatched
+    public synchronized void dequeued() {
+        if (queued > 0) {
+            queued--;
+        }
+    }
+
+    public synchronized void onResponse(int statusCode, String limit, String remaining, String retryAfter) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        Integer parsedLimit = parse(limit);
+        if (parsedLimit != null && parsedLimit > 0 && parsedLimit != (int) capacity) {
+            setLimit(parsedLimit);
+            tokens = Math.min(tokens, capacity);
+        }
+
+        Integer parsedRemaining = parse(remaining);
+        if (parsedRemaining != null) {
+            lastRemaining = parsedRemaining;
+            // Trust the server when it has seen more traffic than we have
+            tokens = Math.min(tokens, parsedRemaining);
+        }
+
+        if (statusCode == 429) {
+            Integer seconds = parse(retryAfter);
+            long backoff = TimeUnit.SECONDS.toNanos(seconds != null ? seconds : 60);
+            blockedUntil = Math.max(blockedUntil, now + backoff);
+            tokens = Math.min(tokens, 0);
+        }
+    }
+
+    // Budget left as last reported by AniList, or -1 before the first response
+    public synchronized int getRemaining() {
+        return lastRemaining;
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill(nanoClock.getAsLong());
+        return Math.max(0, tokens);
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    private void setLimit(int requestsPerMinute) {
+        this.capacity = requestsPerMinute;
+        this.refillPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = now;
+        }
+    }
+
+    private static Integer parse(String header) {
+        if (header == null || header.isBlank()) return null;
+        try {
+            return Integer.parseInt(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.AniLog.Anilist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Canonical instances for the values that repeat across media: type, format and status
+// codes, genre and studio names, and whole genre/studio lists (most titles share one of
+// a few hundred combinations). Values outside AniList's documented vocabularies are
+// pooled the same way rather than rejected. Both pools are bounded; once full, new
+// values are still accepted, just not shared.
+final class Vocabulary {
+    static final int MAX_STRINGS = 16_384;
+    static final int MAX_LISTS = 16_384;
+
+    private static final ConcurrentHashMap<String, String> STRINGS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<List<String>, List<String>> LISTS = new ConcurrentHashMap<>();
+
+    static {
+        for (String value : List.of(
+                "ANIME", "MANGA",
+                "TV", "TV_SHORT", "MOVIE", "SPECIAL", "OVA", "ONA", "MUSIC", "NOVEL", "ONE_SHOT",
+                "FINISHED", "RELEASING", "NOT_YET_RELEASED", "CANCELLED", "HIATUS")) {
+            STRINGS.put(value, value);
+        }
+    }
+
+    private Vocabulary() {
+    }
+
+    static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = STRINGS.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (STRINGS.size() >= MAX_STRINGS) {
+            return value;
+        }
+        canonical = STRINGS.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    // Immutable, with every element interned
+    static List<String> internAll(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        List<String> canonical = LISTS.get(values);
+        if (canonical != null) {
+            return canonical;
+        }
+        List<String> interned = new ArrayList<>(values.size());
+        for (String value : values) {
+            if (value != null) interned.add(intern(value));
+        }
+        List<String> copy = List.copyOf(interned);
+        if (LISTS.size() >= MAX_LISTS) {
+            return copy;
+        }
+        canonical = LISTS.putIfAbsent(copy, copy);
+        return canonical != null ? canonical : copy;
+    }
+
+    // Per-title lists (synonyms) are not shared, only trimmed to size
+    static List<String> compact(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        List<String> copy = new ArrayList<>(values.size());
+        for (String value : values) {
+            if (value != null) copy.add(value);
+        }
+        return List.copyOf(copy);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.AniLog.Catalog;
+
+import java.util.List;
+
+// Notified after CatalogSyncService commits a batch of media rows
+public interface CatalogListener {
+    void onMediaUpdated(List<CatalogMedia> media);
+
+    // Called once, after the run whose backfill reached the end of the catalog commits
+    default void onBackfillComplete() {
+    }
+}
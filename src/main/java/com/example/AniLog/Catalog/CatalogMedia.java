@@ -0,0 +1,320 @@
+package com.example.AniLog.Catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+// Local copy of an AniList media entry, kept up to date by CatalogSyncService
+@Entity
+@Table(name = "media", indexes = {
+    @Index(name = "idx_media_type_trending", columnList = "type, trending"),
+    @Index(name = "idx_media_type_popularity", columnList = "type, popularity"),
+    @Index(name = "idx_media_type_start_date", columnList = "type, start_date"),
+    @Index(name = "idx_media_updated_at", columnList = "updated_at")
+})
+public class CatalogMedia implements Persistable<Integer> {
+
+    @Id
+    private Integer id; // AniList ID
+
+    @Column
+    private String type;
+
+    @Column
+    private String romajiTitle;
+
+    @Column
+    private String englishTitle;
+
+    @Column
+    private String nativeTitle;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column
+    private String format;
+
+    @Column
+    private Integer episodes;
+
+    @Column
+    private Integer chapters;
+
+    @Column
+    private Integer volumes;
+
+    @Column
+    private Integer averageScore;
+
+    @Column
+    private Integer popularity;
+
+    @Column
+    private Integer trending;
+
+    @Column
+    private Integer nextAiringEpisode;
+
+    @Column
+    private Long nextAiringAt; // Epoch seconds
+
+    @Column
+    private Integer startDay;
+
+    @Column
+    private Integer startMonth;
+
+    @Column
+    private Integer startYear;
+
+    @Column
+    private Integer startDate; // FuzzyDateInt (yyyymmdd, unknown parts are 0)
+
+    @Column
+    private String coverImageUrl;
+
+    @Column
+    private String status;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column
+    private List<String> genres;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column
+    private List<String> studios;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column
+    private List<String> synonyms;
+
+    @Column
+    private boolean isAdult;
+
+    @Column
+    private Integer updatedAt; // AniList updatedAt, epoch seconds
+
+    @Column
+    private Instant syncedAt;
+
+    // IDs are assigned by AniList, so tell Spring Data when to persist instead of merge
+    @Transient
+    private boolean isNew;
+
+    public static CatalogMedia create() {
+        CatalogMedia media = new CatalogMedia();
+        media.isNew = true;
+        return media;
+    }
+
+    // Copies every field from an AniList result
+    public void update(AnilistResult result, Instant now) {
+        this.id = result.getId();
+        this.type = result.getType();
+        this.romajiTitle = result.getTitle() != null ? result.getTitle().getRomaji() : null;
+        this.englishTitle = result.getTitle() != null ? result.getTitle().getEnglish() : null;
+        this.nativeTitle = result.getTitle() != null ? result.getTitle().getNativeTitle() : null;
+        this.description = result.getDescription();
+        this.format = result.getFormat();
+        this.episodes = result.getEpisodes();
+        this.chapters = result.getChapters();
+        this.volumes = result.getVolumes();
+        this.averageScore = result.getAverageScore();
+        // Discovery lists sort on these, and Postgres puts NULLs first in DESC order
+        this.popularity = result.getPopularity() != null ? result.getPopularity() : 0;
+        this.trending = result.getTrending() != null ? result.getTrending() : 0;
+        AnilistResult.NextAiringEpisode next = result.getNextAiringEpisode();
+        this.nextAiringEpisode = next != null ? next.getEpisode() : null;
+        this.nextAiringAt = next != null ? next.getAiringAt() : null;
+        this.startDay = result.getDay();
+        this.startMonth = result.getMonth();
+        this.startYear = result.getYear();
+        this.startDate = result.getYear() != null
+                ? result.getYear() * 10000
+                    + (result.getMonth() != null ? result.getMonth() * 100 : 0)
+                    + (result.getDay() != null ? result.getDay() : 0)
+                : null;
+        this.coverImageUrl = result.getCoverImageUrl();
+        this.status = result.getStatus();
+        this.genres = new ArrayList<>(result.getGenres());
+        this.studios = new ArrayList<>(result.getStudios());
+        this.synonyms = new ArrayList<>(result.getSynonyms());
+        this.isAdult = result.isAdult();
+        this.updatedAt = result.getUpdatedAt();
+        this.syncedAt = now;
+    }
+
+    // Whether every mirrored column already holds what update(result, ...) would write.
+    // AniList leaves updatedAt alone when computed fields (averageScore, popularity,
+    // trending, status, nextAiringEpisode) move, so updatedAt alone cannot tell
+    public boolean mirrors(AnilistResult result) {
+        CatalogMedia incoming = new CatalogMedia();
+        incoming.update(result, syncedAt);
+        return Objects.equals(id, incoming.id)
+                && Objects.equals(type, incoming.type)
+                && Objects.equals(romajiTitle, incoming.romajiTitle)
+                && Objects.equals(englishTitle, incoming.englishTitle)
+                && Objects.equals(nativeTitle, incoming.nativeTitle)
+                && Objects.equals(description, incoming.description)
+                && Objects.equals(format, incoming.format)
+                && Objects.equals(episodes, incoming.episodes)
+                && Objects.equals(chapters, incoming.chapters)
+                && Objects.equals(volumes, incoming.volumes)
+                && Objects.equals(averageScore, incoming.averageScore)
+                && Objects.equals(popularity, incoming.popularity)
+                && Objects.equals(trending, incoming.trending)
+                && Objects.equals(nextAiringEpisode, incoming.nextAiringEpisode)
+                && Objects.equals(nextAiringAt, incoming.nextAiringAt)
+                && Objects.equals(startDay, incoming.startDay)
+                && Objects.equals(startMonth, incoming.startMonth)
+                && Objects.equals(startYear, incoming.startYear)
+                && Objects.equals(coverImageUrl, incoming.coverImageUrl)
+                && Objects.equals(status, incoming.status)
+                && Objects.equals(genres, incoming.genres)
+                && Objects.equals(studios, incoming.studios)
+                && Objects.equals(synonyms, incoming.synonyms)
+                && isAdult == incoming.isAdult
+                && Objects.equals(updatedAt, incoming.updatedAt);
+    }
+
+    public AnilistResult toResult() {
+        AnilistResult.NextAiringEpisode next = null;
+        if (nextAiringEpisode != null || nextAiringAt != null) {
+            next = new AnilistResult.NextAiringEpisode(nextAiringEpisode, nextAiringAt);
+        }
+        return new AnilistResult(
+                id,
+                type,
+                new AnilistResult.Title(romajiTitle, englishTitle, nativeTitle),
+                description,
+                format,
+                episodes,
+                chapters,
+                volumes,
+                averageScore,
+                next,
+                startDay,
+                startMonth,
+                startYear,
+                coverImageUrl,
+                status,
+                genres != null ? List.copyOf(genres) : List.of(),
+                studios != null ? List.copyOf(studios) : List.of(),
+                synonyms != null ? List.copyOf(synonyms) : List.of(),
+                isAdult,
+                popularity,
+                trending,
+                updatedAt);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    // Getters and Setters
+    @Override
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getRomajiTitle() {
+        return romajiTitle;
+    }
+
+    public String getEnglishTitle() {
+        return englishTitle;
+    }
+
+    public String getNativeTitle() {
+        return nativeTitle;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Integer getAverageScore() {
+        return averageScore;
+    }
+
+    public Integer getPopularity() {
+        return popularity;
+    }
+
+    public void setPopularity(Integer popularity) {
+        this.popularity = popularity;
+    }
+
+    public Integer getTrending() {
+        return trending;
+    }
+
+    public void setTrending(Integer trending) {
+        this.trending = trending;
+    }
+
+    public Integer getStartDate() {
+        return startDate;
+    }
+
+    public String getCoverImageUrl() {
+        return coverImageUrl;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<String> getGenres() {
+        return genres;
+    }
+
+    public List<String> getSynonyms() {
+        return synonyms;
+    }
+
+    public boolean isAdult() {
+        return isAdult;
+    }
+
+    public Integer getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.AniLog.Catalog;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogMediaRepository extends JpaRepository<CatalogMedia, Integer> {
+
+    // Newest AniList edit we have stored, seeds the incremental sync watermark
+    @Query("select max(m.updatedAt) from CatalogMedia m")
+    Integer findMaxUpdatedAt();
+
+    // Rows still carrying a trending score, other than the given IDs
+    List<CatalogMedia> findByTypeAndTrendingGreaterThanAndIdNotIn(String type, Integer trending, Collection<Integer> ids);
+
+    // Discovery lists
+    List<CatalogMedia> findTop20ByTypeOrderByTrendingDescPopularityDesc(String type);
+
+    List<CatalogMedia> findTop20ByTypeOrderByPopularityDesc(String type);
+
+    List<CatalogMedia> findTop20ByTypeAndStartDateBetweenAndStatusNotInOrderByPopularityDesc(
+        String type, Integer startDate, Integer endDate, Collection<String> statuses);
+
+    List<CatalogMedia> findTop20ByTypeAndStatusAndStartDateBetweenOrderByPopularityDesc(
+        String type, String status, Integer startDate, Integer endDate);
+}
@@ -0,0 +1,288 @@
+package com.example.AniLog.Catalog;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Search.MediaProjection;
+import com.example.AniLog.Search.SearchInterface;
+import com.example.AniLog.Search.SearchPage;
+import com.example.AniLog.Search.SearchService;
+
+// Serves lookups and discovery lists from the local catalog, falling back to
+// AniList (through SearchService) when the mirror has nothing for the request.
+// Free-text search uses the TitleIndex when it is enabled and built, otherwise
+// it goes upstream.
+@Service
+@Primary
+@ConditionalOnProperty(name = "anilist.catalog.serve-from-mirror", havingValue = "true")
+public class CatalogSearchService implements SearchInterface {
+    private static final List<String> NOT_NEW_STATUSES = List.of("NOT_YET_RELEASED", "CANCELLED", "HIATUS");
+
+    private final CatalogMediaRepository mediaRepository;
+    private final SearchService upstream;
+    private final Optional<TitleIndex> titleIndex;
+
+    public CatalogSearchService(
+            CatalogMediaRepository mediaRepository,
+            SearchService upstream,
+            Optional<TitleIndex> titleIndex) {
+        this.mediaRepository = mediaRepository;
+        this.upstream = upstream;
+        this.titleIndex = titleIndex;
+    }
+
+    @Override
+    public List<AnilistResult> searchAniList(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy) {
+        Optional<TitleIndex> index = readyIndex();
+        if (index.isPresent()) {
+            return index.get().search(query, type, format, status, genres, sortBy);
+        }
+        return upstream.searchAniList(query, type, format, status, isAdult, genres, sortBy);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListAsync(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy) {
+        return searchAniListAsync(query, type, format, status, isAdult, genres, sortBy, MediaProjection.DETAIL);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListAsync(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy,
+            MediaProjection projection) {
+        Optional<TitleIndex> index = readyIndex();
+        if (index.isPresent()) {
+            return CompletableFuture.completedFuture(
+                    project(index.get().search(query, type, format, status, genres, sortBy), projection));
+        }
+        return upstream.searchAniListAsync(query, type, format, status, isAdult, genres, sortBy, projection);
+    }
+
+    @Override
+    public CompletableFuture<SearchPage> searchAniListAsync(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy,
+            int page,
+            int perPage,
+            int pages,
+            MediaProjection projection) {
+        Optional<TitleIndex> index = readyIndex();
+        if (index.isPresent()) {
+            // One match past the window tells whether another page follows
+            int limit = perPage * pages;
+            List<AnilistResult> results = index.get().search(
+                    query, type, format, status, genres, sortBy, (page - 1) * perPage, limit + 1);
+            boolean hasNextPage = results.size() > limit;
+            List<AnilistResult> window = hasNextPage ? results.subList(0, limit) : results;
+            return CompletableFuture.completedFuture(new SearchPage(project(window, projection), hasNextPage));
+        }
+        return upstream.searchAniListAsync(
+                query, type, format, status, isAdult, genres, sortBy, page, perPage, pages, projection);
+    }
+
+    @Override
+    public List<AnilistResult> searchAniListById(int id) {
+        return mediaRepository.findById(id)
+                .map(media -> List.of(media.toResult()))
+                .orElseGet(() -> upstream.searchAniListById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListByIdAsync(int id) {
+        return mediaRepository.findById(id)
+                .map(media -> CompletableFuture.completedFuture(List.of(media.toResult())))
+                .orElseGet(() -> upstream.searchAniListByIdAsync(id));
+    }
+
+    @Override
+    public List<AnilistResult> searchAniListByIds(Collection<Integer> ids) {
+        return searchAniListByIdsAsync(ids).join();
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListByIdsAsync(Collection<Integer> ids) {
+        return searchAniListByIdsAsync(ids, MediaProjection.DETAIL);
+    }
+
+    // Ids missing from the mirror are resolved upstream, order follows the request
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListByIdsAsync(
+            Collection<Integer> ids,
+            MediaProjection projection) {
+        List<Integer> distinctIds = ids == null ? List.of() : ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (distinctIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        Map<Integer, AnilistResult> byId = mediaRepository.findAllById(distinctIds).stream()
+                .map(media -> projection.apply(media.toResult()))
+                .collect(Collectors.toMap(AnilistResult::getId, Function.identity()));
+        List<Integer> missing = distinctIds.stream().filter(id -> !byId.containsKey(id)).toList();
+
+        CompletableFuture<List<AnilistResult>> fetched = missing.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : upstream.searchAniListByIdsAsync(missing, projection);
+        return fetched.thenApply(results -> {
+            results.forEach(result -> byId.put(result.getId(), result));
+            List<AnilistResult> ordered = new ArrayList<>(distinctIds.size());
+            for (Integer id : distinctIds) {
+                AnilistResult result = byId.get(id);
+                if (result != null) ordered.add(result);
+            }
+            return ordered;
+        });
+    }
+
+    @Override
+    public List<AnilistResult> getTrendingAniList(String type) {
+        return orElse(mediaRepository.findTop20ByTypeOrderByTrendingDescPopularityDesc(type),
+                () -> upstream.getTrendingAniList(type));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getTrendingAniListAsync(String type) {
+        return getTrendingAniListAsync(type, MediaProjection.DETAIL);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getTrendingAniListAsync(String type, MediaProjection projection) {
+        return orElseAsync(mediaRepository.findTop20ByTypeOrderByTrendingDescPopularityDesc(type), projection,
+                () -> upstream.getTrendingAniListAsync(type, projection));
+    }
+
+    @Override
+    public List<AnilistResult> getPopularAniList(String type) {
+        return orElse(mediaRepository.findTop20ByTypeOrderByPopularityDesc(type),
+                () -> upstream.getPopularAniList(type));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getPopularAniListAsync(String type) {
+        return getPopularAniListAsync(type, MediaProjection.DETAIL);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getPopularAniListAsync(String type, MediaProjection projection) {
+        return orElseAsync(mediaRepository.findTop20ByTypeOrderByPopularityDesc(type), projection,
+                () -> upstream.getPopularAniListAsync(type, projection));
+    }
+
+    @Override
+    public List<AnilistResult> getNewAniList(String type) {
+        return orElse(findNew(type), () -> upstream.getNewAniList(type));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getNewAniListAsync(String type) {
+        return getNewAniListAsync(type, MediaProjection.DETAIL);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getNewAniListAsync(String type, MediaProjection projection) {
+        return orElseAsync(findNew(type), projection,
+                () -> upstream.getNewAniListAsync(type, projection));
+    }
+
+    @Override
+    public List<AnilistResult> getComingSoonAniList(String type) {
+        return orElse(findComingSoon(type), () -> upstream.getComingSoonAniList(type));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getComingSoonAniListAsync(String type) {
+        return getComingSoonAniListAsync(type, MediaProjection.DETAIL);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getComingSoonAniListAsync(String type, MediaProjection projection) {
+        return orElseAsync(findComingSoon(type), projection,
+                () -> upstream.getComingSoonAniListAsync(type, projection));
+    }
+
+    private Optional<TitleIndex> readyIndex() {
+        return titleIndex.filter(TitleIndex::isReady);
+    }
+
+    // Same windows as SearchService: started in the last month / starting in the next two
+    private List<CatalogMedia> findNew(String type) {
+        LocalDate today = LocalDate.now();
+        return mediaRepository.findTop20ByTypeAndStartDateBetweenAndStatusNotInOrderByPopularityDesc(
+                type, fuzzyDate(today.minusMonths(1)), fuzzyDate(today), NOT_NEW_STATUSES);
+    }
+
+    private List<CatalogMedia> findComingSoon(String type) {
+        LocalDate today = LocalDate.now();
+        return mediaRepository.findTop20ByTypeAndStatusAndStartDateBetweenOrderByPopularityDesc(
+                type, "NOT_YET_RELEASED", fuzzyDate(today), fuzzyDate(today.plusMonths(2)));
+    }
+
+    private static int fuzzyDate(LocalDate date) {
+        return Integer.parseInt(date.format(DateTimeFormatter.BASIC_ISO_DATE));
+    }
+
+    private static List<AnilistResult> orElse(
+            List<CatalogMedia> rows,
+            Supplier<List<AnilistResult>> fallback) {
+        if (rows.isEmpty()) {
+            return fallback.get();
+        }
+        return rows.stream().map(CatalogMedia::toResult).toList();
+    }
+
+    private static CompletableFuture<List<AnilistResult>> orElseAsync(
+            List<CatalogMedia> rows,
+            MediaProjection projection,
+            Supplier<CompletableFuture<List<AnilistResult>>> fallback) {
+        if (rows.isEmpty()) {
+            return fallback.get();
+        }
+        return CompletableFuture.completedFuture(
+                rows.stream().map(media -> projection.apply(media.toResult())).toList());
+    }
+
+    private static List<AnilistResult> project(List<AnilistResult> results, MediaProjection projection) {
+        return projection == MediaProjection.DETAIL ? results : results.stream().map(projection::apply).toList();
+    }
+}
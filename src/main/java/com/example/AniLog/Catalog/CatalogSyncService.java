@@ -0,0 +1,326 @@
+package com.example.AniLog.Catalog;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistResult;
+
+// Keeps the local media catalog in step with AniList. Each run:
+//   1. pulls everything edited since the stored watermark (UPDATED_AT_DESC),
+//   2. refreshes the first trending/popular page per type, since those counters move
+//      without touching updatedAt, and zeroes trending for titles that left the page,
+//   3. spends what is left of the page budget walking the backfill forward by ID.
+// Runs stop early when the shared rate limit budget drops to the reserve, so
+// user-facing requests always have tokens left.
+@Service
+public class CatalogSyncService {
+    static final int PER_PAGE = 50;
+    private static final List<String> TYPES = List.of("ANIME", "MANGA");
+    private static final List<String> HOT_SORTS = List.of("TRENDING_DESC", "POPULARITY_DESC");
+
+    private static final String MEDIA_FIELDS = """
+                        id
+                        type
+                        title {
+                            romaji
+                            english
+                            native
+                        }
+                        description
+                        format
+                        episodes
+                        chapters
+                        volumes
+                        averageScore
+                        popularity
+                        trending
+                        nextAiringEpisode {
+                            episode
+                            airingAt
+                        }
+                        startDate {
+                            day
+                            month
+                            year
+                        }
+                        coverImage {
+                            extraLarge
+                        }
+                        status
+                        genres
+                        studios {
+                            nodes {
+                                name
+                            }
+                        }
+                        synonyms
+                        isAdult
+                        updatedAt
+            """;
+
+    private static final String UPDATED_QUERY = """
+            query ($page: Int, $perPage: Int) {
+                Page(page: $page, perPage: $perPage) {
+                    media(sort: UPDATED_AT_DESC, genre_not_in: ["Hentai"]) {
+            """ + MEDIA_FIELDS + """
+                    }
+                }
+            }
+            """;
+
+    private static final String BACKFILL_QUERY = """
+            query ($after: Int, $perPage: Int) {
+                Page(page: 1, perPage: $perPage) {
+                    media(sort: ID, id_greater: $after, genre_not_in: ["Hentai"]) {
+            """ + MEDIA_FIELDS + """
+                    }
+                }
+            }
+            """;
+
+    private static final String HOT_QUERY = """
+            query ($type: MediaType, $sort: [MediaSort], $perPage: Int) {
+                Page(page: 1, perPage: $perPage) {
+                    media(sort: $sort, type: $type, genre_not_in: ["Hentai"]) {
+            """ + MEDIA_FIELDS + """
+                    }
+                }
+            }
+            """;
+
+    private final AniListClient aniListClient;
+    private final CatalogMediaRepository mediaRepository;
+    private final CatalogSyncStateRepository stateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPagesPerRun;
+    private final int tokenReserve;
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+
+    public CatalogSyncService(
+            AniListClient aniListClient,
+            CatalogMediaRepository mediaRepository,
+            CatalogSyncStateRepository stateRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${anilist.catalog.sync.enabled:false}") boolean enabled,
+            @Value("${anilist.catalog.sync.max-pages-per-run:20}") int maxPagesPerRun,
+            @Value("${anilist.catalog.sync.token-reserve:30}") int tokenReserve) {
+        this.aniListClient = aniListClient;
+        this.mediaRepository = mediaRepository;
+        this.stateRepository = stateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.tokenReserve = tokenReserve;
+    }
+
+    @Scheduled(
+        initialDelayString = "${anilist.catalog.sync.initial-delay:PT1M}",
+        fixedDelayString = "${anilist.catalog.sync.interval:PT15M}")
+    public void scheduledSync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int written = sync();
+            System.out.println("Catalog sync wrote " + written + " media rows");
+        } catch (RuntimeException e) {
+            System.err.println("Catalog sync failed: " + e.getMessage());
+        }
+    }
+
+    // Runs one sync pass and returns the number of rows inserted or updated
+    public synchronized int sync() {
+        CatalogSyncState state = stateRepository.findById(CatalogSyncState.ID).orElseGet(CatalogSyncState::new);
+        boolean wasBackfillComplete = state.isBackfillComplete();
+        int pages = 0;
+        int written = 0;
+
+        // 1. Incremental. The watermark only moves once a walk has paged all the way back
+        // down to it, so a run stopped by the page limit or the budget picks its walk up
+        // again next run rather than skipping the edits it had not reached yet
+        if (state.getUpdatedWatermark() == null) {
+            // First run: whatever is mirrored from now on is at least this fresh
+            Integer stored = mediaRepository.findMaxUpdatedAt();
+            state.setUpdatedWatermark(stored != null ? stored : (int) Instant.now().getEpochSecond());
+        } else {
+            int watermark = state.getUpdatedWatermark();
+            Integer walkTop = state.getUpdatedWalkTop();
+            // New edits only push rows further down the list, so resuming by page number can
+            // revisit rows but not skip them
+            int page = state.getUpdatedWalkPage() != null ? state.getUpdatedWalkPage() : 1;
+            for (; pages < maxPagesPerRun && hasBudget(); page++) {
+                List<AnilistResult> media = aniListClient.executeQuery(UPDATED_QUERY, pageVariables(page));
+                pages++;
+                if (media.isEmpty()) {
+                    // AniListClient reports failures as an empty list; retry the page next run
+                    break;
+                }
+                written += upsert(media);
+                for (AnilistResult m : media) {
+                    if (m.getUpdatedAt() != null && (walkTop == null || m.getUpdatedAt() > walkTop)) {
+                        walkTop = m.getUpdatedAt();
+                    }
+                }
+                boolean reachedWatermark = media.stream()
+                        .anyMatch(m -> m.getUpdatedAt() != null && m.getUpdatedAt() <= watermark);
+                if (reachedWatermark || media.size() < PER_PAGE) {
+                    state.setUpdatedWatermark(walkTop != null ? Math.max(watermark, walkTop) : watermark);
+                    state.setUpdatedWalkPage(null);
+                    walkTop = null;
+                    break;
+                }
+                state.setUpdatedWalkPage(page + 1);
+            }
+            state.setUpdatedWalkTop(walkTop);
+        }
+
+        // 2. Hot rows
+        for (String type : TYPES) {
+            for (String sort : HOT_SORTS) {
+                if (pages >= maxPagesPerRun || !hasBudget()) break;
+                List<AnilistResult> media = aniListClient.executeQuery(HOT_QUERY, hotVariables(type, sort));
+                pages++;
+                written += upsert(media);
+                if (sort.equals("TRENDING_DESC") && !media.isEmpty()) {
+                    written += clearTrending(type, media);
+                }
+            }
+        }
+
+        // 3. Backfill
+        while (!state.isBackfillComplete() && pages < maxPagesPerRun && hasBudget()) {
+            List<AnilistResult> media = aniListClient.executeQuery(BACKFILL_QUERY, backfillVariables(state.getBackfillCursor()));
+            pages++;
+            written += upsert(media);
+            media.stream()
+                    .mapToInt(AnilistResult::getId)
+                    .max()
+                    .ifPresent(maxId -> state.setBackfillCursor(Math.max(state.getBackfillCursor(), maxId)));
+            if (media.size() < PER_PAGE) {
+                // A short page is the end of the catalog, unless the call failed outright
+                // (AniListClient reports failures as an empty list), so only finish on data
+                state.setBackfillComplete(!media.isEmpty());
+                break;
+            }
+        }
+
+        state.setLastSyncedAt(Instant.now());
+        stateRepository.save(state);
+        if (!wasBackfillComplete && state.isBackfillComplete()) {
+            listeners.forEach(CatalogListener::onBackfillComplete);
+        }
+        return written;
+    }
+
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+
+    // Whether the mirror holds the whole catalog, so it can answer for AniList
+    public boolean isBackfillComplete() {
+        return stateRepository.findById(CatalogSyncState.ID)
+                .map(CatalogSyncState::isBackfillComplete)
+                .orElse(false);
+    }
+
+    // Writes rows that are new or whose AniList copy has changed, in one transaction per page
+    int upsert(List<AnilistResult> media) {
+        List<AnilistResult> valid = media.stream()
+                .filter(m -> m.getId() > 0 && !m.getGenres().contains("Hentai"))
+                .toList();
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        List<CatalogMedia> saved = transactionTemplate.execute(status -> {
+            Map<Integer, CatalogMedia> existing = mediaRepository
+                    .findAllById(valid.stream().map(AnilistResult::getId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(CatalogMedia::getId, Function.identity()));
+
+            Instant now = Instant.now();
+            Map<Integer, CatalogMedia> changed = new HashMap<>();
+            for (AnilistResult result : valid) {
+                CatalogMedia row = existing.get(result.getId());
+                if (row != null && !hasChanged(row, result)) {
+                    continue;
+                }
+                if (row == null) {
+                    row = CatalogMedia.create();
+                }
+                row.update(result, now);
+                changed.put(result.getId(), row);
+            }
+            return mediaRepository.saveAll(changed.values());
+        });
+
+        return notifyListeners(saved);
+    }
+
+    // trending is a rolling score that only the hot page keeps current. Titles that have
+    // dropped out of the page are zeroed, or their last score would keep them ranked above
+    // what is trending now
+    int clearTrending(String type, List<AnilistResult> hot) {
+        List<Integer> hotIds = hot.stream().map(AnilistResult::getId).toList();
+        List<CatalogMedia> saved = transactionTemplate.execute(status -> {
+            List<CatalogMedia> stale = mediaRepository.findByTypeAndTrendingGreaterThanAndIdNotIn(type, 0, hotIds);
+            stale.forEach(row -> row.setTrending(0));
+            return mediaRepository.saveAll(stale);
+        });
+        return notifyListeners(saved);
+    }
+
+    private int notifyListeners(List<CatalogMedia> saved) {
+        if (saved == null || saved.isEmpty()) {
+            return 0;
+        }
+        // After commit, so listeners never see rows that were rolled back
+        for (CatalogListener listener : listeners) {
+            listener.onMediaUpdated(saved);
+        }
+        return saved.size();
+    }
+
+    private static boolean hasChanged(CatalogMedia row, AnilistResult result) {
+        return !row.mirrors(result);
+    }
+
+    private boolean hasBudget() {
+        return aniListClient.getRateLimitGovernor().getAvailableTokens() >= tokenReserve;
+    }
+
+    private Map<String, Object> pageVariables(int page) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("page", page);
+        variables.put("perPage", PER_PAGE);
+        return variables;
+    }
+
+    private Map<String, Object> hotVariables(String type, String sort) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("type", type);
+        variables.put("sort", List.of(sort));
+        variables.put("perPage", PER_PAGE);
+        return variables;
+    }
+
+    private Map<String, Object> backfillVariables(int after) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("after", after);
+        variables.put("perPage", PER_PAGE);
+        return variables;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.AniLog.Catalog;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Single-row bookkeeping for CatalogSyncService
+@Entity
+@Table(name = "catalog_sync_state")
+public class CatalogSyncState {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id = ID;
+
+    @Column(nullable = false)
+    private int backfillCursor; // Highest AniList ID the backfill has walked past
+
+    @Column(nullable = false)
+    private boolean backfillComplete;
+
+    @Column
+    private Integer updatedWatermark; // Every AniList edit at or before this updatedAt is mirrored
+
+    @Column
+    private Integer updatedWalkTop; // Newest updatedAt seen by the unfinished incremental walk
+
+    @Column
+    private Integer updatedWalkPage; // Next UPDATED_AT_DESC page of that walk, null when none is open
+
+    @Column
+    private Instant lastSyncedAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public int getBackfillCursor() {
+        return backfillCursor;
+    }
+
+    public void setBackfillCursor(int backfillCursor) {
+        this.backfillCursor = backfillCursor;
+    }
+
+    public boolean isBackfillComplete() {
+        return backfillComplete;
+    }
+
+    public void setBackfillComplete(boolean backfillComplete) {
+        this.backfillComplete = backfillComplete;
+    }
+
+    public Integer getUpdatedWatermark() {
+        return updatedWatermark;
+    }
+
+    public void setUpdatedWatermark(Integer updatedWatermark) {
+        this.updatedWatermark = updatedWatermark;
+    }
+
+    public Integer getUpdatedWalkTop() {
+        return updatedWalkTop;
+    }
+
+    public void setUpdatedWalkTop(Integer updatedWalkTop) {
+        this.updatedWalkTop = updatedWalkTop;
+    }
+
+    public Integer getUpdatedWalkPage() {
+        return updatedWalkPage;
+    }
+
+    public void setUpdatedWalkPage(Integer updatedWalkPage) {
+        this.updatedWalkPage = updatedWalkPage;
+    }
+
+    public Instant getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    public void setLastSyncedAt(Instant lastSyncedAt) {
+        this.lastSyncedAt = lastSyncedAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.AniLog.Catalog;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogSyncStateRepository extends JpaRepository<CatalogSyncState, Long> {
+}
@@ -0,0 +1,45 @@
+package com.example.AniLog.Catalog;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.AniLog.Profile.ErrorResponse;
+
+@RestController
+@RequestMapping("/api/search")
+public class SuggestClient {
+    private final Optional<TitleSuggester> titleSuggester;
+
+    public SuggestClient(Optional<TitleSuggester> titleSuggester) {
+        this.titleSuggester = titleSuggester;
+    }
+
+    // Served entirely from memory, never calls AniList. Unavailable while the mirror is
+    // not served or the suggester is still waiting on its load or the backfill
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > TitleSuggester.MAX_SUGGESTIONS) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("limit must be between 1 and " + TitleSuggester.MAX_SUGGESTIONS));
+        }
+        if (titleSuggester.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("Suggestions are not enabled"));
+        }
+        if (!titleSuggester.get().isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("Suggestions are still loading"));
+        }
+        List<Suggestion> suggestions = titleSuggester.get().suggest(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.AniLog.Catalog;
+
+// Typeahead entry: just enough to render a suggestion row
+public class Suggestion {
+    private final int id;
+    private final String title;
+    private final String coverImageUrl;
+
+    public Suggestion(int id, String title, String coverImageUrl) {
+        this.id = id;
+        this.title = title;
+        this.coverImageUrl = coverImageUrl;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCoverImageUrl() {
+        return coverImageUrl;
+    }
+}
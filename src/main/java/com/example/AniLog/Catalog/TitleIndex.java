@@ -0,0 +1,409 @@
+package com.example.AniLog.Catalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+// Trigram inverted index over the romaji/english/native titles and synonyms of every
+// catalog row. Answers searchAniList with the same filters as the upstream query.
+// Each doc keeps its projected AnilistResult next to the filter and sort keys, and
+// CatalogSyncService pushes every committed row through onMediaUpdated, so a search
+// never reads the database.
+@Component
+@ConditionalOnProperty(name = "anilist.catalog.search.index-enabled", havingValue = "true")
+public class TitleIndex implements CatalogListener {
+    // AniList's default page size for the upstream search
+    static final int MAX_RESULTS = 50;
+    private static final int LOAD_BATCH = 1000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final CatalogMediaRepository mediaRepository;
+    private final CatalogSyncService syncService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean catalogComplete;
+
+    public TitleIndex(CatalogMediaRepository mediaRepository, CatalogSyncService syncService) {
+        this.mediaRepository = mediaRepository;
+        this.syncService = syncService;
+        syncService.addListener(this);
+    }
+
+    // Built off the startup thread; callers fall back upstream until it is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "title-index-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // A failed load leaves the index not ready, so searches keep going upstream
+    public void load() {
+        try {
+            long start = System.nanoTime();
+            if (syncService.isBackfillComplete()) {
+                catalogComplete = true;
+            }
+            int page = 0;
+            Page<CatalogMedia> batch;
+            do {
+                batch = mediaRepository.findAll(PageRequest.of(page++, LOAD_BATCH, Sort.by("id")));
+                index(batch.getContent());
+            } while (batch.hasNext());
+            loaded = true;
+            System.out.println("Title index built with " + size() + " entries in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms"
+                    + (catalogComplete ? "" : ", waiting for the catalog backfill"));
+        } catch (RuntimeException e) {
+            System.err.println("Title index failed to load: " + e.getMessage());
+        }
+    }
+
+    // Until the backfill has mirrored the whole catalog the index would answer with a
+    // partial (or empty) result set, so it only serves once both are done
+    public boolean isReady() {
+        return loaded && catalogComplete;
+    }
+
+    @Override
+    public void onBackfillComplete() {
+        catalogComplete = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onMediaUpdated(List<CatalogMedia> media) {
+        index(media);
+    }
+
+    public void index(Collection<CatalogMedia> media) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogMedia row : media) {
+                Doc previous = docs.remove(row.getId());
+                if (previous != null) {
+                    for (String gram : previous.grams) {
+                        Postings list = postings.get(gram);
+                        if (list != null && list.remove(previous.id) && list.size == 0) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+                Doc doc = new Doc(row);
+                docs.put(doc.id, doc);
+                for (String gram : doc.grams) {
+                    postings.computeIfAbsent(gram, key -> new Postings()).add(doc.id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<AnilistResult> search(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            List<String> genres,
+            String sortBy) {
+        return search(query, type, format, status, genres, sortBy, 0, MAX_RESULTS);
+    }
+
+    // A window of the ranked matches, for paged searches
+    public List<AnilistResult> search(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            List<String> genres,
+            String sortBy,
+            int offset,
+            int limit) {
+        return hits(query, type, format, status, genres, sortBy, offset, limit).stream()
+                .map(hit -> hit.doc.result)
+                .toList();
+    }
+
+    // Ranked ids of the first page of matches
+    List<Integer> searchIds(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            List<String> genres,
+            String sortBy) {
+        return searchIds(query, type, format, status, genres, sortBy, 0, MAX_RESULTS);
+    }
+
+    List<Integer> searchIds(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            List<String> genres,
+            String sortBy,
+            int offset,
+            int limit) {
+        return hits(query, type, format, status, genres, sortBy, offset, limit).stream()
+                .map(hit -> hit.doc.id)
+                .toList();
+    }
+
+    private List<Hit> hits(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            List<String> genres,
+            String sortBy,
+            int offset,
+            int limit) {
+        String normalized = normalize(query);
+        String[] words = normalized.isEmpty() ? new String[0] : normalized.split(" ");
+        String typeFilter = type == null || type.isEmpty() || type.equals("Any") ? null : type;
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Doc doc : candidates(words)) {
+                if (typeFilter != null && !typeFilter.equals(doc.type)) continue;
+                if (format != null && !format.isEmpty() && !format.contains(doc.format)) continue;
+                if (status != null && !status.isEmpty() && !status.contains(doc.status)) continue;
+                if (genres != null && !genres.isEmpty() && !doc.genres.containsAll(genres)) continue;
+                int relevance = words.length == 0 ? 0 : doc.relevance(normalized, words);
+                if (relevance < 0) continue;
+                hits.add(new Hit(doc, relevance));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(comparator(sortBy));
+        return hits.stream().skip(offset).limit(limit).toList();
+    }
+
+    // Docs containing every query trigram, walking the shortest posting list
+    private Collection<Doc> candidates(String[] words) {
+        if (words.length == 0) {
+            return docs.values();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : queryGrams(words)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        Postings smallest = lists.get(0);
+        List<Doc> matches = new ArrayList<>();
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) continue outer;
+            }
+            matches.add(docs.get(id));
+        }
+        return matches;
+    }
+
+    private static Comparator<Hit> comparator(String sortBy) {
+        Comparator<Hit> byPopularity = Comparator.comparingInt((Hit hit) -> hit.doc.popularity).reversed();
+        if (sortBy == null || sortBy.isEmpty()) {
+            return Comparator.comparingInt((Hit hit) -> hit.relevance).reversed().thenComparing(byPopularity);
+        }
+        Comparator<Hit> order = switch (sortBy) {
+            case "POPULARITY" -> Comparator.comparingInt(hit -> hit.doc.popularity);
+            case "POPULARITY_DESC" -> byPopularity;
+            case "TRENDING" -> Comparator.comparingInt(hit -> hit.doc.trending);
+            case "TRENDING_DESC" -> Comparator.comparingInt((Hit hit) -> hit.doc.trending).reversed();
+            case "SCORE" -> Comparator.comparing(hit -> hit.doc.averageScore, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "SCORE_DESC" -> Comparator.comparing(hit -> hit.doc.averageScore, Comparator.nullsLast(Comparator.reverseOrder()));
+            case "START_DATE" -> Comparator.comparing(hit -> hit.doc.startDate, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "START_DATE_DESC" -> Comparator.comparing(hit -> hit.doc.startDate, Comparator.nullsLast(Comparator.reverseOrder()));
+            case "TITLE_ENGLISH" -> Comparator.comparing(hit -> hit.doc.englishSortKey, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "TITLE_ENGLISH_DESC" -> Comparator.comparing(hit -> hit.doc.englishSortKey, Comparator.nullsLast(Comparator.reverseOrder()));
+            case "TITLE_ROMAJI" -> Comparator.comparing(hit -> hit.doc.romajiSortKey, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "TITLE_ROMAJI_DESC" -> Comparator.comparing(hit -> hit.doc.romajiSortKey, Comparator.nullsLast(Comparator.reverseOrder()));
+            case "ID" -> Comparator.comparingInt(hit -> hit.doc.id);
+            case "ID_DESC" -> Comparator.comparingInt((Hit hit) -> hit.doc.id).reversed();
+            default -> Comparator.comparingInt((Hit hit) -> hit.relevance).reversed();
+        };
+        return order.thenComparing(byPopularity);
+    }
+
+    // Lowercase, strip accents, collapse punctuation to single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Each word padded like pg_trgm ("  word "), so short words and prefixes still produce grams
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return grams;
+        }
+        for (String word : normalized.split(" ")) {
+            addGrams(grams, "  " + word + " ");
+        }
+        return grams;
+    }
+
+    // The last word is still being typed, so it is treated as a prefix (no trailing pad)
+    static Set<String> queryGrams(String[] words) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i < words.length; i++) {
+            addGrams(grams, "  " + words[i] + (i < words.length - 1 ? " " : ""));
+        }
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String padded) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    private static final class Doc {
+        private final int id;
+        private final AnilistResult result;
+        private final String type;
+        private final String format;
+        private final String status;
+        private final Set<String> genres;
+        private final int popularity;
+        private final int trending;
+        private final Integer averageScore;
+        private final Integer startDate;
+        private final String englishSortKey;
+        private final String romajiSortKey;
+        private final String[] names;
+        private final Set<String> grams;
+
+        private Doc(CatalogMedia media) {
+            this.id = media.getId();
+            this.result = media.toResult();
+            this.type = media.getType();
+            this.format = media.getFormat();
+            this.status = media.getStatus();
+            this.genres = media.getGenres() != null ? Set.copyOf(media.getGenres()) : Set.of();
+            this.popularity = media.getPopularity() != null ? media.getPopularity() : 0;
+            this.trending = media.getTrending() != null ? media.getTrending() : 0;
+            this.averageScore = media.getAverageScore();
+            this.startDate = media.getStartDate();
+            this.englishSortKey = media.getEnglishTitle() != null ? media.getEnglishTitle().toLowerCase(Locale.ROOT) : null;
+            this.romajiSortKey = media.getRomajiTitle() != null ? media.getRomajiTitle().toLowerCase(Locale.ROOT) : null;
+
+            Set<String> variants = new LinkedHashSet<>();
+            variants.add(normalize(media.getRomajiTitle()));
+            variants.add(normalize(media.getEnglishTitle()));
+            variants.add(normalize(media.getNativeTitle()));
+            if (media.getSynonyms() != null) {
+                media.getSynonyms().forEach(synonym -> variants.add(normalize(synonym)));
+            }
+            variants.remove("");
+            this.names = variants.toArray(String[]::new);
+
+            Set<String> docGrams = new LinkedHashSet<>();
+            for (String name : names) {
+                docGrams.addAll(grams(name));
+            }
+            this.grams = docGrams;
+        }
+
+        // -1 when no single title variant holds every query word (trigram false positive)
+        private int relevance(String query, String[] words) {
+            int best = -1;
+            for (String name : names) {
+                if (name.equals(query)) return 3;
+                if (name.startsWith(query)) {
+                    best = Math.max(best, 2);
+                } else if (name.contains(query)) {
+                    best = Math.max(best, 1);
+                } else if (containsAll(name, words)) {
+                    best = Math.max(best, 0);
+                }
+            }
+            return best;
+        }
+
+        private static boolean containsAll(String name, String[] words) {
+            for (String word : words) {
+                if (!name.contains(word)) return false;
+            }
+            return true;
+        }
+    }
+
+    private record Hit(Doc doc, int relevance) {
+    }
+
+    // Sorted, growable int list so updates shift in place instead of reallocating
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) return;
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) return false;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
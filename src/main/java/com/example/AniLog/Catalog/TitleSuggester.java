@@ -0,0 +1,391 @@
+package com.example.AniLog.Catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+// Radix trie over every normalised title variant and synonym in the catalog. Each
+// node caches the ids of its MAX_SUGGESTIONS most popular entries, so a lookup is a
+// walk down the prefix followed by reading one small array. Only built when the
+// mirror is served, since it loads the whole catalog into memory.
+@Component
+@ConditionalOnProperty(name = "anilist.catalog.serve-from-mirror", havingValue = "true")
+public class TitleSuggester implements CatalogListener {
+    static final int MAX_SUGGESTIONS = 10;
+    private static final int LOAD_BATCH = 1000;
+    private static final int[] NO_IDS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final CatalogMediaRepository mediaRepository;
+    private final CatalogSyncService syncService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Node root = new Node("");
+    private volatile boolean loaded;
+    private volatile boolean catalogComplete;
+
+    public TitleSuggester(CatalogMediaRepository mediaRepository, CatalogSyncService syncService) {
+        this.mediaRepository = mediaRepository;
+        this.syncService = syncService;
+        syncService.addListener(this);
+    }
+
+    // Built off the startup thread; SuggestClient answers 503 until it is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "title-suggester-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // A failed load leaves the suggester not ready, so SuggestClient keeps answering 503
+    public void load() {
+        try {
+            long start = System.nanoTime();
+            if (syncService.isBackfillComplete()) {
+                catalogComplete = true;
+            }
+            int page = 0;
+            Page<CatalogMedia> batch;
+            do {
+                batch = mediaRepository.findAll(PageRequest.of(page++, LOAD_BATCH, Sort.by("id")));
+                index(batch.getContent());
+            } while (batch.hasNext());
+            loaded = true;
+            System.out.println("Title suggester built with " + size() + " entries in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms"
+                    + (catalogComplete ? "" : ", waiting for the catalog backfill"));
+        } catch (RuntimeException e) {
+            System.err.println("Title suggester failed to load: " + e.getMessage());
+        }
+    }
+
+    // Suggestions from a partly backfilled catalog would silently miss titles
+    public boolean isReady() {
+        return loaded && catalogComplete;
+    }
+
+    @Override
+    public void onBackfillComplete() {
+        catalogComplete = true;
+    }
+
+    @Override
+    public void onMediaUpdated(List<CatalogMedia> media) {
+        index(media);
+    }
+
+    public void index(Collection<CatalogMedia> media) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogMedia row : media) {
+                // Popularity of the old entry is still needed while its keys come out
+                Entry previous = entries.get(row.getId());
+                if (previous != null) {
+                    for (String key : previous.keys) {
+                        remove(key, row.getId());
+                    }
+                    entries.remove(row.getId());
+                }
+                Entry entry = new Entry(row);
+                if (entry.keys.length == 0) continue;
+                entries.put(row.getId(), entry);
+                for (String key : entry.keys) {
+                    insert(key, row.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = TitleIndex.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, node.top.length);
+            List<Suggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(entries.get(node.top[i]).suggestion);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Node whose subtree holds every key starting with prefix
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int remaining = prefix.length() - i;
+            if (remaining <= child.label.length()) {
+                return child.label.startsWith(prefix.substring(i)) ? child : null;
+            }
+            if (!prefix.startsWith(child.label, i)) {
+                return null;
+            }
+            i += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private void insert(String key, int id) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.addChild(child);
+                path.add(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge at the point where the keys diverge
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[] { child };
+                split.top = child.top;
+                node.replaceChild(child, split);
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            i += common;
+        }
+        node.terminals = addId(node.terminals, id);
+        promote(path, id);
+    }
+
+    private void remove(String key, int id) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return;
+            }
+            path.add(child);
+            node = child;
+            i += child.label.length();
+        }
+        node.terminals = removeId(node.terminals, id);
+
+        // Drop empty leaves and fold single-child nodes back into their parent edge
+        for (int k = path.size() - 1; k > 0; k--) {
+            Node current = path.get(k);
+            Node parent = path.get(k - 1);
+            if (current.terminals.length > 0) continue;
+            if (current.children.length == 0) {
+                parent.removeChild(current);
+            } else if (current.children.length == 1) {
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.replaceChild(current, only);
+            }
+        }
+        demote(path, id);
+    }
+
+    // A node's top list is the best of its own terminals and its children's lists, so a new
+    // id can only join the lists on its path. Stops at the first list it does not make (or
+    // already held it), as every list above covers a superset. The root is never served.
+    private void promote(List<Node> path, int id) {
+        for (int k = path.size() - 1; k > 0; k--) {
+            Node node = path.get(k);
+            int[] merged = merge(node.top, id);
+            if (merged == node.top) {
+                return;
+            }
+            node.top = merged;
+        }
+    }
+
+    // Inserts id at its rank, or returns top unchanged when it is present or ranks too low
+    private int[] merge(int[] top, int id) {
+        for (int existing : top) {
+            if (existing == id) return top;
+        }
+        int at = top.length;
+        while (at > 0 && compareRank(id, top[at - 1]) < 0) {
+            at--;
+        }
+        if (at >= MAX_SUGGESTIONS) {
+            return top;
+        }
+        int[] merged = new int[Math.min(top.length + 1, MAX_SUGGESTIONS)];
+        System.arraycopy(top, 0, merged, 0, at);
+        merged[at] = id;
+        System.arraycopy(top, at, merged, at + 1, merged.length - at - 1);
+        return merged;
+    }
+
+    // Only lists that held the removed id change; they are rebuilt bottom-up from the
+    // node's terminals and its children's lists. The id can still be reachable under
+    // another of the title's keys, so it may rejoin.
+    private void demote(List<Node> path, int id) {
+        for (int k = path.size() - 1; k > 0; k--) {
+            Node node = path.get(k);
+            if (Arrays.stream(node.top).noneMatch(existing -> existing == id)) continue;
+            Set<Integer> candidates = new LinkedHashSet<>();
+            for (int terminal : node.terminals) candidates.add(terminal);
+            for (Node child : node.children) {
+                for (int ranked : child.top) candidates.add(ranked);
+            }
+            node.top = candidates.stream()
+                    .sorted(this::compareRank)
+                    .limit(MAX_SUGGESTIONS)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    // Most popular first, ties by id
+    private int compareRank(int a, int b) {
+        int byPopularity = Integer.compare(entries.get(b).popularity, entries.get(a).popularity);
+        return byPopularity != 0 ? byPopularity : Integer.compare(a, b);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] addId(int[] ids, int id) {
+        for (int existing : ids) {
+            if (existing == id) return ids;
+        }
+        int[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = id;
+        return grown;
+    }
+
+    private static int[] removeId(int[] ids, int id) {
+        int[] kept = Arrays.stream(ids).filter(existing -> existing != id).toArray();
+        return kept.length == 0 ? NO_IDS : kept;
+    }
+
+    private static final class Entry {
+        private final Suggestion suggestion;
+        private final int popularity;
+        private final String[] keys;
+
+        private Entry(CatalogMedia media) {
+            String title = media.getEnglishTitle() != null ? media.getEnglishTitle() : media.getRomajiTitle();
+            this.suggestion = new Suggestion(media.getId(), title, media.getCoverImageUrl());
+            this.popularity = media.getPopularity() != null ? media.getPopularity() : 0;
+
+            Set<String> variants = new LinkedHashSet<>();
+            variants.add(TitleIndex.normalize(media.getRomajiTitle()));
+            variants.add(TitleIndex.normalize(media.getEnglishTitle()));
+            variants.add(TitleIndex.normalize(media.getNativeTitle()));
+            if (media.getSynonyms() != null) {
+                media.getSynonyms().forEach(synonym -> variants.add(TitleIndex.normalize(synonym)));
+            }
+            variants.remove("");
+            this.keys = variants.toArray(String[]::new);
+        }
+    }
+
+    // Children are kept sorted by the first character of their edge label
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private int[] terminals = NO_IDS;
+        private int[] top = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) low = mid + 1;
+                else if (c > first) high = mid - 1;
+                else return mid;
+            }
+            return -(low + 1);
+        }
+
+        private void addChild(Node child) {
+            int insertAt = -indexOf(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+        }
+
+        // Same first character, so the sort order is unchanged
+        private void replaceChild(Node existing, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == existing) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        private void removeChild(Node existing) {
+            List<Node> kept = new ArrayList<>(Arrays.asList(children));
+            kept.remove(existing);
+            children = kept.isEmpty() ? NO_CHILDREN : kept.toArray(Node[]::new);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.AniLog.Images;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Disk store for cover variants. Files are named by a hash of what produced them (source
+// URL and width), so a name never changes meaning and doubles as the ETag. The total
+// size is kept under maxBytes by deleting the least recently served files. Files acquired
+// for a response are skipped by eviction until released, so the total can run over by
+// what is being served.
+@Component
+public class CoverImageCache {
+    private final Path directory;
+    private final long maxBytes;
+    // file name -> size, in access order
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(256, 0.75f, true);
+    // file name -> number of responses serving it, guarded by files
+    private final Map<String, Integer> pins = new HashMap<>();
+    private long totalBytes;
+
+    public CoverImageCache(
+            @Value("${anilist.images.cache-dir:${java.io.tmpdir}/anilog-covers}") Path directory,
+            @Value("${anilist.images.max-bytes:536870912}") long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        load();
+    }
+
+    public Path get(String fileName) {
+        synchronized (files) {
+            if (files.get(fileName) == null) {
+                return null;
+            }
+        }
+        Path path = directory.resolve(fileName);
+        if (!Files.isRegularFile(path)) {
+            forget(fileName);
+            return null;
+        }
+        return path;
+    }
+
+    // Like get, but the file is kept on disk until release is called for it
+    public Path acquire(String fileName) {
+        synchronized (files) {
+            if (files.get(fileName) == null) {
+                return null;
+            }
+            pins.merge(fileName, 1, Integer::sum);
+        }
+        Path path = directory.resolve(fileName);
+        if (!Files.isRegularFile(path)) {
+            release(fileName);
+            forget(fileName);
+            return null;
+        }
+        return path;
+    }
+
+    public void release(String fileName) {
+        synchronized (files) {
+            pins.computeIfPresent(fileName, (name, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public Path put(String fileName, byte[] bytes) {
+        return store(fileName, bytes, false);
+    }
+
+    // Stores the file already acquired, so no other put can evict it before it is served
+    public Path putAcquired(String fileName, byte[] bytes) {
+        return store(fileName, bytes, true);
+    }
+
+    // Written to a temp file and moved into place, so readers never see a partial file
+    private Path store(String fileName, byte[] bytes, boolean acquire) {
+        Path path = directory.resolve(fileName);
+        try {
+            Path temp = Files.createTempFile(directory, "cover", ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<String> evicted = new ArrayList<>();
+        synchronized (files) {
+            Long previous = files.put(fileName, (long) bytes.length);
+            if (acquire) {
+                pins.merge(fileName, 1, Integer::sum);
+            }
+            totalBytes += bytes.length - (previous != null ? previous : 0);
+            Iterator<Map.Entry<String, Long>> eldest = files.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(fileName) || pins.containsKey(entry.getKey())) continue;
+                totalBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String name : evicted) {
+            try {
+                Files.deleteIfExists(directory.resolve(name));
+            } catch (IOException e) {
+                System.err.println("Failed to evict cover " + name + ": " + e.getMessage());
+            }
+        }
+        return path;
+    }
+
+    public long getTotalBytes() {
+        synchronized (files) {
+            return totalBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (files) {
+            return files.size();
+        }
+    }
+
+    private void forget(String fileName) {
+        synchronized (files) {
+            Long size = files.remove(fileName);
+            if (size != null) totalBytes -= size;
+        }
+    }
+
+    // Picks up files from a previous run, oldest first so they are evicted first
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing;
+            try (Stream<Path> listing = Files.list(directory)) {
+                existing = listing.filter(Files::isRegularFile).toList();
+            }
+            List<Path> stale = new ArrayList<>();
+            List<Path> kept = new ArrayList<>();
+            for (Path path : existing) {
+                (path.getFileName().toString().endsWith(".tmp") ? stale : kept).add(path);
+            }
+            for (Path path : stale) {
+                Files.deleteIfExists(path);
+            }
+            kept.sort(Comparator.comparing(CoverImageCache::lastModified));
+            for (Path path : kept) {
+                long size = Files.size(path);
+                files.put(path.getFileName().toString(), size);
+                totalBytes += size;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.from(Instant.EPOCH);
+        }
+    }
+}
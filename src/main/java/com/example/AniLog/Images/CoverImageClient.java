@@ -0,0 +1,107 @@
+package com.example.AniLog.Images;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.AniLog.Images.CoverImageService.CoverImage;
+import com.example.AniLog.Images.CoverImageService.CoverUnavailableException;
+import com.example.AniLog.Profile.ErrorResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/images")
+public class CoverImageClient {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final CoverImageService coverImageService;
+    private final String cacheControl;
+
+    // The URL is keyed by media id and AniList can replace the cover behind it, so browsers
+    // keep it only briefly and then revalidate; the ETag names the source URL and width,
+    // so an unchanged cover costs a 304
+    public CoverImageClient(
+            CoverImageService coverImageService,
+            @Value("${anilist.images.max-age:PT1H}") Duration maxAge) {
+        this.coverImageService = coverImageService;
+        this.cacheControl = "public, max-age=" + maxAge.toSeconds();
+    }
+
+    @GetMapping("/cover/{anilistId}")
+    public ResponseEntity<?> getCover(
+            @PathVariable int anilistId,
+            @RequestParam(required = false) Integer w,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        return serve(anilistId, w, true, request, response);
+    }
+
+    private ResponseEntity<?> serve(
+            int anilistId,
+            Integer w,
+            boolean firstAttempt,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        CoverImage image;
+        try {
+            image = coverImageService.getCover(anilistId, w);
+        } catch (CoverUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(new ErrorResponse(e.getMessage()));
+        }
+        if (image == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("No cover for media " + anilistId));
+        }
+
+        // The file is held back from eviction until it has been written or handed to Tomcat
+        try {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            // Weak comparison, tag lists and "*"; also sets the ETag header
+            if (new ServletWebRequest(request, response).checkNotModified(image.getEtag())) {
+                return null;
+            }
+            boolean sendfile = firstAttempt && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+            try {
+                send(image, sendfile, request, response);
+            } catch (NoSuchFileException e) {
+                if (!firstAttempt) throw e;
+                // Deleted outside the cache after the lookup; fetch it again and stream it
+                return serve(anilistId, w, false, request, response);
+            }
+            return null;
+        } finally {
+            coverImageService.release(image);
+        }
+    }
+
+    private void send(CoverImage image, boolean sendfile, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = Files.size(image.getPath());
+        response.setContentType(image.getContentType());
+        response.setContentLengthLong(length);
+        // Let Tomcat hand the file to the kernel instead of copying it through the heap
+        if (sendfile) {
+            request.setAttribute(SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+        } else {
+            Files.copy(image.getPath(), response.getOutputStream());
+        }
+    }
+}
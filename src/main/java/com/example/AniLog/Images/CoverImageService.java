@@ -0,0 +1,262 @@
+package com.example.AniLog.Images;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Search.SearchInterface;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Resolves an AniList id to its cover, downloads it once and keeps resized variants in
+// the CoverImageCache. Widths snap to a fixed set so the number of variants per cover
+// stays bounded.
+@Service
+public class CoverImageService {
+    static final List<Integer> WIDTHS = List.of(100, 150, 230, 300, 460);
+    private static final int MAX_RESOLVED_URLS = 4096;
+
+    private final SearchInterface searchService;
+    private final OkHttpClient httpClient;
+    private final CoverImageCache cache;
+    // Concurrent misses for the same variant share one download and resize
+    private final ConcurrentHashMap<String, CompletableFuture<CoverImage>> inFlight = new ConcurrentHashMap<>();
+    // AniList replaces covers under new URLs, so a resolved URL is only trusted for urlTtl
+    private final Map<Integer, ResolvedUrl> coverUrls = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ResolvedUrl> eldest) {
+            return size() > MAX_RESOLVED_URLS;
+        }
+    };
+    private final Duration urlTtl;
+
+    public CoverImageService(
+            SearchInterface searchService,
+            OkHttpClient httpClient,
+            CoverImageCache cache,
+            @Value("${anilist.images.url-ttl:PT1H}") Duration urlTtl) {
+        this.searchService = searchService;
+        this.httpClient = httpClient;
+        this.cache = cache;
+        this.urlTtl = urlTtl;
+    }
+
+    // Null when the media or its cover does not exist. The returned file stays on disk until
+    // it is passed to release
+    public CoverImage getCover(int anilistId, Integer requestedWidth) {
+        String url = resolveCoverUrl(anilistId);
+        if (url == null) {
+            return null;
+        }
+        int width = snapWidth(requestedWidth);
+        String fileName = fileName(url, width);
+
+        Path cached = cache.acquire(fileName);
+        if (cached != null) {
+            return new CoverImage(cached, contentType(fileName), etag(fileName));
+        }
+
+        CompletableFuture<CoverImage> load = new CompletableFuture<>();
+        CompletableFuture<CoverImage> existing = inFlight.putIfAbsent(fileName, load);
+        if (existing != null) {
+            existing.join();
+            Path path = cache.acquire(fileName);
+            if (path == null) {
+                throw new CoverUnavailableException("Cover was evicted before it could be served");
+            }
+            return new CoverImage(path, contentType(fileName), etag(fileName));
+        }
+        try {
+            Path path = cache.putAcquired(fileName, render(download(url), width));
+            CoverImage image = new CoverImage(path, contentType(fileName), etag(fileName));
+            load.complete(image);
+            return image;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(fileName, load);
+        }
+    }
+
+    public void release(CoverImage image) {
+        cache.release(image.getPath().getFileName().toString());
+    }
+
+    // 0 means the original; anything else rounds up to the next bucket
+    static int snapWidth(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return 0;
+        }
+        for (int width : WIDTHS) {
+            if (requested <= width) return width;
+        }
+        return 0;
+    }
+
+    private String resolveCoverUrl(int anilistId) {
+        synchronized (coverUrls) {
+            ResolvedUrl resolved = coverUrls.get(anilistId);
+            if (resolved != null && resolved.expiresAt.isAfter(Instant.now())) return resolved.url;
+        }
+        List<AnilistResult> results = searchService.searchAniListById(anilistId);
+        String url = results.isEmpty() ? null : results.get(0).getCoverImageUrl();
+        if (url != null && !url.isBlank()) {
+            synchronized (coverUrls) {
+                coverUrls.put(anilistId, new ResolvedUrl(url, Instant.now().plus(urlTtl)));
+            }
+            return url;
+        }
+        return null;
+    }
+
+    private record ResolvedUrl(String url, Instant expiresAt) {
+    }
+
+    private byte[] download(String url) {
+        Request request = new Request.Builder().url(url).get().build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new CoverUnavailableException("Cover download failed with status " + response.code());
+            }
+            return response.body().bytes();
+        } catch (IOException e) {
+            throw new CoverUnavailableException("Cover download failed: " + e.getMessage());
+        }
+    }
+
+    // Originals are stored as downloaded; variants are scaled down and re-encoded as JPEG
+    private byte[] render(byte[] original, int width) {
+        if (width == 0) {
+            return original;
+        }
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+            if (source == null) {
+                throw new CoverUnavailableException("Cover is not a readable image");
+            }
+            BufferedImage scaled = scale(source, Math.min(width, source.getWidth()));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scaled, "jpg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Halves the image until it is within 2x of the target, then does a final bilinear
+    // pass, which keeps the thumbnail sharp without a dedicated imaging library
+    private static BufferedImage scale(BufferedImage source, int width) {
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width * 2 && currentWidth != width) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+            // JPEG has no alpha, so always draw onto RGB
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            graphics.dispose();
+            current = next;
+        } while (currentWidth != width);
+        return current;
+    }
+
+    private static String fileName(String url, int width) {
+        String extension = width == 0 ? originalExtension(url) : "jpg";
+        return sha256(url + "|w=" + width) + "." + extension;
+    }
+
+    private static String originalExtension(String url) {
+        String path = url.toLowerCase(Locale.ROOT);
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        if (path.endsWith(".png")) return "png";
+        if (path.endsWith(".webp")) return "webp";
+        if (path.endsWith(".gif")) return "gif";
+        return "jpg";
+    }
+
+    private static String contentType(String fileName) {
+        if (fileName.endsWith(".png")) return "image/png";
+        if (fileName.endsWith(".webp")) return "image/webp";
+        if (fileName.endsWith(".gif")) return "image/gif";
+        return "image/jpeg";
+    }
+
+    private static String etag(String fileName) {
+        return "\"" + fileName.substring(0, fileName.indexOf('.')) + "\"";
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class CoverImage {
+        private final Path path;
+        private final String contentType;
+        private final String etag;
+
+        public CoverImage(Path path, String contentType, String etag) {
+            this.path = path;
+            this.contentType = contentType;
+            this.etag = etag;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    public static class CoverUnavailableException extends RuntimeException {
+        public CoverUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.AniLog.Import;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import com.example.AniLog.Profile.WatchedItem;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+// Reads an AniList JSON export with Gson's token reader. Exports nest entries under
+// lists (MediaListCollection.lists[].entries[] or a flat array of lists), so rather
+// than depend on one layout the reader walks the document and yields the objects of
+// every "entries" array it meets, skipping everything else.
+class AniListExportReader implements ExportReader {
+    private final JsonReader reader;
+    private boolean inEntries;
+
+    AniListExportReader(InputStream in) {
+        this.reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ImportEntry next() throws IOException {
+        try {
+            while (true) {
+                if (inEntries) {
+                    if (reader.hasNext()) {
+                        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            return readEntry();
+                        }
+                        reader.skipValue();
+                        continue;
+                    }
+                    reader.endArray();
+                    inEntries = false;
+                    continue;
+                }
+                switch (reader.peek()) {
+                    case BEGIN_OBJECT -> reader.beginObject();
+                    case END_OBJECT -> reader.endObject();
+                    case BEGIN_ARRAY -> reader.beginArray();
+                    case END_ARRAY -> reader.endArray();
+                    case NAME -> {
+                        if (reader.nextName().equals("entries") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            reader.beginArray();
+                            inEntries = true;
+                        }
+                    }
+                    case END_DOCUMENT -> {
+                        return null;
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Invalid AniList export: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ImportEntry readEntry() throws IOException {
+        ImportEntry entry = new ImportEntry();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "mediaId", "media_id" -> entry.anilistId = readInteger();
+                case "status" -> entry.status = status(readString());
+                case "progress" -> entry.progress = readInteger();
+                case "score" -> entry.rating = ImportEntry.rating(readDouble());
+                case "startedAt", "started_at" -> entry.startedAt = readDate();
+                case "completedAt", "completed_at" -> entry.completedAt = readDate();
+                case "notes" -> entry.notes = readString();
+                case "type", "series_type" -> entry.type = type(readString());
+                case "media" -> readMedia(entry);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return entry;
+    }
+
+    private void readMedia(ImportEntry entry) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        Integer episodes = null;
+        Integer chapters = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> {
+                    Integer id = readInteger();
+                    if (entry.anilistId == null) entry.anilistId = id;
+                }
+                case "idMal" -> entry.malId = readInteger();
+                case "type" -> {
+                    WatchedItem.MediaType type = type(readString());
+                    if (entry.type == null) entry.type = type;
+                }
+                case "title" -> entry.title = readTitle();
+                case "episodes" -> episodes = readInteger();
+                case "chapters" -> chapters = readInteger();
+                case "coverImage" -> entry.coverImageUrl = readCover();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        entry.total = entry.type == WatchedItem.MediaType.MANGA ? chapters : episodes;
+        if (entry.total == null && entry.type == null) {
+            entry.total = episodes != null ? episodes : chapters;
+        }
+    }
+
+    // Prefer the name the user chose to see on AniList, then English, then romaji
+    private String readTitle() throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return readString();
+        }
+        String userPreferred = null;
+        String english = null;
+        String romaji = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "userPreferred" -> userPreferred = readString();
+                case "english" -> english = readString();
+                case "romaji" -> romaji = readString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return userPreferred != null ? userPreferred : english != null ? english : romaji;
+    }
+
+    private String readCover() throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return readString();
+        }
+        String extraLarge = null;
+        String large = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "extraLarge" -> extraLarge = readString();
+                case "large" -> large = readString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return extraLarge != null ? extraLarge : large;
+    }
+
+    // FuzzyDate object ({year, month, day}) or a yyyy-MM-dd string
+    private LocalDateTime readDate() throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING) {
+            String[] parts = reader.nextString().split("-");
+            if (parts.length != 3) return null;
+            try {
+                return ImportEntry.date(Integer.valueOf(parts[0]), Integer.valueOf(parts[1]), Integer.valueOf(parts[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        if (token != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        Integer year = null;
+        Integer month = null;
+        Integer day = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "year" -> year = readInteger();
+                case "month" -> month = readInteger();
+                case "day" -> day = readInteger();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return ImportEntry.date(year, month, day);
+    }
+
+    private String readString() throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private Integer readInteger() throws IOException {
+        Double value = readDouble();
+        return value != null ? value.intValue() : null;
+    }
+
+    private Double readDouble() throws IOException {
+        String value = readString();
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static WatchedItem.WatchStatus status(String value) {
+        if (value == null) return null;
+        return switch (value.toUpperCase()) {
+            case "CURRENT", "REPEATING" -> WatchedItem.WatchStatus.WATCHING;
+            case "COMPLETED" -> WatchedItem.WatchStatus.COMPLETED;
+            case "PAUSED" -> WatchedItem.WatchStatus.ON_HOLD;
+            case "DROPPED" -> WatchedItem.WatchStatus.DROPPED;
+            case "PLANNING" -> WatchedItem.WatchStatus.PLAN_TO_WATCH;
+            default -> null;
+        };
+    }
+
+    private static WatchedItem.MediaType type(String value) {
+        if (value == null) return null;
+        return switch (value.toUpperCase()) {
+            case "ANIME" -> WatchedItem.MediaType.ANIME;
+            case "MANGA" -> WatchedItem.MediaType.MANGA;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.AniLog.Import;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Pull-style reader over an export file: entries are parsed one at a time so memory
+// does not grow with the size of the export
+interface ExportReader extends Closeable {
+
+    // Returns null once the export is exhausted
+    ImportEntry next() throws IOException;
+}
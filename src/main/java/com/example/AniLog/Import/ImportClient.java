@@ -0,0 +1,80 @@
+package com.example.AniLog.Import;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.AniLog.Profile.ErrorResponse;
+
+@RestController
+@RequestMapping("/api/user")
+public class ImportClient {
+
+    private final ImportService importService;
+
+    public ImportClient(ImportService importService) {
+        this.importService = importService;
+    }
+
+    // Start importing a MyAnimeList XML (optionally gzipped) or AniList JSON export.
+    // Returns 202 with the job; poll the Location for progress.
+    @PostMapping(value = "/{userId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> startImport(@PathVariable Long userId, @RequestParam("file") MultipartFile file) {
+        if (userId == null || file == null || file.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("User ID and an export file are required"));
+        }
+
+        Path upload = null;
+        try {
+            // The multipart part only lives as long as the request, so keep our own copy
+            upload = Files.createTempFile("anilog-import", ".upload");
+            file.transferTo(upload);
+            ImportJob job = importService.submit(userId, upload);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/user/" + userId + "/import/" + job.getId()))
+                .body(job);
+        } catch (IllegalStateException e) {
+            deleteQuietly(upload);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(upload);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("Too many imports are queued, try again later"));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(upload);
+            return ResponseEntity.status(500).body(new ErrorResponse("Failed to start import: " + e.getMessage()));
+        }
+    }
+
+    // Progress of an import started by this user
+    @GetMapping("/{userId}/import/{jobId}")
+    public ResponseEntity<?> getImport(@PathVariable Long userId, @PathVariable String jobId) {
+        ImportJob job = importService.getJob(userId, jobId);
+        if (job == null) {
+            return ResponseEntity.status(404).body(new ErrorResponse("Import not found"));
+        }
+        return ResponseEntity.ok().body(job);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete import upload " + path + ": " + e.getMessage());
+        }
+    }
+}
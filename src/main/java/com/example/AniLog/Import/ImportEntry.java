@@ -0,0 +1,120 @@
+package com.example.AniLog.Import;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Profile.WatchedItem;
+
+// One list entry read from an export file, before it is resolved against AniList.
+// Readers fill in what the export has; ImportService fills in the AniList ID, title,
+// totals and cover from AniList where the export lacks them.
+class ImportEntry {
+    WatchedItem.MediaType type;
+    Integer anilistId;
+    Integer malId;
+    String title;
+    String coverImageUrl;
+    Integer progress;
+    Integer total;
+    WatchedItem.WatchStatus status;
+    Double rating;
+    LocalDateTime startedAt;
+    LocalDateTime completedAt;
+    String notes;
+
+    boolean needsLookup() {
+        return title == null || type == null || coverImageUrl == null || total == null;
+    }
+
+    // Written only once tied to an AniList ID; a title alone cannot be matched to media later
+    boolean isResolved() {
+        return anilistId != null && title != null && type != null;
+    }
+
+    // How the entry is reported back when it could not be resolved
+    String describe() {
+        String name = title != null ? title : "Untitled";
+        if (malId != null) return name + " (MAL " + malId + ")";
+        if (anilistId != null) return name + " (AniList " + anilistId + ")";
+        return name;
+    }
+
+    void apply(AnilistResult media) {
+        if (anilistId == null) {
+            anilistId = media.getId();
+        }
+        if (type == null && media.getType() != null) {
+            try {
+                type = WatchedItem.MediaType.valueOf(media.getType());
+            } catch (IllegalArgumentException e) {
+                // Leave the entry untyped; it is skipped on write
+            }
+        }
+        if (title == null) {
+            AnilistResult.Title names = media.getTitle();
+            title = names.getEnglish() != null ? names.getEnglish() : names.getRomaji();
+        }
+        if (total == null) {
+            total = type == WatchedItem.MediaType.MANGA ? media.getChapters() : media.getEpisodes();
+        }
+        if (coverImageUrl == null) {
+            coverImageUrl = media.getCoverImageUrl();
+        }
+    }
+
+    WatchedItem toWatchedItem() {
+        WatchedItem item = new WatchedItem();
+        item.setType(type);
+        item.setAnilistId(anilistId);
+        item.setTitle(title);
+        item.setCoverImageUrl(coverImageUrl);
+        item.setStatus(status != null && type != null ? forType(status, type) : status);
+        item.setRating(rating);
+        item.setNotes(notes != null && notes.length() > 1000 ? notes.substring(0, 1000) : notes);
+        item.setWatchedDate(startedAt);
+        item.setCompletedDate(completedAt);
+        if (type == WatchedItem.MediaType.MANGA) {
+            item.setChaptersRead(progress);
+            item.setTotalChapters(total);
+        } else {
+            item.setEpisodesWatched(progress);
+            item.setTotalEpisodes(total);
+        }
+        return item;
+    }
+
+    // Readers map "in progress" and "planned" to the anime statuses; switch them for manga
+    static WatchedItem.WatchStatus forType(WatchedItem.WatchStatus status, WatchedItem.MediaType type) {
+        if (type == WatchedItem.MediaType.MANGA) {
+            if (status == WatchedItem.WatchStatus.WATCHING) return WatchedItem.WatchStatus.READING;
+            if (status == WatchedItem.WatchStatus.PLAN_TO_WATCH) return WatchedItem.WatchStatus.PLAN_TO_READ;
+        } else {
+            if (status == WatchedItem.WatchStatus.READING) return WatchedItem.WatchStatus.WATCHING;
+            if (status == WatchedItem.WatchStatus.PLAN_TO_READ) return WatchedItem.WatchStatus.PLAN_TO_WATCH;
+        }
+        return status;
+    }
+
+    // Exports use 0 for unknown parts; an unknown year means no date at all
+    static LocalDateTime date(Integer year, Integer month, Integer day) {
+        if (year == null || year <= 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month != null && month > 0 ? month : 1, day != null && day > 0 ? day : 1)
+                    .atStartOfDay();
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // Ratings are out of 10; exports on a 100-point scale are scaled down
+    static Double rating(Double score) {
+        if (score == null || score <= 0) {
+            return null;
+        }
+        return score > 10 ? score / 10 : score;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.AniLog.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Progress of one background import, polled by the client while the file is processed.
+// Counters are updated by the import thread after every chunk.
+public class ImportJob {
+    static final int MAX_UNRESOLVED_LISTED = 100;
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final Long userId;
+    private final Instant createdAt = Instant.now();
+    private volatile State state = State.QUEUED;
+    private volatile int processed;
+    private volatile int inserted;
+    private volatile int updated;
+    private volatile int skipped;
+    private volatile int unresolved;
+    private final List<String> unresolvedEntries = new ArrayList<>();
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public ImportJob(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // Entries read from the file so far
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    // Entries AniList could not match (or could not be asked about), left out of the import
+    public int getUnresolved() {
+        return unresolved;
+    }
+
+    // The first MAX_UNRESOLVED_LISTED of them, so the user can add them by hand
+    public synchronized List<String> getUnresolvedEntries() {
+        return List.copyOf(unresolvedEntries);
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void start() {
+        state = State.RUNNING;
+    }
+
+    synchronized void record(int entries, int inserted, int updated, int skipped) {
+        this.processed += entries;
+        this.inserted += inserted;
+        this.updated += updated;
+        this.skipped += skipped;
+    }
+
+    synchronized void recordUnresolved(String entry) {
+        unresolved++;
+        if (unresolvedEntries.size() < MAX_UNRESOLVED_LISTED) {
+            unresolvedEntries.add(entry);
+        }
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.AniLog.Import;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Profile.WatchedItem;
+import com.example.AniLog.Profile.WatchedItemsService;
+
+import jakarta.annotation.PreDestroy;
+
+// Imports a MyAnimeList or AniList export into a user's watched items in the background.
+// The upload is read entry by entry, CHUNK_SIZE entries at a time: each chunk has its
+// MAL IDs (and any AniList IDs missing titles or covers) resolved against AniList in
+// batches of LOOKUP_BATCH, then goes to the database as one bulk write. Memory is
+// bounded by the chunk, not the file, and the request thread only stores the upload.
+// Lookups share the AniList rate limit with user searches, so each one waits until
+// tokenReserve tokens are left for them; entries that still cannot be resolved are
+// reported on the job rather than written without an AniList ID.
+@Service
+public class ImportService {
+    static final int CHUNK_SIZE = 500;
+    static final int LOOKUP_BATCH = 50;
+    static final int LOOKUP_ATTEMPTS = 3;
+    // How many lookupBackoff intervals a lookup waits for the budget before giving up
+    static final int BUDGET_POLLS = 120;
+
+    private static final String LOOKUP_FIELDS = """
+                        id
+                        idMal
+                        type
+                        title {
+                            romaji
+                            english
+                            native
+                        }
+                        episodes
+                        chapters
+                        coverImage {
+                            extraLarge
+                        }
+            """;
+
+    private static final String MAL_ID_QUERY = """
+            query ($ids: [Int], $type: MediaType, $perPage: Int) {
+                Page(page: 1, perPage: $perPage) {
+                    media(idMal_in: $ids, type: $type) {
+            """ + LOOKUP_FIELDS + """
+                    }
+                }
+            }
+            """;
+
+    private static final String ID_QUERY = """
+            query ($ids: [Int], $perPage: Int) {
+                Page(page: 1, perPage: $perPage) {
+                    media(id_in: $ids) {
+            """ + LOOKUP_FIELDS + """
+                    }
+                }
+            }
+            """;
+
+    private final AniListClient aniListClient;
+    private final WatchedItemsService watchedItemsService;
+    private final Executor executor;
+    private final Duration retention;
+    private final int tokenReserve;
+    private final Duration lookupBackoff;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportService(
+            AniListClient aniListClient,
+            WatchedItemsService watchedItemsService,
+            @Value("${anilist.import.concurrency:1}") int concurrency,
+            @Value("${anilist.import.queue-capacity:10}") int queueCapacity,
+            @Value("${anilist.import.job-retention:PT1H}") Duration retention,
+            @Value("${anilist.import.token-reserve:45}") int tokenReserve,
+            @Value("${anilist.import.lookup-backoff:PT1S}") Duration lookupBackoff) {
+        this(aniListClient, watchedItemsService, newExecutor(concurrency, queueCapacity), retention, tokenReserve,
+                lookupBackoff);
+    }
+
+    ImportService(
+            AniListClient aniListClient,
+            WatchedItemsService watchedItemsService,
+            Executor executor,
+            Duration retention,
+            int tokenReserve,
+            Duration lookupBackoff) {
+        this.aniListClient = aniListClient;
+        this.watchedItemsService = watchedItemsService;
+        this.executor = executor;
+        this.retention = retention;
+        this.tokenReserve = tokenReserve;
+        this.lookupBackoff = lookupBackoff;
+    }
+
+    // Uploads wait on disk for a worker, so the queue is bounded and submit refuses
+    // (RejectedExecutionException) once it is full
+    static ExecutorService newExecutor(int concurrency, int queueCapacity) {
+        return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "watched-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Takes ownership of the file, which is deleted once the import finishes. A user
+    // can only have one import queued or running at a time.
+    public ImportJob submit(Long userId, Path file) {
+        evictFinished();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId);
+        synchronized (jobs) {
+            boolean busy = jobs.values().stream()
+                    .anyMatch(existing -> existing.getUserId().equals(userId) && !existing.isFinished());
+            if (busy) {
+                throw new IllegalStateException("An import is already in progress");
+            }
+            jobs.put(job.getId(), job);
+        }
+        try {
+            executor.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public ImportJob getJob(Long userId, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job != null && job.getUserId().equals(userId) ? job : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    void run(ImportJob job, Path file) {
+        job.start();
+        try (ExportReader reader = open(file)) {
+            List<ImportEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+            ImportEntry entry;
+            while ((entry = reader.next()) != null) {
+                chunk.add(entry);
+                if (chunk.size() == CHUNK_SIZE) {
+                    write(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(job, chunk);
+            }
+            job.complete();
+            System.out.println("Import " + job.getId() + " finished: " + job.getProcessed() + " entries");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import was interrupted");
+        } catch (Exception e) {
+            System.err.println("Import " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Failed to delete import upload " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Detects gzip and the export format from the first bytes rather than trusting
+    // the file name: MAL exports are XML (and often downloaded gzipped), AniList JSON
+    static ExportReader open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            in.mark(2);
+            int first = in.read();
+            int second = in.read();
+            in.reset();
+            if (first == 0x1f && second == 0x8b) {
+                in = new BufferedInputStream(new GZIPInputStream(in));
+            }
+
+            // Skip a byte order mark and leading whitespace
+            in.mark(64);
+            int next = in.read();
+            for (int i = 1; i < 64 && next != -1
+                    && (Character.isWhitespace(next) || next == 0xEF || next == 0xBB || next == 0xBF); i++) {
+                next = in.read();
+            }
+            in.reset();
+
+            if (next == '<') {
+                return new MalExportReader(in);
+            }
+            if (next == '{' || next == '[') {
+                return new AniListExportReader(in);
+            }
+            throw new IOException("Unrecognised export format; expected a MyAnimeList XML or AniList JSON export");
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private void write(ImportJob job, List<ImportEntry> chunk) throws InterruptedException {
+        resolve(chunk);
+        List<WatchedItem> items = new ArrayList<>(chunk.size());
+        for (ImportEntry entry : chunk) {
+            if (entry.isResolved()) {
+                items.add(entry.toWatchedItem());
+            } else {
+                job.recordUnresolved(entry.describe());
+            }
+        }
+        if (items.isEmpty()) {
+            job.record(chunk.size(), 0, 0, 0);
+            return;
+        }
+        WatchedItemsService.BulkImportResult result = watchedItemsService.bulkAddWatchedItems(job.getUserId(), items);
+        job.record(chunk.size(), result.getInserted(), result.getUpdated(), result.getSkipped());
+    }
+
+    // Fills in what AniList knows; entries left unresolved are reported by write
+    void resolve(List<ImportEntry> chunk) throws InterruptedException {
+        Map<WatchedItem.MediaType, Set<Integer>> malIds = new EnumMap<>(WatchedItem.MediaType.class);
+        Set<Integer> anilistIds = new LinkedHashSet<>();
+        for (ImportEntry entry : chunk) {
+            if (entry.anilistId == null && entry.malId != null && entry.type != null) {
+                malIds.computeIfAbsent(entry.type, type -> new LinkedHashSet<>()).add(entry.malId);
+            } else if (entry.anilistId != null && entry.needsLookup()) {
+                anilistIds.add(entry.anilistId);
+            }
+        }
+
+        for (Map.Entry<WatchedItem.MediaType, Set<Integer>> byType : malIds.entrySet()) {
+            Map<Integer, AnilistResult> found = new HashMap<>();
+            for (List<Integer> batch : batches(byType.getValue())) {
+                Map<String, Object> variables = Map.of("ids", batch, "type", byType.getKey().name(), "perPage", LOOKUP_BATCH);
+                for (AnilistResult media : lookup(MAL_ID_QUERY, variables)) {
+                    if (media.getIdMal() != null) found.put(media.getIdMal(), media);
+                }
+            }
+            for (ImportEntry entry : chunk) {
+                if (entry.anilistId == null && entry.type == byType.getKey() && found.containsKey(entry.malId)) {
+                    entry.apply(found.get(entry.malId));
+                }
+            }
+        }
+
+        if (!anilistIds.isEmpty()) {
+            Map<Integer, AnilistResult> found = new HashMap<>();
+            for (List<Integer> batch : batches(anilistIds)) {
+                Map<String, Object> variables = Map.of("ids", batch, "perPage", LOOKUP_BATCH);
+                for (AnilistResult media : lookup(ID_QUERY, variables)) {
+                    found.put(media.getId(), media);
+                }
+            }
+            for (ImportEntry entry : chunk) {
+                if (entry.anilistId != null && found.containsKey(entry.anilistId)) {
+                    entry.apply(found.get(entry.anilistId));
+                }
+            }
+        }
+    }
+
+    // AniListClient reports a rejected or failed call as an empty list, which a batch of
+    // real export IDs almost never is, so empty results are retried with backoff. Gives
+    // up (empty) after LOOKUP_ATTEMPTS, or when the budget stays below the reserve.
+    private List<AnilistResult> lookup(String query, Map<String, Object> variables) throws InterruptedException {
+        for (int attempt = 1; attempt <= LOOKUP_ATTEMPTS; attempt++) {
+            if (!awaitBudget()) {
+                return List.of();
+            }
+            List<AnilistResult> media = aniListClient.executeQuery(query, variables);
+            if (!media.isEmpty()) {
+                return media;
+            }
+            if (attempt < LOOKUP_ATTEMPTS) {
+                Thread.sleep(lookupBackoff.multipliedBy(attempt).toMillis());
+            }
+        }
+        return List.of();
+    }
+
+    private boolean awaitBudget() throws InterruptedException {
+        for (int poll = 0; poll < BUDGET_POLLS; poll++) {
+            if (aniListClient.getRateLimitGovernor().getAvailableTokens() >= tokenReserve) {
+                return true;
+            }
+            Thread.sleep(lookupBackoff.toMillis());
+        }
+        return false;
+    }
+
+    private void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static List<List<Integer>> batches(Set<Integer> ids) {
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> batch = new ArrayList<>(LOOKUP_BATCH);
+        for (Integer id : ids) {
+            batch.add(id);
+            if (batch.size() == LOOKUP_BATCH) {
+                batches.add(batch);
+                batch = new ArrayList<>(LOOKUP_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.AniLog.Import;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.example.AniLog.Profile.WatchedItem;
+
+// Reads a MyAnimeList XML export (<myanimelist> with <anime> or <manga> children) with
+// StAX. DTDs and external entities are disabled since the file comes from the user.
+class MalExportReader implements ExportReader {
+    private static final XMLInputFactory FACTORY = newFactory();
+
+    private final InputStream in;
+    private final XMLStreamReader reader;
+
+    MalExportReader(InputStream in) throws IOException {
+        this.in = in;
+        try {
+            this.reader = FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid MyAnimeList export: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ImportEntry next() throws IOException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (reader.getLocalName()) {
+                    case "anime" -> {
+                        return readEntry("anime", WatchedItem.MediaType.ANIME);
+                    }
+                    case "manga" -> {
+                        return readEntry("manga", WatchedItem.MediaType.MANGA);
+                    }
+                    default -> {
+                        // <myanimelist>, <myinfo> and its fields
+                    }
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid MyAnimeList export: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // XMLStreamReader.close() leaves the underlying stream open
+        try (in) {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private ImportEntry readEntry(String element, WatchedItem.MediaType type) throws XMLStreamException {
+        ImportEntry entry = new ImportEntry();
+        entry.type = type;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(element)) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = reader.getLocalName();
+            String text = reader.getElementText().trim();
+            switch (name) {
+                case "series_animedb_id", "manga_mangadb_id" -> entry.malId = positive(text);
+                case "series_title", "manga_title" -> entry.title = text.isEmpty() ? null : text;
+                case "series_episodes", "manga_chapters" -> entry.total = positive(text);
+                case "my_watched_episodes", "my_read_chapters" -> entry.progress = number(text);
+                case "my_start_date" -> entry.startedAt = date(text);
+                case "my_finish_date" -> entry.completedAt = date(text);
+                case "my_score" -> entry.rating = ImportEntry.rating(score(text));
+                case "my_status" -> entry.status = status(text);
+                case "my_comments" -> entry.notes = text.isEmpty() ? null : text;
+                default -> {
+                    // Fields AniLog has no place for
+                }
+            }
+        }
+        return entry;
+    }
+
+    // Exports write the status as text; some older ones use MAL's numeric codes
+    static WatchedItem.WatchStatus status(String value) {
+        return switch (value) {
+            case "Watching", "Reading", "1" -> WatchedItem.WatchStatus.WATCHING;
+            case "Completed", "2" -> WatchedItem.WatchStatus.COMPLETED;
+            case "On-Hold", "3" -> WatchedItem.WatchStatus.ON_HOLD;
+            case "Dropped", "4" -> WatchedItem.WatchStatus.DROPPED;
+            case "Plan to Watch", "Plan to Read", "6" -> WatchedItem.WatchStatus.PLAN_TO_WATCH;
+            default -> null;
+        };
+    }
+
+    // yyyy-MM-dd, with 0000-00-00 for "not set"
+    private static LocalDateTime date(String value) {
+        String[] parts = value.split("-");
+        if (parts.length != 3) {
+            return null;
+        }
+        return ImportEntry.date(number(parts[0]), number(parts[1]), number(parts[2]));
+    }
+
+    private static Integer number(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double score(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Unknown totals and IDs are exported as 0
+    private static Integer positive(String value) {
+        Integer number = number(value);
+        return number != null && number > 0 ? number : null;
+    }
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
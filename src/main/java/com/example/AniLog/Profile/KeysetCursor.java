@@ -0,0 +1,57 @@
+package com.example.AniLog.Profile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+import org.springframework.data.domain.ScrollPosition;
+
+// Opaque continuation token for the per-user list pages, handed out in X-Next-Cursor.
+// Holds the sort key of the last row served: its date (watchedDate or addedDate) and
+// ID, so the next page is an index range scan after that row however deep it is.
+public class KeysetCursor {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 100;
+
+    private final LocalDateTime date;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null when the token is malformed
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                return null;
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Position after this row for a query sorted by (dateProperty desc, id desc)
+    public ScrollPosition toPosition(String dateProperty) {
+        return ScrollPosition.forward(Map.of(dateProperty, date, "id", id));
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
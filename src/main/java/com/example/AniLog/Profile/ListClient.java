@@ -1,5 +1,6 @@
 package com.example.AniLog.Profile;
 
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -19,8 +21,15 @@ public class ListClient {
         this.listService = listService;
     }
 
+    // Paged, most recently added first, when limit or cursor is set; X-Next-Cursor is
+    // returned while more items follow
     @GetMapping("/{userId}/list/{listType}")
-    public ResponseEntity<?> getList(@PathVariable Long userId, @PathVariable String listType) {
+    public ResponseEntity<?> getList(
+        @PathVariable Long userId,
+        @PathVariable String listType,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
+
         if (userId == null || listType == null) {
             return ResponseEntity.badRequest().body(new ErrorResponse("User ID and list type are required"));
         }
@@ -28,8 +37,30 @@ public class ListClient {
         if (!listType.equalsIgnoreCase("ANIME") && !listType.equalsIgnoreCase("MANGA")) {
             return ResponseEntity.badRequest().body(new ErrorResponse("List type must be either 'ANIME' or 'MANGA'"));
         }
-        
-        return ResponseEntity.ok().body(listService.getUserList(userId, listType));
+
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok().body(listService.getUserList(userId, listType));
+        }
+
+        KeysetCursor after = null;
+        if (cursor != null) {
+            after = KeysetCursor.decode(cursor);
+            if (after == null) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Invalid cursor"));
+            }
+        }
+        int pageSize = limit != null ? limit : KeysetCursor.DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > KeysetCursor.MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("limit must be between 1 and " + KeysetCursor.MAX_LIMIT));
+        }
+
+        Window<UserListItem> page = listService.getUserListPage(userId, listType, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext() && !page.isEmpty()) {
+            UserListItem last = page.getContent().get(page.size() - 1);
+            response.header("X-Next-Cursor", new KeysetCursor(last.getAddedDate(), last.getId()).encode());
+        }
+        return response.body(page.getContent());
     }
 
     @PostMapping("/list/add")
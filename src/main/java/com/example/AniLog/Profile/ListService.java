@@ -1,6 +1,10 @@
 package com.example.AniLog.Profile;
 
 import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,6 +19,13 @@ public class ListService {
         return listsRepository.findByUserIdAndType(userId, UserListItem.MediaType.valueOf(listType.toUpperCase()));
     }
 
+    // One page of a list, most recently added first; after is null for the first page
+    public Window<UserListItem> getUserListPage(Long userId, String listType, KeysetCursor after, int limit) {
+        ScrollPosition position = after != null ? after.toPosition("addedDate") : ScrollPosition.keyset();
+        return listsRepository.findByUserIdAndTypeOrderByAddedDateDescIdDesc(
+            userId, UserListItem.MediaType.valueOf(listType.toUpperCase()), position, Limit.of(limit));
+    }
+
     public UserListItem addItemToList(UserListItem item) throws Exception {
         // Check for duplicates
         if (listsRepository.existsByUserIdAndTitleAndType(item.getUserId(), item.getTitle(), item.getType())) {
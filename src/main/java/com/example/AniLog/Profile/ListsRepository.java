@@ -2,6 +2,9 @@ package com.example.AniLog.Profile;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,10 @@ public interface ListsRepository extends JpaRepository<UserListItem, Long> {
     // Find lists by user and type (ANIME or MANGA)
     List<UserListItem> findByUserIdAndType(Long userId, UserListItem.MediaType type);
 
+    // Keyset pages of a list, most recently added first
+    Window<UserListItem> findByUserIdAndTypeOrderByAddedDateDescIdDesc(
+        Long userId, UserListItem.MediaType type, ScrollPosition position, Limit limit);
+
     // Find a specific item by user, title, and type
     UserListItem findByUserIdAndTitleAndType(Long userId, String title, UserListItem.MediaType type);
 
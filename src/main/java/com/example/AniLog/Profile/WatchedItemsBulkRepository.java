@@ -0,0 +1,33 @@
+package com.example.AniLog.Profile;
+
+import java.util.List;
+
+// Set-based writes for imports, mixed into WatchedItemsRepository. WatchedItem ids are
+// IDENTITY columns, which stops Hibernate from batching inserts, so these go through
+// multi-row JDBC statements instead.
+public interface WatchedItemsBulkRepository {
+
+    // Inserts each item, or applies its non-null fields to the row it conflicts with:
+    // the user's row for the same Anilist ID, or for title-only items that carry an id,
+    // that row. All in one transaction, so a concurrent add of the same title merges
+    // instead of failing the batch
+    UpsertResult upsert(List<WatchedItem> items);
+
+    class UpsertResult {
+        private final int inserted;
+        private final int updated;
+
+        public UpsertResult(int inserted, int updated) {
+            this.inserted = inserted;
+            this.updated = updated;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.AniLog.Profile;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+// Each chunk of items is one multi-row INSERT ... ON CONFLICT DO UPDATE. RETURNING
+// (xmax = 0) is true for rows the statement inserted and false for rows it merged into.
+public class WatchedItemsBulkRepositoryImpl implements WatchedItemsBulkRepository {
+    // At 15 parameters a row at most, a chunk stays well under the driver's 65535 bind limit
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String COLUMNS = """
+            user_id, title, type, cover_image_url, watched_date, completed_date, anilist_id,
+                episodes_watched, total_episodes, chapters_read, total_chapters, status, rating, notes""";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ROW_WITH_ID = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Null fields keep the stored value, matching WatchedItemsService.updateWatchedItem.
+    // title, type and watched_date are only written on insert
+    private static final String MERGE = """
+            DO UPDATE SET
+                status = COALESCE(EXCLUDED.status, watched_items.status),
+                episodes_watched = COALESCE(EXCLUDED.episodes_watched, watched_items.episodes_watched),
+                total_episodes = COALESCE(EXCLUDED.total_episodes, watched_items.total_episodes),
+                chapters_read = COALESCE(EXCLUDED.chapters_read, watched_items.chapters_read),
+                total_chapters = COALESCE(EXCLUDED.total_chapters, watched_items.total_chapters),
+                rating = COALESCE(EXCLUDED.rating, watched_items.rating),
+                notes = COALESCE(EXCLUDED.notes, watched_items.notes),
+                completed_date = COALESCE(EXCLUDED.completed_date, watched_items.completed_date)
+            """;
+
+    // Items without an Anilist ID never conflict here (NULLs stay distinct) and are inserted
+    private static final String UPSERT_BY_ANILIST_ID_HEAD = "INSERT INTO watched_items (" + COLUMNS + ") VALUES ";
+    private static final String UPSERT_BY_ANILIST_ID_TAIL = " ON CONFLICT (user_id, anilist_id) " + MERGE
+            + "RETURNING (xmax = 0) AS inserted";
+
+    // Title-only items matched to an existing row by the service; the id is only honoured
+    // for the user's own rows
+    private static final String UPSERT_BY_ID_HEAD = "INSERT INTO watched_items (id, " + COLUMNS + ") VALUES ";
+    private static final String UPSERT_BY_ID_TAIL = " ON CONFLICT (id) " + MERGE
+            + "WHERE watched_items.user_id = EXCLUDED.user_id RETURNING (xmax = 0) AS inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WatchedItemsBulkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public UpsertResult upsert(List<WatchedItem> items) {
+        List<WatchedItem> byAnilistId = new ArrayList<>();
+        List<WatchedItem> byId = new ArrayList<>();
+        for (WatchedItem item : items) {
+            if (item.getAnilistId() == null && item.getId() != null) {
+                byId.add(item);
+            } else {
+                byAnilistId.add(item);
+            }
+        }
+
+        int[] counts = new int[2];
+        for (int from = 0; from < byAnilistId.size(); from += ROWS_PER_STATEMENT) {
+            List<WatchedItem> chunk = byAnilistId.subList(from, Math.min(from + ROWS_PER_STATEMENT, byAnilistId.size()));
+            execute(UPSERT_BY_ANILIST_ID_HEAD, ROW, UPSERT_BY_ANILIST_ID_TAIL, chunk, false, counts);
+        }
+        for (int from = 0; from < byId.size(); from += ROWS_PER_STATEMENT) {
+            List<WatchedItem> chunk = byId.subList(from, Math.min(from + ROWS_PER_STATEMENT, byId.size()));
+            execute(UPSERT_BY_ID_HEAD, ROW_WITH_ID, UPSERT_BY_ID_TAIL, chunk, true, counts);
+        }
+        return new UpsertResult(counts[0], counts[1]);
+    }
+
+    // Adds the statement's inserted rows to counts[0] and merged rows to counts[1]
+    private void execute(String head, String row, String tail, List<WatchedItem> chunk, boolean withId, int[] counts) {
+        String sql = head + String.join(", ", Collections.nCopies(chunk.size(), row)) + tail;
+        jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            for (WatchedItem item : chunk) {
+                if (withId) {
+                    ps.setLong(index++, item.getId());
+                }
+                ps.setLong(index++, item.getUserId());
+                ps.setString(index++, item.getTitle());
+                ps.setString(index++, item.getType().name());
+                ps.setString(index++, item.getCoverImageUrl());
+                setTimestamp(ps, index++, item.getWatchedDate());
+                setTimestamp(ps, index++, item.getCompletedDate());
+                setInteger(ps, index++, item.getAnilistId());
+                setInteger(ps, index++, item.getEpisodesWatched());
+                setInteger(ps, index++, item.getTotalEpisodes());
+                setInteger(ps, index++, item.getChaptersRead());
+                setInteger(ps, index++, item.getTotalChapters());
+                ps.setString(index++, item.getStatus() != null ? item.getStatus().name() : null);
+                setDouble(ps, index++, item.getRating());
+                ps.setString(index++, item.getNotes());
+            }
+        }, rs -> {
+            counts[rs.getBoolean("inserted") ? 0 : 1]++;
+        });
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+}
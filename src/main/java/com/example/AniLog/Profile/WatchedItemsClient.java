@@ -2,6 +2,10 @@ package com.example.AniLog.Profile;
 
 import java.util.List;
 
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,24 +15,42 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/user")
 public class WatchedItemsClient {
     
+    private static final int MAX_BULK_ITEMS = 2000;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
     private final WatchedItemsService watchedItemsService;
+    private final WatchedItemsExporter watchedItemsExporter;
 
-    public WatchedItemsClient(WatchedItemsService watchedItemsService) {
+    public WatchedItemsClient(WatchedItemsService watchedItemsService, WatchedItemsExporter watchedItemsExporter) {
         this.watchedItemsService = watchedItemsService;
+        this.watchedItemsExporter = watchedItemsExporter;
     }
 
-    // Get all watched items for a user
+    // Get all watched items for a user. The watched endpoints are paged, newest first,
+    // when limit or cursor is set; X-Next-Cursor is returned while more items follow.
     @GetMapping("/{userId}/watched")
-    public ResponseEntity<?> getAllWatchedItems(@PathVariable Long userId) {
+    public ResponseEntity<?> getAllWatchedItems(
+        @PathVariable Long userId,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
+
         if (userId == null) {
             return ResponseEntity.badRequest().body(new ErrorResponse("User ID is required"));
         }
+
+        if (limit != null || cursor != null) {
+            return getWatchedItemsPage(userId, null, null, limit, cursor);
+        }
         
         try {
             List<WatchedItem> items = watchedItemsService.getAllWatchedItems(userId);
@@ -38,9 +60,51 @@ public class WatchedItemsClient {
         }
     }
 
+    // Download the whole watched history as NDJSON (default) or CSV. Rows are streamed
+    // from the database as they are written, so the list is never held in memory.
+    @GetMapping("/{userId}/watched/export")
+    public ResponseEntity<?> exportWatchedItems(
+        @PathVariable Long userId,
+        @RequestParam(defaultValue = "ndjson") String format) {
+
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("User ID is required"));
+        }
+
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Format must be either 'ndjson' or 'csv'"));
+        }
+
+        // Runs after the handler returns; once rows are written a failure can only
+        // cut the download short, so it is logged rather than reported
+        StreamingResponseBody body = out -> {
+            try {
+                if (csv) {
+                    watchedItemsExporter.writeCsv(userId, out);
+                } else {
+                    watchedItemsExporter.writeNdjson(userId, out);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Watched items export failed for user " + userId + ": " + e.getMessage());
+                throw e;
+            }
+        };
+        String filename = "anilog-watched." + (csv ? "csv" : "ndjson");
+        return ResponseEntity.ok()
+            .contentType(csv ? CSV : NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+
     // Get watched items by type (ANIME or MANGA)
     @GetMapping("/{userId}/watched/type/{type}")
-    public ResponseEntity<?> getWatchedItemsByType(@PathVariable Long userId, @PathVariable String type) {
+    public ResponseEntity<?> getWatchedItemsByType(
+        @PathVariable Long userId,
+        @PathVariable String type,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
+
         if (userId == null || type == null) {
             return ResponseEntity.badRequest().body(new ErrorResponse("User ID and type are required"));
         }
@@ -48,6 +112,10 @@ public class WatchedItemsClient {
         if (!type.equalsIgnoreCase("ANIME") && !type.equalsIgnoreCase("MANGA")) {
             return ResponseEntity.badRequest().body(new ErrorResponse("Type must be either 'ANIME' or 'MANGA'"));
         }
+
+        if (limit != null || cursor != null) {
+            return getWatchedItemsPage(userId, type, null, limit, cursor);
+        }
         
         try {
             List<WatchedItem> items = watchedItemsService.getWatchedItemsByType(userId, type);
@@ -59,11 +127,20 @@ public class WatchedItemsClient {
 
     // Get watched items by status
     @GetMapping("/{userId}/watched/status/{status}")
-    public ResponseEntity<?> getWatchedItemsByStatus(@PathVariable Long userId, @PathVariable String status) {
+    public ResponseEntity<?> getWatchedItemsByStatus(
+        @PathVariable Long userId,
+        @PathVariable String status,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
+
         if (userId == null || status == null) {
             return ResponseEntity.badRequest().body(new ErrorResponse("User ID and status are required"));
         }
 
+        if (limit != null || cursor != null) {
+            return getWatchedItemsPage(userId, null, status, limit, cursor);
+        }
+
         try {
             List<WatchedItem> items = watchedItemsService.getWatchedItemsByStatus(userId, status);
             return ResponseEntity.ok().body(items);
@@ -77,7 +154,9 @@ public class WatchedItemsClient {
     public ResponseEntity<?> getWatchedItemsByTypeAndStatus(
         @PathVariable Long userId, 
         @PathVariable String type,
-        @PathVariable String status) {
+        @PathVariable String status,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
         
         if (userId == null || type == null || status == null) {
             return ResponseEntity.badRequest().body(new ErrorResponse("User ID, type, and status are required"));
@@ -86,6 +165,10 @@ public class WatchedItemsClient {
         if (!type.equalsIgnoreCase("ANIME") && !type.equalsIgnoreCase("MANGA")) {
             return ResponseEntity.badRequest().body(new ErrorResponse("Type must be either 'ANIME' or 'MANGA'"));
         }
+
+        if (limit != null || cursor != null) {
+            return getWatchedItemsPage(userId, type, status, limit, cursor);
+        }
         
         try {
             List<WatchedItem> items = watchedItemsService.getWatchedItemsByTypeAndStatus(userId, type, status);
@@ -118,6 +201,25 @@ public class WatchedItemsClient {
         }
     }
 
+    // Import or update many watched items in one request
+    @PostMapping("/{userId}/watched/bulk")
+    public ResponseEntity<?> bulkAddWatchedItems(@PathVariable Long userId, @RequestBody List<WatchedItem> items) {
+        if (userId == null || items == null || items.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("User ID and at least one item are required"));
+        }
+
+        if (items.size() > MAX_BULK_ITEMS) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("At most " + MAX_BULK_ITEMS + " items can be imported at once"));
+        }
+
+        try {
+            WatchedItemsService.BulkImportResult result = watchedItemsService.bulkAddWatchedItems(userId, items);
+            return ResponseEntity.ok().body(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(new ErrorResponse("Failed to import watched items: " + e.getMessage()));
+        }
+    }
+
     // Update a watched item
     @PutMapping("/watched/{itemId}")
     public ResponseEntity<?> updateWatchedItem(
@@ -189,6 +291,32 @@ public class WatchedItemsClient {
         }
     }
 
+    private ResponseEntity<?> getWatchedItemsPage(Long userId, String type, String status, Integer limit, String cursor) {
+        KeysetCursor after = null;
+        if (cursor != null) {
+            after = KeysetCursor.decode(cursor);
+            if (after == null) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Invalid cursor"));
+            }
+        }
+        int pageSize = limit != null ? limit : KeysetCursor.DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > KeysetCursor.MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("limit must be between 1 and " + KeysetCursor.MAX_LIMIT));
+        }
+
+        try {
+            Window<WatchedItem> page = watchedItemsService.getWatchedItemsPage(userId, type, status, after, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext() && !page.isEmpty()) {
+                WatchedItem last = page.getContent().get(page.size() - 1);
+                response.header("X-Next-Cursor", new KeysetCursor(last.getWatchedDate(), last.getId()).encode());
+            }
+            return response.body(page.getContent());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(new ErrorResponse("Failed to retrieve watched items: " + e.getMessage()));
+        }
+    }
+
     // Helper class for progress update
     public static class ProgressUpdate {
         private Integer progress;
@@ -0,0 +1,97 @@
+package com.example.AniLog.Profile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+// Writes a user's whole watched history straight from a database cursor. Each row is
+// detached once written, so the persistence context (and the heap) only ever holds
+// the current fetch batch however large the library is.
+@Service
+public class WatchedItemsExporter {
+    private static final String CSV_HEADER = "id,anilistId,type,title,status,episodesWatched,totalEpisodes,"
+            + "chaptersRead,totalChapters,rating,watchedDate,completedDate,coverImageUrl,notes";
+
+    private final WatchedItemsRepository watchedItemsRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+
+    public WatchedItemsExporter(
+            WatchedItemsRepository watchedItemsRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper) {
+        this.watchedItemsRepository = watchedItemsRepository;
+        this.entityManager = entityManager;
+        // Flushing after every row would send one tiny chunk per item
+        this.jsonWriter = objectMapper.writerFor(WatchedItem.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // One JSON object per line, in the same shape as GET /watched; returns the row count
+    @Transactional(readOnly = true)
+    public int writeNdjson(Long userId, OutputStream out) throws IOException {
+        int rows = 0;
+        try (Stream<WatchedItem> items = watchedItemsRepository.streamByUserIdOrderByWatchedDateDescIdDesc(userId);
+             JsonGenerator generator = jsonWriter.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (Iterator<WatchedItem> it = items.iterator(); it.hasNext(); rows++) {
+                WatchedItem item = it.next();
+                jsonWriter.writeValue(generator, item);
+                generator.writeRaw('\n');
+                entityManager.detach(item);
+            }
+        }
+        return rows;
+    }
+
+    // RFC 4180 CSV with a header row; returns the row count
+    @Transactional(readOnly = true)
+    public int writeCsv(Long userId, OutputStream out) throws IOException {
+        int rows = 0;
+        try (Stream<WatchedItem> items = watchedItemsRepository.streamByUserIdOrderByWatchedDateDescIdDesc(userId);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+            for (Iterator<WatchedItem> it = items.iterator(); it.hasNext(); rows++) {
+                WatchedItem item = it.next();
+                writeCsvRow(writer, item);
+                entityManager.detach(item);
+            }
+        }
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, WatchedItem item) throws IOException {
+        Object[] values = {
+            item.getId(), item.getAnilistId(), item.getType(), item.getTitle(), item.getStatus(),
+            item.getEpisodesWatched(), item.getTotalEpisodes(), item.getChaptersRead(), item.getTotalChapters(),
+            item.getRating(), item.getWatchedDate(), item.getCompletedDate(), item.getCoverImageUrl(), item.getNotes()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] != null) writer.write(csvField(values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.AniLog.Profile;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface WatchedItemsRepository extends JpaRepository<WatchedItem, Long> {
+public interface WatchedItemsRepository extends JpaRepository<WatchedItem, Long>, WatchedItemsBulkRepository {
     
     // Find all watched items for a specific user
     List<WatchedItem> findByUserId(Long userId);
@@ -35,6 +44,32 @@ public interface WatchedItemsRepository extends JpaRepository<WatchedItem, Long>
     // Find all completed items for a user
     List<WatchedItem> findByUserIdAndStatusOrderByCompletedDateDesc(Long userId, WatchedItem.WatchStatus status);
 
+    // Existing rows matching an import, looked up in one query per key kind
+    List<WatchedItem> findByUserIdAndAnilistIdIn(Long userId, Collection<Integer> anilistIds);
+
+    List<WatchedItem> findByUserIdAndTitleIn(Long userId, Collection<String> titles);
+
     // Find items by user ordered by watch date
     List<WatchedItem> findByUserIdOrderByWatchedDateDesc(Long userId);
+
+    // Keyset pages, newest first; (watchedDate, id) makes the order total so a page
+    // boundary never skips or repeats a row
+    Window<WatchedItem> findByUserIdOrderByWatchedDateDescIdDesc(Long userId, ScrollPosition position, Limit limit);
+
+    Window<WatchedItem> findByUserIdAndTypeOrderByWatchedDateDescIdDesc(
+        Long userId, WatchedItem.MediaType type, ScrollPosition position, Limit limit);
+
+    Window<WatchedItem> findByUserIdAndStatusOrderByWatchedDateDescIdDesc(
+        Long userId, WatchedItem.WatchStatus status, ScrollPosition position, Limit limit);
+
+    Window<WatchedItem> findByUserIdAndTypeAndStatusOrderByWatchedDateDescIdDesc(
+        Long userId, WatchedItem.MediaType type, WatchedItem.WatchStatus status, ScrollPosition position, Limit limit);
+
+    // Forward-only cursor over a user's items for exports. Must be consumed inside a
+    // transaction, which is also what makes the Postgres driver honour the fetch size.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<WatchedItem> streamByUserIdOrderByWatchedDateDescIdDesc(Long userId);
 }
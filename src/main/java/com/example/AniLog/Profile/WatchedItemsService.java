@@ -1,8 +1,16 @@
 package com.example.AniLog.Profile;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -43,6 +51,28 @@ public class WatchedItemsService {
         );
     }
 
+    // One page of watched items, newest first, optionally filtered by type and/or
+    // status; after is null for the first page
+    public Window<WatchedItem> getWatchedItemsPage(
+            Long userId, String type, String status, KeysetCursor after, int limit) {
+        ScrollPosition position = after != null ? after.toPosition("watchedDate") : ScrollPosition.keyset();
+        Limit max = Limit.of(limit);
+        WatchedItem.MediaType mediaType = type != null ? WatchedItem.MediaType.valueOf(type.toUpperCase()) : null;
+        WatchedItem.WatchStatus watchStatus = status != null ? WatchedItem.WatchStatus.valueOf(status.toUpperCase()) : null;
+
+        if (mediaType != null && watchStatus != null) {
+            return watchedItemsRepository.findByUserIdAndTypeAndStatusOrderByWatchedDateDescIdDesc(
+                userId, mediaType, watchStatus, position, max);
+        }
+        if (mediaType != null) {
+            return watchedItemsRepository.findByUserIdAndTypeOrderByWatchedDateDescIdDesc(userId, mediaType, position, max);
+        }
+        if (watchStatus != null) {
+            return watchedItemsRepository.findByUserIdAndStatusOrderByWatchedDateDescIdDesc(userId, watchStatus, position, max);
+        }
+        return watchedItemsRepository.findByUserIdOrderByWatchedDateDescIdDesc(userId, position, max);
+    }
+
     // Add a new watched item
     public WatchedItem addWatchedItem(WatchedItem item) throws Exception {
         // Check for duplicates by Anilist ID if provided
@@ -69,6 +99,81 @@ public class WatchedItemsService {
         return watchedItemsRepository.save(item);
     }
 
+    // Import many items at once. Items already in the list (by Anilist ID, or by title and
+    // type when there is none) are updated instead of rejected; repeats within the request
+    // and items without a title or type are skipped.
+    public BulkImportResult bulkAddWatchedItems(Long userId, List<WatchedItem> items) {
+        List<WatchedItem> valid = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int skipped = 0;
+        for (WatchedItem item : items) {
+            if (item == null || item.getTitle() == null || item.getType() == null || !seen.add(importKey(item))) {
+                skipped++;
+                continue;
+            }
+            item.setUserId(userId);
+            valid.add(item);
+        }
+
+        Set<Integer> anilistIds = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        for (WatchedItem item : valid) {
+            if (item.getAnilistId() != null) {
+                anilistIds.add(item.getAnilistId());
+            } else {
+                titles.add(item.getTitle());
+            }
+        }
+        Map<String, WatchedItem> existing = new HashMap<>();
+        if (!anilistIds.isEmpty()) {
+            for (WatchedItem row : watchedItemsRepository.findByUserIdAndAnilistIdIn(userId, anilistIds)) {
+                existing.put(importKey(row), row);
+            }
+        }
+        if (!titles.isEmpty()) {
+            for (WatchedItem row : watchedItemsRepository.findByUserIdAndTitleIn(userId, titles)) {
+                existing.putIfAbsent(titleKey(row), row);
+            }
+        }
+
+        // The lookups only decide the defaults; the write itself is an upsert, so a row
+        // added since (by another import or a single add) is merged rather than failing the batch
+        LocalDateTime now = LocalDateTime.now();
+        for (WatchedItem item : valid) {
+            WatchedItem match = existing.get(importKey(item));
+            if (item.getWatchedDate() == null) {
+                // Only written when the row is inserted
+                item.setWatchedDate(now);
+            }
+            if (match != null) {
+                item.setId(match.getId());
+                if (item.getStatus() == WatchedItem.WatchStatus.COMPLETED
+                        && item.getCompletedDate() == null && match.getCompletedDate() == null) {
+                    item.setCompletedDate(now);
+                }
+            } else {
+                item.setId(null);
+                if (item.getStatus() == null) {
+                    item.setStatus(WatchedItem.WatchStatus.WATCHING);
+                }
+                if (item.getStatus() == WatchedItem.WatchStatus.COMPLETED && item.getCompletedDate() == null) {
+                    item.setCompletedDate(now);
+                }
+            }
+        }
+
+        WatchedItemsBulkRepository.UpsertResult written = watchedItemsRepository.upsert(valid);
+        return new BulkImportResult(written.getInserted(), written.getUpdated(), skipped);
+    }
+
+    private static String importKey(WatchedItem item) {
+        return item.getAnilistId() != null ? "id:" + item.getAnilistId() : titleKey(item);
+    }
+
+    private static String titleKey(WatchedItem item) {
+        return "title:" + item.getType() + ":" + item.getTitle();
+    }
+
     // Update a watched item
     public WatchedItem updateWatchedItem(Long itemId, WatchedItem updatedItem) throws Exception {
         WatchedItem existingItem = watchedItemsRepository.findById(itemId)
@@ -158,4 +263,28 @@ public class WatchedItemsService {
 
         watchedItemsRepository.delete(existingItem);
     }
+
+    public static class BulkImportResult {
+        private final int inserted;
+        private final int updated;
+        private final int skipped;
+
+        public BulkImportResult(int inserted, int updated, int skipped) {
+            this.inserted = inserted;
+            this.updated = updated;
+            this.skipped = skipped;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+    }
 }
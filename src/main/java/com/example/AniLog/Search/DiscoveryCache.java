@@ -0,0 +1,297 @@
+package com.example.AniLog.Search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+import jakarta.annotation.PreDestroy;
+
+// In-memory cache for the discovery lists (trending/popular/new/coming soon).
+// Entries are served fresh for the endpoint's TTL, then served stale for up to
+// staleWindow while a single background refresh replaces them.
+@Component
+public class DiscoveryCache {
+
+    public enum Endpoint {
+        TRENDING,
+        POPULAR,
+        NEW,
+        COMING_SOON
+    }
+
+    private final Map<Endpoint, Duration> ttls;
+    private final Duration staleWindow;
+    private final Map<String, Entry> entries;
+    private volatile ExecutorService refreshExecutor;
+
+    public DiscoveryCache(
+            @Value("${anilist.cache.ttl.trending:PT10M}") Duration trendingTtl,
+            @Value("${anilist.cache.ttl.popular:PT30M}") Duration popularTtl,
+            @Value("${anilist.cache.ttl.new:PT30M}") Duration newTtl,
+            @Value("${anilist.cache.ttl.coming-soon:PT1H}") Duration comingSoonTtl,
+            @Value("${anilist.cache.stale-window:PT6H}") Duration staleWindow,
+            @Value("${anilist.cache.max-entries:64}") int maxEntries) {
+        this.ttls = Map.of(
+                Endpoint.TRENDING, trendingTtl,
+                Endpoint.POPULAR, popularTtl,
+                Endpoint.NEW, newTtl,
+                Endpoint.COMING_SOON, comingSoonTtl);
+        this.staleWindow = staleWindow;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // Defaults used when the service is constructed outside of Spring (tests)
+    public static DiscoveryCache withDefaults() {
+        return new DiscoveryCache(
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(30),
+                Duration.ofMinutes(30),
+                Duration.ofHours(1),
+                Duration.ofHours(6),
+                64);
+    }
+
+    public List<AnilistResult> get(Endpoint endpoint, String type, Supplier<List<AnilistResult>> loader) {
+        String key = key(endpoint, type, MediaProjection.DETAIL);
+        Entry entry = lookup(key);
+
+        if (entry != null && System.nanoTime() < entry.freshUntil) {
+            return entry.value;
+        }
+
+        if (entry != null && System.nanoTime() < entry.staleUntil) {
+            refresh(endpoint, key, entry, () -> CompletableFuture.supplyAsync(loader, refreshExecutor()));
+            return entry.value;
+        }
+
+        return store(endpoint, key, loader.get());
+    }
+
+    public CompletableFuture<List<AnilistResult>> getAsync(
+            Endpoint endpoint,
+            String type,
+            Supplier<CompletableFuture<List<AnilistResult>>> loader) {
+        return getAsync(endpoint, type, MediaProjection.DETAIL, loader);
+    }
+
+    // Each projection of a list is cached separately
+    public CompletableFuture<List<AnilistResult>> getAsync(
+            Endpoint endpoint,
+            String type,
+            MediaProjection projection,
+            Supplier<CompletableFuture<List<AnilistResult>>> loader) {
+        String key = key(endpoint, type, projection);
+        Entry entry = lookup(key);
+
+        if (entry != null && System.nanoTime() < entry.freshUntil) {
+            return CompletableFuture.completedFuture(entry.value);
+        }
+
+        if (entry != null && System.nanoTime() < entry.staleUntil) {
+            refresh(endpoint, key, entry, loader);
+            return CompletableFuture.completedFuture(entry.value);
+        }
+
+        return loader.get().thenApply(value -> store(endpoint, key, value));
+    }
+
+    // The validator for a list this cache handed out is computed once when it is stored;
+    // any other list (search results, mirror reads) is hashed on demand
+    public String etag(List<AnilistResult> value) {
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                if (entry.value == value) {
+                    return entry.etag;
+                }
+            }
+        }
+        return ResultETag.of(value);
+    }
+
+    // Entries with wall-clock expiry times, for persisting across restarts
+    public List<Snapshot> snapshot() {
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        List<Snapshot> snapshots = new ArrayList<>();
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                Entry value = entry.getValue();
+                if (nowNanos - value.staleUntil >= 0) continue;
+                snapshots.add(new Snapshot(
+                        entry.getKey(),
+                        value.value,
+                        nowMillis + TimeUnit.NANOSECONDS.toMillis(value.freshUntil - nowNanos),
+                        nowMillis + TimeUnit.NANOSECONDS.toMillis(value.staleUntil - nowNanos)));
+            }
+        }
+        return snapshots;
+    }
+
+    // Reinstates a persisted entry unless it is already past its stale window
+    public boolean restore(Snapshot snapshot) {
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        if (snapshot.getStaleUntil() <= nowMillis || snapshot.getValue().isEmpty()) {
+            return false;
+        }
+        List<AnilistResult> copy = List.copyOf(snapshot.getValue());
+        Entry entry = new Entry(
+                copy,
+                ResultETag.of(copy),
+                nowNanos + TimeUnit.MILLISECONDS.toNanos(snapshot.getFreshUntil() - nowMillis),
+                nowNanos + TimeUnit.MILLISECONDS.toNanos(snapshot.getStaleUntil() - nowMillis));
+        synchronized (entries) {
+            entries.putIfAbsent(snapshot.getKey(), entry);
+        }
+        return true;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private Entry lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    // Serve the stale list and let one background task refresh it
+    private void refresh(
+            Endpoint endpoint,
+            String key,
+            Entry entry,
+            Supplier<CompletableFuture<List<AnilistResult>>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            loader.get().whenComplete((value, error) -> {
+                if (error == null) {
+                    store(endpoint, key, value);
+                }
+                entry.refreshing.set(false);
+            });
+        } catch (RuntimeException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private List<AnilistResult> store(Endpoint endpoint, String key, List<AnilistResult> value) {
+        // AniListClient returns an empty list on failure, so never cache it over a good entry
+        if (value == null || value.isEmpty()) {
+            Entry previous = lookup(key);
+            return previous != null ? previous.value : value;
+        }
+
+        long freshUntil = System.nanoTime() + ttls.get(endpoint).toNanos();
+        List<AnilistResult> copy = List.copyOf(value);
+        Entry entry = new Entry(copy, ResultETag.of(copy), freshUntil, freshUntil + staleWindow.toNanos());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return entry.value;
+    }
+
+    private ExecutorService refreshExecutor() {
+        ExecutorService executor = refreshExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = refreshExecutor;
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(2, runnable -> {
+                        Thread thread = new Thread(runnable, "discovery-cache-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    refreshExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static String key(Endpoint endpoint, String type, MediaProjection projection) {
+        return endpoint.name() + ":" + (type == null ? "" : type.toUpperCase()) + ":" + projection.name();
+    }
+
+    public static class Snapshot {
+        private final String key;
+        private final List<AnilistResult> value;
+        private final long freshUntil;
+        private final long staleUntil;
+
+        public Snapshot(String key, List<AnilistResult> value, long freshUntil, long staleUntil) {
+            this.key = key;
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public List<AnilistResult> getValue() {
+            return value;
+        }
+
+        // Epoch milliseconds
+        public long getFreshUntil() {
+            return freshUntil;
+        }
+
+        // Epoch milliseconds
+        public long getStaleUntil() {
+            return staleUntil;
+        }
+    }
+
+    private static class Entry {
+        private final List<AnilistResult> value;
+        private final String etag;
+        private final long freshUntil;
+        private final long staleUntil;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private Entry(List<AnilistResult> value, String etag, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.etag = etag;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
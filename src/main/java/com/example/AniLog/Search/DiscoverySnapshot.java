@@ -0,0 +1,139 @@
+package com.example.AniLog.Search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Anilist.AnilistResultCodec;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Persists the discovery cache to a local file so a restarted instance serves from
+// cache straight away. The file is rewritten periodically and on shutdown, and mapped
+// back in at startup (before the warm-up runs, which then finds the lists fresh).
+// Entries past their stale window are dropped on load.
+//
+// Layout: magic, version, entry count, then per entry the key, fresh-until and
+// stale-until (epoch ms), result count and AnilistResultCodec-encoded results.
+@Component
+public class DiscoverySnapshot {
+    static final int MAGIC = 0x414E4C44; // "ANLD"
+    static final int VERSION = 2;
+
+    private final DiscoveryCache discoveryCache;
+    private final Path path;
+    private final boolean enabled;
+
+    public DiscoverySnapshot(
+            DiscoveryCache discoveryCache,
+            @Value("${anilist.cache.snapshot.path:${java.io.tmpdir}/anilog-discovery.bin}") Path path,
+            @Value("${anilist.cache.snapshot.enabled:true}") boolean enabled) {
+        this.discoveryCache = discoveryCache;
+        this.path = path;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled) return;
+        int restored = load();
+        if (restored > 0) {
+            System.out.println("Restored " + restored + " discovery lists from " + path);
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${anilist.cache.snapshot.interval:PT5M}",
+        fixedDelayString = "${anilist.cache.snapshot.interval:PT5M}")
+    public void scheduledSave() {
+        if (!enabled) return;
+        save();
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        if (!enabled) return;
+        save();
+    }
+
+    // Returns the number of entries written
+    public int save() {
+        List<DiscoveryCache.Snapshot> snapshots = discoveryCache.snapshot();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "anilog-discovery", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshots.size());
+                for (DiscoveryCache.Snapshot snapshot : snapshots) {
+                    AnilistResultCodec.writeString(out, snapshot.getKey());
+                    out.writeLong(snapshot.getFreshUntil());
+                    out.writeLong(snapshot.getStaleUntil());
+                    out.writeInt(snapshot.getValue().size());
+                    for (AnilistResult result : snapshot.getValue()) {
+                        AnilistResultCodec.write(out, result);
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return snapshots.size();
+        } catch (IOException e) {
+            System.err.println("Failed to write discovery snapshot: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Returns the number of entries restored; a missing, stale-format or truncated file
+    // is ignored rather than failing startup
+    public int load() {
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        List<DiscoveryCache.Snapshot> snapshots = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < 12 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                return 0;
+            }
+            // Key length, two deadlines and a result count at the least
+            int count = AnilistResultCodec.readCount(in, 3 * Integer.BYTES + 2 * Long.BYTES);
+            for (int i = 0; i < count; i++) {
+                String key = AnilistResultCodec.readString(in);
+                long freshUntil = in.getLong();
+                long staleUntil = in.getLong();
+                int size = AnilistResultCodec.readCount(in, Integer.BYTES);
+                List<AnilistResult> results = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    results.add(AnilistResultCodec.read(in));
+                }
+                snapshots.add(new DiscoveryCache.Snapshot(key, results, freshUntil, staleUntil));
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Ignoring unreadable discovery snapshot: " + e.getMessage());
+            return 0;
+        }
+
+        int restored = 0;
+        for (DiscoveryCache.Snapshot snapshot : snapshots) {
+            if (discoveryCache.restore(snapshot)) restored++;
+        }
+        return restored;
+    }
+}
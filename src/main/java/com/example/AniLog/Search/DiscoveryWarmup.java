@@ -0,0 +1,119 @@
+package com.example.AniLog.Search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Search.DiscoveryCache.Endpoint;
+
+// Fills the discovery cache before the instance starts taking traffic. Spring Boot
+// only marks the application ready once every ApplicationRunner has returned, so the
+// first visitors after a deploy hit a warm cache. Queries are "endpoint:type", e.g.
+// "trending:anime" or "comingsoon:manga", and all run concurrently.
+@Component
+@ConditionalOnProperty(name = "anilist.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class DiscoveryWarmup implements ApplicationRunner {
+    static final List<String> DEFAULT_QUERIES = List.of(
+            "trending:anime", "popular:anime", "new:anime", "comingsoon:anime",
+            "trending:manga", "popular:manga", "new:manga", "comingsoon:manga");
+
+    private final SearchInterface searchService;
+    private final List<String> queries;
+    private final MediaProjection projection;
+    private final Duration timeout;
+
+    public DiscoveryWarmup(
+            SearchInterface searchService,
+            @Value("${anilist.warmup.queries:}") List<String> queries,
+            @Value("${anilist.projection.discovery:detail}") String projection,
+            @Value("${anilist.warmup.timeout:PT30S}") Duration timeout) {
+        this.searchService = searchService;
+        this.queries = queries == null || queries.isEmpty() ? DEFAULT_QUERIES : queries;
+        this.projection = MediaProjection.parse(projection, MediaProjection.DETAIL);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    // Returns how many lists were loaded. Never fails startup: a list that errors or
+    // misses the timeout is simply loaded by the first request instead.
+    public int warmUp() {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        List<CompletableFuture<?>> loads = new ArrayList<>();
+        for (String query : queries) {
+            CompletableFuture<List<AnilistResult>> load = load(query.trim());
+            if (load == null) {
+                System.err.println("Ignoring invalid warm-up query: " + query);
+                continue;
+            }
+            loads.add(load.handle((results, error) -> {
+                if (error == null && results != null && !results.isEmpty()) {
+                    loaded.incrementAndGet();
+                } else {
+                    System.err.println("Warm-up of " + query + " failed"
+                            + (error != null ? ": " + error.getMessage() : ""));
+                }
+                return null;
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Warm-up timed out after " + timeout + ", continuing startup");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Each load handles its own failure
+        }
+        System.out.println("Warmed " + loaded.get() + "/" + loads.size() + " discovery lists in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return loaded.get();
+    }
+
+    private CompletableFuture<List<AnilistResult>> load(String query) {
+        String[] parts = query.split(":");
+        if (parts.length != 2 || parts[1].isBlank()) {
+            return null;
+        }
+        Endpoint endpoint = parseEndpoint(parts[0]);
+        if (endpoint == null) {
+            return null;
+        }
+        String type = parts[1].trim().toUpperCase(Locale.ROOT);
+        return switch (endpoint) {
+            case TRENDING -> searchService.getTrendingAniListAsync(type, projection);
+            case POPULAR -> searchService.getPopularAniListAsync(type, projection);
+            case NEW -> searchService.getNewAniListAsync(type, projection);
+            case COMING_SOON -> searchService.getComingSoonAniListAsync(type, projection);
+        };
+    }
+
+    private static Endpoint parseEndpoint(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace("-", "").replace("_", "");
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (endpoint.name().replace("_", "").equals(normalized)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.AniLog.Search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Discovery responses as ready-to-write JSON bytes, plus a gzip copy, keyed by the
+// result list's ETag so the same content is encoded once however it was loaded.
+// Encodings are redone after renderTtl because timeUntilAiring is computed when a
+// result is serialised; a cached body's countdown is at most renderTtl old.
+@Component
+public class EncodedResponseCache {
+    private final ObjectMapper objectMapper;
+    private final long renderTtlNanos;
+    private final Map<String, Encoded> entries;
+
+    public EncodedResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${anilist.cache.render-ttl:PT1M}") Duration renderTtl,
+            @Value("${anilist.cache.max-entries:64}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.renderTtlNanos = renderTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Encoded> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Encoded get(String etag, List<AnilistResult> results) {
+        Encoded encoded;
+        synchronized (entries) {
+            encoded = entries.get(etag);
+        }
+        if (encoded != null && System.nanoTime() - encoded.renderedAt < renderTtlNanos) {
+            return encoded;
+        }
+
+        // Concurrent misses may both encode; the results are interchangeable
+        encoded = encode(results);
+        synchronized (entries) {
+            entries.put(etag, encoded);
+        }
+        return encoded;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Encoded encode(List<AnilistResult> results) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(results);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Encoded(json, compressed.toByteArray(), System.nanoTime());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode results", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class Encoded {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final long renderedAt;
+
+        private Encoded(byte[] json, byte[] gzip, long renderedAt) {
+            this.json = json;
+            this.gzip = gzip;
+            this.renderedAt = renderedAt;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
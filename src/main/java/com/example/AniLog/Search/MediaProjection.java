@@ -0,0 +1,113 @@
+package com.example.AniLog.Search;
+
+import java.util.Locale;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+// Which Media fields a query asks AniList for. List views only render the summary
+// (title, cover, score, format and a few badges); the detail projection adds the
+// long text and relations the title page shows. Queries spread the fragment for
+// their projection and the fragment definitions are appended to the document.
+public enum MediaProjection {
+    SUMMARY("MediaSummary"),
+    DETAIL("MediaDetail");
+
+    private static final String SUMMARY_FRAGMENT = """
+            fragment MediaSummary on Media {
+                id
+                type
+                title {
+                    romaji
+                    english
+                    native
+                }
+                format
+                episodes
+                chapters
+                averageScore
+                startDate {
+                    year
+                }
+                coverImage {
+                    extraLarge
+                }
+                status
+                isAdult
+            }
+            """;
+
+    private static final String DETAIL_FRAGMENT = """
+            fragment MediaDetail on Media {
+                ...MediaSummary
+                description
+                volumes
+                nextAiringEpisode {
+                    episode
+                    airingAt
+                }
+                startDate {
+                    day
+                    month
+                    year
+                }
+                genres
+                studios {
+                    nodes {
+                        name
+                    }
+                }
+                synonyms
+            }
+            """;
+
+    private final String fragmentName;
+
+    MediaProjection(String fragmentName) {
+        this.fragmentName = fragmentName;
+    }
+
+    // Lenient so a bad query parameter falls back instead of failing the request
+    public static MediaProjection parse(String value, MediaProjection fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    // Fills the operation's "...%s" selection with this projection's fragment
+    public String document(String operation) {
+        String fragments = this == SUMMARY ? SUMMARY_FRAGMENT : SUMMARY_FRAGMENT + DETAIL_FRAGMENT;
+        return operation.formatted(fragmentName) + fragments;
+    }
+
+    // Trims a full result (e.g. one served from the local catalog) to this projection
+    public AnilistResult apply(AnilistResult result) {
+        if (this == DETAIL) {
+            return result;
+        }
+        return new AnilistResult(
+                result.getId(),
+                result.getType(),
+                result.getTitle(),
+                null,
+                result.getFormat(),
+                result.getEpisodes(),
+                result.getChapters(),
+                null,
+                result.getAverageScore(),
+                null,
+                null,
+                null,
+                result.getYear(),
+                result.getCoverImageUrl(),
+                result.getStatus(),
+                null,
+                null,
+                null,
+                result.isAdult());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.AniLog.Search;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+// Weak validator for a result list, hashed from the fields the API serialises. The
+// derived timeUntilAiring is left out: it changes every second while airingAt, which
+// it is computed from, is hashed. The bytes under one tag can therefore differ in that
+// countdown, so the tag is weak. Only the first 128 bits of the SHA-256 are kept.
+final class ResultETag {
+    private static final byte SEPARATOR = 0x1f;
+    private static final byte NULL = 0x00;
+
+    private ResultETag() {
+    }
+
+    static String of(List<AnilistResult> results) {
+        MessageDigest digest = sha256();
+        update(digest, results == null ? 0 : results.size());
+        if (results != null) {
+            for (AnilistResult result : results) {
+                update(digest, result);
+            }
+        }
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    // If-None-Match uses weak comparison and may list several tags or "*"
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (opaque(tag).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static void update(MessageDigest digest, AnilistResult result) {
+        update(digest, result.getId());
+        update(digest, result.getType());
+        AnilistResult.Title title = result.getTitle();
+        update(digest, title != null ? title.getRomaji() : null);
+        update(digest, title != null ? title.getEnglish() : null);
+        update(digest, title != null ? title.getNativeTitle() : null);
+        update(digest, result.getDescription());
+        update(digest, result.getFormat());
+        update(digest, result.getEpisodes());
+        update(digest, result.getChapters());
+        update(digest, result.getVolumes());
+        update(digest, result.getAverageScore());
+        AnilistResult.NextAiringEpisode next = result.getNextAiringEpisode();
+        update(digest, next != null ? next.getEpisode() : null);
+        update(digest, next != null ? next.getAiringAt() : null);
+        update(digest, result.getDay());
+        update(digest, result.getMonth());
+        update(digest, result.getYear());
+        update(digest, result.getCoverImageUrl());
+        update(digest, result.getStatus());
+        update(digest, result.getGenres());
+        update(digest, result.getStudios());
+        update(digest, result.getSynonyms());
+        update(digest, result.isAdult() ? 1 : 0);
+        update(digest, result.getPopularity());
+        update(digest, result.getTrending());
+        update(digest, result.getUpdatedAt());
+        update(digest, result.getIdMal());
+    }
+
+    private static void update(MessageDigest digest, List<String> values) {
+        update(digest, values.size());
+        for (String value : values) {
+            update(digest, value);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(NULL);
+        } else {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(SEPARATOR);
+    }
+
+    private static void update(MessageDigest digest, Number value) {
+        update(digest, value != null ? value.toString() : null);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
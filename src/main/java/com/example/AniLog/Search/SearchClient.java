@@ -1,61 +1,251 @@
 package com.example.AniLog.Search;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Profile.ErrorResponse;
 
 @RestController
 @RequestMapping("/api/search")
 
 public class SearchClient {
     private final SearchInterface searchService;
+    private final DiscoveryCache discoveryCache;
+    private final EncodedResponseCache encodedResponseCache;
+    // Default field projection per endpoint group, overridable with ?projection=summary|detail
+    private final MediaProjection searchProjection;
+    private final MediaProjection discoveryProjection;
+    private final MediaProjection batchProjection;
 
-    public SearchClient(SearchInterface searchService) {
+    private static final int MAX_BATCH_IDS = 500;
+    // AniList caps perPage at 50
+    private static final int MAX_PER_PAGE = 50;
+    private static final int MAX_PAGES = 5;
+    // Discovery lists change a few times an hour; a title changes rarely. Clients
+    // revalidate with If-None-Match once max-age has passed.
+    private static final CacheControl DISCOVERY_CACHE = CacheControl.maxAge(Duration.ofMinutes(5))
+        .cachePublic()
+        .staleWhileRevalidate(Duration.ofHours(1));
+    private static final CacheControl TITLE_CACHE = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    public SearchClient(
+            SearchInterface searchService,
+            DiscoveryCache discoveryCache,
+            EncodedResponseCache encodedResponseCache,
+            @Value("${anilist.projection.search:detail}") String searchProjection,
+            @Value("${anilist.projection.discovery:detail}") String discoveryProjection,
+            @Value("${anilist.projection.batch:detail}") String batchProjection) {
         this.searchService = searchService;
+        this.discoveryCache = discoveryCache;
+        this.encodedResponseCache = encodedResponseCache;
+        this.searchProjection = MediaProjection.parse(searchProjection, MediaProjection.DETAIL);
+        this.discoveryProjection = MediaProjection.parse(discoveryProjection, MediaProjection.DETAIL);
+        this.batchProjection = MediaProjection.parse(batchProjection, MediaProjection.DETAIL);
     }
 
+    // Handlers return futures so the servlet thread is released while AniList responds
+    // Paged when any of page/perPage/pages/cursor is set; X-Next-Cursor is returned when
+    // more pages follow the last one requested
     @PostMapping
-    public List<AnilistResult> search(@RequestBody SearchRequest request) {
-         return searchService.searchAniList(
+    public CompletableFuture<ResponseEntity<?>> search(
+            @RequestBody SearchRequest request,
+            @RequestParam(required = false) String projection) {
+        MediaProjection fields = MediaProjection.parse(projection, searchProjection);
+        if (!request.isPaged()) {
+            return searchService.searchAniListAsync(
+                request.getQuery(),
+                request.getType(),
+                request.getFormat(),
+                request.getStatus(),
+                request.isAdult(),
+                request.getGenres(),
+                request.getSortBy(),
+                fields
+            ).thenApply(results -> ResponseEntity.ok().body(results));
+        }
+
+        int page = request.getPage() != null ? request.getPage() : 1;
+        int perPage = request.getPerPage() != null ? request.getPerPage() : MAX_PER_PAGE;
+        int pages = request.getPages() != null ? request.getPages() : 1;
+        if (request.getCursor() != null) {
+            SearchCursor cursor = SearchCursor.decode(request.getCursor());
+            if (cursor == null) {
+                return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(new ErrorResponse("Invalid cursor")));
+            }
+            page = cursor.getPage();
+            perPage = cursor.getPerPage();
+        }
+        if (page < 1 || perPage < 1 || perPage > MAX_PER_PAGE || pages < 1 || pages > MAX_PAGES) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(new ErrorResponse(
+                    "page must be at least 1, perPage between 1 and " + MAX_PER_PAGE
+                        + ", pages between 1 and " + MAX_PAGES)));
+        }
+
+        int firstPage = page;
+        int pageSize = perPage;
+        int pageCount = pages;
+        return searchService.searchAniListAsync(
             request.getQuery(),
             request.getType(),
             request.getFormat(),
             request.getStatus(),
             request.isAdult(),
             request.getGenres(),
-            request.getSortBy()
-        );
+            request.getSortBy(),
+            firstPage,
+            pageSize,
+            pageCount,
+            fields
+        ).thenApply(result -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (result.hasNextPage()) {
+                response.header("X-Next-Cursor", new SearchCursor(firstPage + pageCount, pageSize).encode());
+            }
+            return response.body(result.getResults());
+        });
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> searchByIds(
+            @RequestBody BatchRequest request,
+            @RequestParam(required = false) String projection) {
+        if (request == null || request.getIds() == null || request.getIds().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(new ErrorResponse("At least one id is required")));
+        }
+        if (request.getIds().size() > MAX_BATCH_IDS) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(new ErrorResponse("At most " + MAX_BATCH_IDS + " ids can be requested at once")));
+        }
+        return searchService.searchAniListByIdsAsync(request.getIds(), MediaProjection.parse(projection, batchProjection))
+            .thenApply(results -> ResponseEntity.ok().body(results));
     }
 
     @GetMapping("/{id}")
-    public List<AnilistResult> searchById(@PathVariable int id) {
-        return searchService.searchAniListById(id);
+    public CompletableFuture<ResponseEntity<List<AnilistResult>>> searchById(
+            @PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(searchService.searchAniListByIdAsync(id), ifNoneMatch, TITLE_CACHE);
     }
 
     @GetMapping("/trending/{type}")
-    public List<AnilistResult> getTrending(@PathVariable String type) {
-        return searchService.getTrendingAniList(type);
+    public CompletableFuture<ResponseEntity<byte[]>> getTrending(
+            @PathVariable String type,
+            @RequestParam(required = false) String projection,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(
+            searchService.getTrendingAniListAsync(type, MediaProjection.parse(projection, discoveryProjection)),
+            ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/popular/{type}")
-    public List<AnilistResult> getPopular(@PathVariable String type) {
-        return searchService.getPopularAniList(type);
+    public CompletableFuture<ResponseEntity<byte[]>> getPopular(
+            @PathVariable String type,
+            @RequestParam(required = false) String projection,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(
+            searchService.getPopularAniListAsync(type, MediaProjection.parse(projection, discoveryProjection)),
+            ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/new/{type}")
-    public List<AnilistResult> getNew(@PathVariable String type) {
-        return searchService.getNewAniList(type);
+    public CompletableFuture<ResponseEntity<byte[]>> getNew(
+            @PathVariable String type,
+            @RequestParam(required = false) String projection,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(
+            searchService.getNewAniListAsync(type, MediaProjection.parse(projection, discoveryProjection)),
+            ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/comingsoon/{type}")
-    public List<AnilistResult> getComingSoon(@PathVariable String type) {
-        return searchService.getComingSoonAniList(type);
+    public CompletableFuture<ResponseEntity<byte[]>> getComingSoon(
+            @PathVariable String type,
+            @RequestParam(required = false) String projection,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(
+            searchService.getComingSoonAniListAsync(type, MediaProjection.parse(projection, discoveryProjection)),
+            ifNoneMatch, acceptEncoding);
+    }
+
+    // A matching validator is answered with 304 before anything is serialised
+    private CompletableFuture<ResponseEntity<List<AnilistResult>>> conditional(
+            CompletableFuture<List<AnilistResult>> results,
+            String ifNoneMatch,
+            CacheControl cacheControl) {
+        return results.thenApply(list -> {
+            String etag = discoveryCache.etag(list);
+            if (ResultETag.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(list);
+        });
+    }
+
+    // Discovery bodies come pre-encoded from the EncodedResponseCache and are written as
+    // bytes, so cache hits skip Jackson. The gzip variant gets its own validator.
+    private CompletableFuture<ResponseEntity<byte[]>> encoded(
+            CompletableFuture<List<AnilistResult>> results,
+            String ifNoneMatch,
+            String acceptEncoding) {
+        return results.thenApply(list -> {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            String listEtag = discoveryCache.etag(list);
+            String etag = gzip ? listEtag.substring(0, listEtag.length() - 1) + "-gzip\"" : listEtag;
+            if (ResultETag.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(DISCOVERY_CACHE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+            }
+
+            EncodedResponseCache.Encoded body = encodedResponseCache.get(listEtag, list);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(DISCOVERY_CACHE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? body.getGzip() : body.getJson());
+        });
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"));
+            }
+        }
+        return false;
     }
 
     // @GetMapping("/genre/{genre}/{type}")
@@ -63,6 +253,13 @@ public class SearchClient {
     //     return searchService.getGenreAniList(type, genre);
     // }
 
+    public static class BatchRequest {
+        private List<Integer> ids;
+
+        public List<Integer> getIds() { return ids; }
+        public void setIds(List<Integer> ids) { this.ids = ids; }
+    }
+
     public static class SearchRequest {
         private String query;
         private String type;
@@ -72,6 +269,14 @@ public class SearchClient {
         private List<Integer> averageScore;
         private List<String> genres;
         private String sortBy;
+        private Integer page;
+        private Integer perPage;
+        private Integer pages;
+        private String cursor;
+
+        public boolean isPaged() {
+            return page != null || perPage != null || pages != null || cursor != null;
+        }
 
         public String getQuery() { return query; }
         public void setQuery(String query) { this.query = query; }
@@ -96,5 +301,17 @@ public class SearchClient {
 
         public String getSortBy() { return sortBy; }
         public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+
+        public Integer getPage() { return page; }
+        public void setPage(Integer page) { this.page = page; }
+
+        public Integer getPerPage() { return perPage; }
+        public void setPerPage(Integer perPage) { this.perPage = perPage; }
+
+        public Integer getPages() { return pages; }
+        public void setPages(Integer pages) { this.pages = pages; }
+
+        public String getCursor() { return cursor; }
+        public void setCursor(String cursor) { this.cursor = cursor; }
     }
 }
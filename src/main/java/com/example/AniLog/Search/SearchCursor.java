@@ -0,0 +1,42 @@
+package com.example.AniLog.Search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation token for paged searches, handed out in X-Next-Cursor
+public class SearchCursor {
+    private final int page;
+    private final int perPage;
+
+    public SearchCursor(int page, int perPage) {
+        this.page = page;
+        this.perPage = perPage;
+    }
+
+    public String encode() {
+        String raw = page + ":" + perPage;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null when the token is malformed
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                return null;
+            }
+            return new SearchCursor(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPerPage() {
+        return perPage;
+    }
+}
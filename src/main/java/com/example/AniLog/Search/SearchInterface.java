@@ -1,5 +1,7 @@
 package com.example.AniLog.Search;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.example.AniLog.Anilist.AnilistResult;
 
@@ -13,15 +15,72 @@ public interface SearchInterface {
         List<String> genres, 
         String sortBy);
 
+    CompletableFuture<List<AnilistResult>> searchAniListAsync(
+        String query,
+        String type,
+        List<String> format,
+        List<String> status,
+        boolean isAdult,
+        List<String> genres,
+        String sortBy);
+
+    CompletableFuture<List<AnilistResult>> searchAniListAsync(
+        String query,
+        String type,
+        List<String> format,
+        List<String> status,
+        boolean isAdult,
+        List<String> genres,
+        String sortBy,
+        MediaProjection projection);
+
+    // Fetches `pages` consecutive pages starting at `page` concurrently and merges them in order
+    CompletableFuture<SearchPage> searchAniListAsync(
+        String query,
+        String type,
+        List<String> format,
+        List<String> status,
+        boolean isAdult,
+        List<String> genres,
+        String sortBy,
+        int page,
+        int perPage,
+        int pages,
+        MediaProjection projection);
+
     List<AnilistResult> searchAniListById(int id);
 
+    CompletableFuture<List<AnilistResult>> searchAniListByIdAsync(int id);
+
+    List<AnilistResult> searchAniListByIds(Collection<Integer> ids);
+
+    CompletableFuture<List<AnilistResult>> searchAniListByIdsAsync(Collection<Integer> ids);
+
+    CompletableFuture<List<AnilistResult>> searchAniListByIdsAsync(Collection<Integer> ids, MediaProjection projection);
+
     List<AnilistResult> getTrendingAniList(String type);
 
+    CompletableFuture<List<AnilistResult>> getTrendingAniListAsync(String type);
+
+    CompletableFuture<List<AnilistResult>> getTrendingAniListAsync(String type, MediaProjection projection);
+
     List<AnilistResult> getPopularAniList(String type);
 
+    CompletableFuture<List<AnilistResult>> getPopularAniListAsync(String type);
+
+    CompletableFuture<List<AnilistResult>> getPopularAniListAsync(String type, MediaProjection projection);
+
     List<AnilistResult> getNewAniList(String type);
 
+    CompletableFuture<List<AnilistResult>> getNewAniListAsync(String type);
+
+    CompletableFuture<List<AnilistResult>> getNewAniListAsync(String type, MediaProjection projection);
+
     // List<AnilistResult> getGenreAniList(String type, String genre);
 
     List<AnilistResult> getComingSoonAniList(String type);
-}
\ No newline at end of file
+
+    CompletableFuture<List<AnilistResult>> getComingSoonAniListAsync(String type);
+
+    CompletableFuture<List<AnilistResult>> getComingSoonAniListAsync(String type, MediaProjection projection);
+}
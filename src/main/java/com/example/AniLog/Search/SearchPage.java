@@ -0,0 +1,25 @@
+package com.example.AniLog.Search;
+
+import java.util.List;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+// Merged results of a paged search. Whether more pages follow is decided before
+// duplicates across pages are dropped, so it cannot be read off the merged size.
+public class SearchPage {
+    private final List<AnilistResult> results;
+    private final boolean hasNextPage;
+
+    public SearchPage(List<AnilistResult> results, boolean hasNextPage) {
+        this.results = results;
+        this.hasNextPage = hasNextPage;
+    }
+
+    public List<AnilistResult> getResults() {
+        return results;
+    }
+
+    public boolean hasNextPage() {
+        return hasNextPage;
+    }
+}
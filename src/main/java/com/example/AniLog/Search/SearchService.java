@@ -1,25 +1,151 @@
 package com.example.AniLog.Search;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistPage;
 import com.example.AniLog.Anilist.AnilistResult;
 
 @Service
 public class SearchService implements SearchInterface {
+    // Operations spread "...%s", filled with a MediaProjection fragment
+    private static final String SEARCH_QUERY = """
+            query (
+                    $search: String, 
+                    $page: Int, 
+                    $perPage: Int,
+                    $type: MediaType,
+                    $format: [MediaFormat],
+                    $statusIn: [MediaStatus],
+                    $isAdult: Boolean,
+                    $genres: [String],
+                    $sortBy: [MediaSort]
+                ) {
+                    Page(page: $page, perPage: $perPage) {
+                        pageInfo {
+                            total
+                            currentPage
+                            lastPage
+                            hasNextPage
+                        }
+                        media(
+                            search: $search,
+                            type: $type,
+                            format_in: $format,
+                            status_in: $statusIn,
+                            isAdult: $isAdult,
+                            genre_in: $genres,
+                            genre_not_in: ["Hentai"],
+                            sort: $sortBy
+                        ) {
+                            ...%s
+                        }
+                    }
+                }
+            """;
+
+    private static final String BY_ID_QUERY = """
+            query ($id: Int) {
+                Page {
+                    media(id: $id) {
+                        ...%s
+                    }
+                }
+            }
+            """;
+
+    private static final String BY_IDS_QUERY = """
+            query ($ids: [Int], $perPage: Int) {
+                Page(page: 1, perPage: $perPage) {
+                    media(id_in: $ids) {
+                        ...%s
+                    }
+                }
+            }
+            """;
+
+    // AniList caps perPage at 50
+    static final int MAX_IDS_PER_QUERY = 50;
+
+    private static final String TRENDING_QUERY = """
+            query ($type: MediaType) {
+                Page (page: 1, perPage: 20) {
+                    media(sort: TRENDING_DESC, type: $type, genre_not_in: ["Hentai"]) {
+                        ...%s
+                    }
+                }
+            }
+            """;
+
+    private static final String POPULAR_QUERY = """
+            query ($type: MediaType) {
+                Page (page: 1, perPage: 20) {
+                    media(sort: POPULARITY_DESC, type: $type, genre_not_in: ["Hentai"]) {
+                        ...%s
+                    }
+                }
+            }
+            """;
+
+    private static final String NEW_QUERY = """
+            query ($type: MediaType, $startDate: FuzzyDateInt, $endDate: FuzzyDateInt) {
+                Page (page: 1, perPage: 20) {
+                    media(
+                        sort: POPULARITY_DESC, 
+                        type: $type, 
+                        startDate_greater: $startDate, 
+                        startDate_lesser: $endDate, 
+                        status_not_in: [NOT_YET_RELEASED, CANCELLED, HIATUS], 
+                        genre_not_in: ["Hentai"]
+                    ) {
+                        ...%s
+                    }
+                }
+            }
+            """;
+
+    private static final String COMING_SOON_QUERY = """
+            query ($type: MediaType, $startDate: FuzzyDateInt, $endDate: FuzzyDateInt) {
+                Page (page: 1, perPage: 20) {
+                    media(
+                        sort: [POPULARITY_DESC, START_DATE], 
+                        type: $type, status: NOT_YET_RELEASED, 
+                        startDate_greater: $startDate, 
+                        startDate_lesser: $endDate,
+                        genre_not_in: ["Hentai"]
+                        ) {
+                            ...%s
+                    }
+                }
+            }
+            """;
+
     private final AniListClient aniListClient;
+    private final DiscoveryCache discoveryCache;
 
     public SearchService(AniListClient aniListClient) {
+        this(aniListClient, DiscoveryCache.withDefaults());
+    }
+
+    @Autowired
+    public SearchService(AniListClient aniListClient, DiscoveryCache discoveryCache) {
         this.aniListClient = aniListClient;
+        this.discoveryCache = discoveryCache;
     }
 
     @Override
-        public List<AnilistResult> searchAniList(
+    public List<AnilistResult> searchAniList(
             String query,
             String type,
             List<String> format,
@@ -27,297 +153,180 @@ public class SearchService implements SearchInterface {
             boolean isAdult,
             List<String> genres,
             String sortBy) {
-            String gql = """
-                        query (
-                                $search: String, 
-                                $page: Int, 
-                                $perPage: Int,
-                                $type: MediaType,
-                                $format: [MediaFormat],
-                                $statusIn: [MediaStatus],
-                                $isAdult: Boolean,
-                                $genres: [String],
-                                $sortBy: [MediaSort]
-                            ) {
-                                Page(page: $page, perPage: $perPage) {
-                                    pageInfo {
-                                        total
-                                        currentPage
-                                        lastPage
-                                        hasNextPage
-                                    }
-                                    media(
-                                        search: $search,
-                                        type: $type,
-                                        format_in: $format,
-                                        status_in: $statusIn,
-                                        isAdult: $isAdult,
-                                        genre_in: $genres,
-                                        genre_not_in: ["Hentai"],
-                                        sort: $sortBy
-                                    ) {
-                                        id
-                                        type
-                                        title {
-                                            romaji
-                                            english
-                                            native
-                                        }
-                                        description
-                                        format
-                                        episodes
-                                        chapters
-                                        volumes
-                                        averageScore
-                                        nextAiringEpisode {
-                                            episode
-                                            timeUntilAiring
-                                        }
-                                        startDate {
-                                            year
-                                        }
-                                        coverImage {
-                                            extraLarge
-                                        }
-                                        status
-                                        genres
-                                        streamingEpisodes {
-                                            site
-                                            thumbnail
-                                            title
-                                            url
-                                        }
-                                        studios {
-                                            nodes {
-                                                name
-                                            }
-                                        }
-                                        synonyms
-                                        trailer {
-                                            site
-                                            thumbnail
-                                        }
-                                        isAdult
-                                    }
-                                }
-                            }
-                        """;
+        return aniListClient.executeQuery(
+                MediaProjection.DETAIL.document(SEARCH_QUERY),
+                searchVariables(query, type, format, status, isAdult, genres, sortBy));
+    }
 
-        Map<String, Object> variables = new HashMap<>();
-        if (query != null && !query.isEmpty()) variables.put("search", query);
-        if (type != null && !type.isEmpty() && !type.equals("Any")) variables.put("type", type);
-        if (format != null && !format.isEmpty()) variables.put("format", format);
-        if (status != null && !status.isEmpty()) variables.put("statusIn", status);
-        // if (!isAdult) variables.put("isAdult", isAdult);
-        if (genres != null && !genres.isEmpty()) variables.put("genres", genres);
-        if (sortBy != null && !sortBy.isEmpty()) variables.put("sortBy", List.of(sortBy));
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListAsync(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy) {
+        return searchAniListAsync(query, type, format, status, isAdult, genres, sortBy, MediaProjection.DETAIL);
+    }
 
-        return aniListClient.executeQuery(gql, variables);
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListAsync(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy,
+            MediaProjection projection) {
+        return aniListClient.executeQueryAsync(
+                projection.document(SEARCH_QUERY),
+                searchVariables(query, type, format, status, isAdult, genres, sortBy));
+    }
+
+    @Override
+    public CompletableFuture<SearchPage> searchAniListAsync(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy,
+            int page,
+            int perPage,
+            int pages,
+            MediaProjection projection) {
+        String document = projection.document(SEARCH_QUERY);
+        List<CompletableFuture<List<AnilistResult>>> pageFutures = new ArrayList<>();
+        for (int i = 0; i < pages; i++) {
+            Map<String, Object> variables = searchVariables(query, type, format, status, isAdult, genres, sortBy);
+            variables.put("page", page + i);
+            variables.put("perPage", perPage);
+            pageFutures.add(aniListClient.executeQueryAsync(document, variables));
+        }
+
+        return CompletableFuture.allOf(pageFutures.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            // Rankings can shift between page requests, so an entry may show up twice
+            Map<Integer, AnilistResult> merged = new LinkedHashMap<>();
+            for (CompletableFuture<List<AnilistResult>> pageFuture : pageFutures) {
+                for (AnilistResult result : pageFuture.join()) {
+                    merged.putIfAbsent(result.getId(), result);
+                }
+            }
+            // AniList's own pageInfo for the last page, unaffected by the duplicates dropped above
+            boolean hasNextPage = AnilistPage.hasNextPage(pageFutures.get(pageFutures.size() - 1).join());
+            return new SearchPage(new ArrayList<>(merged.values()), hasNextPage);
+        });
     }
 
     @Override
     public List<AnilistResult> searchAniListById(int id) {
-        String gql = """
-                    query ($id: Int) {
-                        Page {
-                            media(id: $id) {
-                                id
-                                type
-                                title {
-                                    romaji
-                                    english
-                                    native
-                                }
-                                description
-                                format
-                                episodes
-                                chapters
-                                volumes
-                                averageScore
-                                nextAiringEpisode {
-                                    episode
-                                    timeUntilAiring
-                                }
-                                startDate {
-                                    year
-                                }
-                                coverImage {
-                                    extraLarge
-                                }
-                                status
-                                genres
-                                studios {
-                                    nodes {
-                                        name
-                                    }
-                                }
-                                synonyms
-                                isAdult
-                            }
-                        }
-                    }
-                    """;
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("id", id);
+        return aniListClient.executeQuery(MediaProjection.DETAIL.document(BY_ID_QUERY), idVariables(id));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListByIdAsync(int id) {
+        return aniListClient.executeQueryAsync(MediaProjection.DETAIL.document(BY_ID_QUERY), idVariables(id));
+    }
+
+    @Override
+    public List<AnilistResult> searchAniListByIds(Collection<Integer> ids) {
+        return searchAniListByIdsAsync(ids).join();
+    }
 
-        return aniListClient.executeQuery(gql, variables);
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListByIdsAsync(Collection<Integer> ids) {
+        return searchAniListByIdsAsync(ids, MediaProjection.DETAIL);
+    }
+
+    // Resolves many ids with one id_in query per 50 ids, run concurrently, and returns
+    // the results in the order the ids were given (duplicates and unknown ids dropped)
+    @Override
+    public CompletableFuture<List<AnilistResult>> searchAniListByIdsAsync(
+            Collection<Integer> ids,
+            MediaProjection projection) {
+        List<Integer> distinctIds = ids == null ? List.of() : ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (distinctIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        String document = projection.document(BY_IDS_QUERY);
+        List<CompletableFuture<List<AnilistResult>>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinctIds.size(); start += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = distinctIds.subList(start, Math.min(start + MAX_IDS_PER_QUERY, distinctIds.size()));
+            chunks.add(aniListClient.executeQueryAsync(document, idsVariables(chunk)));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<Integer, AnilistResult> byId = new HashMap<>();
+            for (CompletableFuture<List<AnilistResult>> chunk : chunks) {
+                for (AnilistResult result : chunk.join()) {
+                    byId.put(result.getId(), result);
+                }
+            }
+            List<AnilistResult> ordered = new ArrayList<>(distinctIds.size());
+            for (Integer id : distinctIds) {
+                AnilistResult result = byId.get(id);
+                if (result != null) ordered.add(result);
+            }
+            return ordered;
+        });
     }
 
     @Override
     public List<AnilistResult> getTrendingAniList(String type) {
-        String gql = """
-                    query ($type: MediaType) {
-                        Page (page: 1, perPage: 20) {
-                            media(sort: TRENDING_DESC, type: $type, genre_not_in: ["Hentai"]) {
-                                id
-                                type
-                                title {
-                                    romaji
-                                    english
-                                    native
-                                }
-                                description
-                                format
-                                episodes
-                                chapters
-                                volumes
-                                averageScore
-                                nextAiringEpisode {
-                                    episode
-                                    timeUntilAiring
-                                }
-                                startDate {
-                                    year
-                                }
-                                coverImage {
-                                    extraLarge
-                                }
-                                status
-                                genres
-                                studios {
-                                    nodes {
-                                        name
-                                    }
-                                }
-                                synonyms
-                                isAdult
-                            }
-                        }
-                    }
-                    """;
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("type", type);
+        return discoveryCache.get(DiscoveryCache.Endpoint.TRENDING, type,
+                () -> aniListClient.executeQuery(MediaProjection.DETAIL.document(TRENDING_QUERY), typeVariables(type)));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getTrendingAniListAsync(String type) {
+        return getTrendingAniListAsync(type, MediaProjection.DETAIL);
+    }
 
-        return aniListClient.executeQuery(gql, variables);
+    @Override
+    public CompletableFuture<List<AnilistResult>> getTrendingAniListAsync(String type, MediaProjection projection) {
+        return discoveryCache.getAsync(DiscoveryCache.Endpoint.TRENDING, type, projection,
+                () -> aniListClient.executeQueryAsync(projection.document(TRENDING_QUERY), typeVariables(type)));
     }
 
     @Override
     public List<AnilistResult> getPopularAniList(String type) {
-        String gql = """
-                    query ($type: MediaType) {
-                        Page (page: 1, perPage: 20) {
-                            media(sort: POPULARITY_DESC, type: $type, genre_not_in: ["Hentai"]) {
-                                id
-                                type
-                                title {
-                                    romaji
-                                    english
-                                    native
-                                }
-                                description
-                                format
-                                episodes
-                                chapters
-                                volumes
-                                averageScore
-                                nextAiringEpisode {
-                                    episode
-                                    timeUntilAiring
-                                }
-                                startDate {
-                                    year
-                                }
-                                coverImage {
-                                    extraLarge
-                                }
-                                status
-                                genres
-                                studios {
-                                    nodes {
-                                        name
-                                    }
-                                }
-                                synonyms
-                                isAdult
-                            }
-                        }
-                    }
-                    """;
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("type", type);
+        return discoveryCache.get(DiscoveryCache.Endpoint.POPULAR, type,
+                () -> aniListClient.executeQuery(MediaProjection.DETAIL.document(POPULAR_QUERY), typeVariables(type)));
+    }
 
-        return aniListClient.executeQuery(gql, variables);
+    @Override
+    public CompletableFuture<List<AnilistResult>> getPopularAniListAsync(String type) {
+        return getPopularAniListAsync(type, MediaProjection.DETAIL);
     }
 
     @Override
-    public List<AnilistResult> getNewAniList(String type) {
-        String gql = """
-                    query ($type: MediaType, $startDate: FuzzyDateInt, $endDate: FuzzyDateInt) {
-                        Page (page: 1, perPage: 20) {
-                            media(
-                                sort: POPULARITY_DESC, 
-                                type: $type, 
-                                startDate_greater: $startDate, 
-                                startDate_lesser: $endDate, 
-                                status_not_in: [NOT_YET_RELEASED, CANCELLED, HIATUS], 
-                                genre_not_in: ["Hentai"]
-                            ) {
-                                id
-                                type
-                                title {
-                                    romaji
-                                    english
-                                    native
-                                }
-                                description
-                                format
-                                episodes
-                                chapters
-                                volumes
-                                averageScore
-                                nextAiringEpisode {
-                                    episode
-                                    timeUntilAiring
-                                }
-                                startDate {
-                                    year
-                                }
-                                coverImage {
-                                    extraLarge
-                                }
-                                status
-                                genres
-                                studios {
-                                    nodes {
-                                        name
-                                    }
-                                }
-                                synonyms
-                                isAdult
-                            }
-                        }
-                    }
-                    """;
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("type", type);
+    public CompletableFuture<List<AnilistResult>> getPopularAniListAsync(String type, MediaProjection projection) {
+        return discoveryCache.getAsync(DiscoveryCache.Endpoint.POPULAR, type, projection,
+                () -> aniListClient.executeQueryAsync(projection.document(POPULAR_QUERY), typeVariables(type)));
+    }
 
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minus(1, ChronoUnit.MONTHS);
+    @Override
+    public List<AnilistResult> getNewAniList(String type) {
+        return discoveryCache.get(DiscoveryCache.Endpoint.NEW, type,
+                () -> aniListClient.executeQuery(MediaProjection.DETAIL.document(NEW_QUERY), newVariables(type)));
+    }
 
-        variables.put("startDate", Integer.parseInt(startDate.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)));
-        variables.put("endDate", Integer.parseInt(endDate.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)));
+    @Override
+    public CompletableFuture<List<AnilistResult>> getNewAniListAsync(String type) {
+        return getNewAniListAsync(type, MediaProjection.DETAIL);
+    }
 
-        return aniListClient.executeQuery(gql, variables);
+    @Override
+    public CompletableFuture<List<AnilistResult>> getNewAniListAsync(String type, MediaProjection projection) {
+        return discoveryCache.getAsync(DiscoveryCache.Endpoint.NEW, type, projection,
+                () -> aniListClient.executeQueryAsync(projection.document(NEW_QUERY), newVariables(type)));
     }
 
     // @Override
@@ -371,59 +380,74 @@ public class SearchService implements SearchInterface {
 
     @Override
     public List<AnilistResult> getComingSoonAniList(String type) {
-        String gql = """
-                    query ($type: MediaType, $startDate: FuzzyDateInt, $endDate: FuzzyDateInt) {
-                        Page (page: 1, perPage: 20) {
-                            media(
-                                sort: [POPULARITY_DESC, START_DATE], 
-                                type: $type, status: NOT_YET_RELEASED, 
-                                startDate_greater: $startDate, 
-                                startDate_lesser: $endDate,
-                                genre_not_in: ["Hentai"]
-                                ) {
-                                    id
-                                    type
-                                    title {
-                                        romaji
-                                        english
-                                        native
-                                    }
-                                    description
-                                    format
-                                    episodes
-                                    chapters
-                                    volumes
-                                    averageScore
-                                    nextAiringEpisode {
-                                        episode
-                                        timeUntilAiring
-                                    }
-                                    startDate {
-                                        day
-                                        month
-                                        year
-                                    }
-                                    coverImage {
-                                        extraLarge
-                                    }
-                                    status
-                                    genres
-                                    studios {
-                                        nodes {
-                                            name
-                                        }
-                                    }
-                                    synonyms
-                                    isAdult
-                            }
-                        }
-                    }
-                    """;
+        return discoveryCache.get(DiscoveryCache.Endpoint.COMING_SOON, type,
+                () -> aniListClient.executeQuery(MediaProjection.DETAIL.document(COMING_SOON_QUERY), comingSoonVariables(type)));
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getComingSoonAniListAsync(String type) {
+        return getComingSoonAniListAsync(type, MediaProjection.DETAIL);
+    }
+
+    @Override
+    public CompletableFuture<List<AnilistResult>> getComingSoonAniListAsync(String type, MediaProjection projection) {
+        return discoveryCache.getAsync(DiscoveryCache.Endpoint.COMING_SOON, type, projection,
+                () -> aniListClient.executeQueryAsync(projection.document(COMING_SOON_QUERY), comingSoonVariables(type)));
+    }
+
+    private Map<String, Object> searchVariables(
+            String query,
+            String type,
+            List<String> format,
+            List<String> status,
+            boolean isAdult,
+            List<String> genres,
+            String sortBy) {
+        Map<String, Object> variables = new HashMap<>();
+        if (query != null && !query.isEmpty()) variables.put("search", query);
+        if (type != null && !type.isEmpty() && !type.equals("Any")) variables.put("type", type);
+        if (format != null && !format.isEmpty()) variables.put("format", format);
+        if (status != null && !status.isEmpty()) variables.put("statusIn", status);
+        // if (!isAdult) variables.put("isAdult", isAdult);
+        if (genres != null && !genres.isEmpty()) variables.put("genres", genres);
+        if (sortBy != null && !sortBy.isEmpty()) variables.put("sortBy", List.of(sortBy));
+        return variables;
+    }
+
+    private Map<String, Object> idVariables(int id) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("id", id);
+        return variables;
+    }
+
+    private Map<String, Object> idsVariables(List<Integer> ids) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("ids", ids);
+        variables.put("perPage", MAX_IDS_PER_QUERY);
+        return variables;
+    }
+
+    private Map<String, Object> typeVariables(String type) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("type", type);
+        return variables;
+    }
+
+    private Map<String, Object> newVariables(String type) {
+        Map<String, Object> variables = typeVariables(type);
+
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minus(1, ChronoUnit.MONTHS);
+
+        variables.put("startDate", Integer.parseInt(startDate.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)));
+        variables.put("endDate", Integer.parseInt(endDate.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)));
+        return variables;
+    }
+
+    private Map<String, Object> comingSoonVariables(String type) {
+        Map<String, Object> variables = typeVariables(type);
         variables.put("startDate", Integer.parseInt(LocalDate.now().format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)));
         variables.put("endDate", Integer.parseInt(LocalDate.now().plusMonths(2).format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)));
-
-        return aniListClient.executeQuery(gql, variables);
+        return variables;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+-- Indexes for the per-user tables, matching the repository finders. Existing
+-- databases are baselined at version 0, so this runs against tables Hibernate
+-- already created; on an empty database it creates them first (Flyway runs before
+-- Hibernate's ddl-auto, which still manages the remaining tables and columns).
+
+CREATE TABLE IF NOT EXISTS watched_items (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT        NOT NULL,
+    title            VARCHAR(255)  NOT NULL,
+    type             VARCHAR(255)  NOT NULL,
+    cover_image_url  VARCHAR(255),
+    watched_date     TIMESTAMP(6)  NOT NULL,
+    completed_date   TIMESTAMP(6),
+    anilist_id       INTEGER,
+    episodes_watched INTEGER,
+    total_episodes   INTEGER,
+    chapters_read    INTEGER,
+    total_chapters   INTEGER,
+    status           VARCHAR(255),
+    rating           FLOAT(53),
+    notes            VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS user_list_item (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         BIGINT        NOT NULL,
+    title           VARCHAR(255)  NOT NULL,
+    type            VARCHAR(255)  NOT NULL,
+    cover_image_url VARCHAR(255),
+    added_date      TIMESTAMP(6)  NOT NULL,
+    anilist_id      INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS follow (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    follower_id BIGINT       NOT NULL,
+    followee_id BIGINT       NOT NULL,
+    status      VARCHAR(255) NOT NULL
+);
+
+-- The unique indexes below cannot be built over duplicates, so duplicate rows are
+-- merged into the oldest row of each key, never just dropped. Progress counters and
+-- dates keep the highest value and the other columns the newest non-null one. A
+-- rating or note that differs between duplicates cannot be merged without losing
+-- one, so the migration stops instead and names the rows to resolve by hand.
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(format('user %s, anilist_id %s (ids %s)', user_id, anilist_id, ids), '; ')
+      INTO conflicts
+      FROM (
+        SELECT user_id, anilist_id, string_agg(id::TEXT, ', ' ORDER BY id) AS ids
+          FROM watched_items
+         WHERE anilist_id IS NOT NULL
+         GROUP BY user_id, anilist_id
+        HAVING COUNT(*) > 1
+           AND (COUNT(DISTINCT rating) > 1 OR COUNT(DISTINCT notes) > 1)
+      ) conflicting;
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Duplicate watched_items rows disagree on rating or notes, resolve them and rerun: %',
+            conflicts;
+    END IF;
+END
+$$;
+
+WITH duplicate AS (
+    SELECT user_id, anilist_id, MIN(id) AS keep_id
+      FROM watched_items
+     WHERE anilist_id IS NOT NULL
+     GROUP BY user_id, anilist_id
+    HAVING COUNT(*) > 1
+), merged AS (
+    SELECT d.keep_id,
+           MAX(w.watched_date) AS watched_date,
+           MAX(w.completed_date) AS completed_date,
+           MAX(w.episodes_watched) AS episodes_watched,
+           MAX(w.chapters_read) AS chapters_read,
+           -- At most one distinct value each, checked above
+           MAX(w.rating) AS rating,
+           MAX(w.notes) AS notes,
+           (array_agg(w.status ORDER BY w.id DESC) FILTER (WHERE w.status IS NOT NULL))[1] AS status,
+           (array_agg(w.cover_image_url ORDER BY w.id DESC) FILTER (WHERE w.cover_image_url IS NOT NULL))[1]
+               AS cover_image_url,
+           (array_agg(w.total_episodes ORDER BY w.id DESC) FILTER (WHERE w.total_episodes IS NOT NULL))[1]
+               AS total_episodes,
+           (array_agg(w.total_chapters ORDER BY w.id DESC) FILTER (WHERE w.total_chapters IS NOT NULL))[1]
+               AS total_chapters
+      FROM duplicate d
+      JOIN watched_items w ON w.user_id = d.user_id AND w.anilist_id = d.anilist_id
+     GROUP BY d.keep_id
+)
+UPDATE watched_items w
+   SET watched_date = m.watched_date,
+       completed_date = m.completed_date,
+       episodes_watched = m.episodes_watched,
+       chapters_read = m.chapters_read,
+       rating = m.rating,
+       notes = m.notes,
+       status = m.status,
+       cover_image_url = m.cover_image_url,
+       total_episodes = m.total_episodes,
+       total_chapters = m.total_chapters
+  FROM merged m
+ WHERE w.id = m.keep_id;
+
+DELETE FROM watched_items newer
+    USING watched_items older
+    WHERE newer.user_id = older.user_id
+      AND newer.anilist_id = older.anilist_id
+      AND newer.id > older.id;
+
+-- A follow that was accepted under any of its duplicates stays FOLLOWING
+UPDATE follow f
+   SET status = 'FOLLOWING'
+ WHERE f.status <> 'FOLLOWING'
+   AND EXISTS (
+        SELECT 1 FROM follow other
+         WHERE other.follower_id = f.follower_id
+           AND other.followee_id = f.followee_id
+           AND other.status = 'FOLLOWING');
+
+DELETE FROM follow newer
+    USING follow older
+    WHERE newer.follower_id = older.follower_id
+      AND newer.followee_id = older.followee_id
+      AND newer.id > older.id;
+
+-- watched_items
+-- findByUserIdAndAnilistId(In), existsByUserIdAndAnilistId; NULL IDs stay distinct
+CREATE UNIQUE INDEX IF NOT EXISTS ux_watched_items_user_anilist
+    ON watched_items (user_id, anilist_id);
+-- findByUserIdOrderByWatchedDateDesc, the keyset pages and the export cursor
+CREATE INDEX IF NOT EXISTS ix_watched_items_user_watched
+    ON watched_items (user_id, watched_date DESC, id DESC);
+-- findByUserIdAndType and its keyset pages
+CREATE INDEX IF NOT EXISTS ix_watched_items_user_type_watched
+    ON watched_items (user_id, type, watched_date DESC, id DESC);
+-- findByUserIdAndStatus(OrderByCompletedDateDesc) and its keyset pages
+CREATE INDEX IF NOT EXISTS ix_watched_items_user_status_watched
+    ON watched_items (user_id, status, watched_date DESC, id DESC);
+-- findByUserIdAndTypeAndStatus and its keyset pages
+CREATE INDEX IF NOT EXISTS ix_watched_items_user_type_status_watched
+    ON watched_items (user_id, type, status, watched_date DESC, id DESC);
+-- existsByUserIdAndTitleAndType, findByUserIdAndTitleIn
+CREATE INDEX IF NOT EXISTS ix_watched_items_user_title
+    ON watched_items (user_id, title);
+
+-- user_list_item
+-- findByUserId(AndType) and the keyset pages
+CREATE INDEX IF NOT EXISTS ix_user_list_item_user_type_added
+    ON user_list_item (user_id, type, added_date DESC, id DESC);
+-- findByUserIdAndAnilistId
+CREATE INDEX IF NOT EXISTS ix_user_list_item_user_anilist
+    ON user_list_item (user_id, anilist_id);
+-- existsByUserIdAndTitleAndType
+CREATE INDEX IF NOT EXISTS ix_user_list_item_user_title
+    ON user_list_item (user_id, title);
+
+-- follow
+-- getByFollowerIdAndFolloweeId, existsBy/deleteBy..., getByFollowerId(AndStatus)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_follow_follower_followee
+    ON follow (follower_id, followee_id);
+-- getByFolloweeId
+CREATE INDEX IF NOT EXISTS ix_follow_followee_status
+    ON follow (followee_id, status);
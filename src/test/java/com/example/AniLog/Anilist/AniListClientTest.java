@@ -1,16 +1,28 @@
 package com.example.AniLog.Anilist;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
 class AniListClientTest {
 
     @Test
@@ -263,4 +275,177 @@ class AniListClientTest {
         assertEquals(2, result.getStudios().size());
         assertEquals(2, result.getSynonyms().size());
     }
+
+    @Test
+    void testExecuteQuery_ConcurrentIdenticalCallsShareOneRequest() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse()
+                .setBody(PAGE_RESPONSE)
+                .setBodyDelay(500, TimeUnit.MILLISECONDS));
+            server.start();
+
+            AniListClient aniListClient = new AniListClient(server.url("/").toString());
+            Map<String, Object> variables = Map.of("id", 1);
+            ExecutorService executor = Executors.newFixedThreadPool(5);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<AnilistResult>>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return aniListClient.executeQuery("query ($id: Int) { Page { media(id: $id) { id } } }", variables);
+                }));
+            }
+            start.countDown();
+
+            List<AnilistResult> first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<List<AnilistResult>> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+            executor.shutdown();
+
+            assertEquals(1, server.getRequestCount());
+            assertEquals(1, first.size());
+            assertEquals(1, first.get(0).getId());
+        }
+    }
+
+    @Test
+    void testExecuteQueryAsync_CompletesWithParsedResults() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody(PAGE_RESPONSE));
+            server.start();
+
+            AniListClient aniListClient = new AniListClient(server.url("/").toString());
+            List<AnilistResult> results = aniListClient
+                .executeQueryAsync("query { Page { media { id } } }", Map.of())
+                .get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, results.size());
+            assertEquals("Cowboy Bebop", results.get(0).getTitle().getRomaji());
+        }
+    }
+
+    @Test
+    void testExecuteQueryAsync_ErrorStatusCompletesWithEmptyList() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(500).setBody("{}"));
+            server.start();
+
+            AniListClient aniListClient = new AniListClient(server.url("/").toString());
+            List<AnilistResult> results = aniListClient
+                .executeQueryAsync("query { Page { media { id } } }", Map.of())
+                .get(5, TimeUnit.SECONDS);
+
+            assertTrue(results.isEmpty());
+        }
+    }
+
+    @Test
+    void testExecuteQuery_RetriesAfterRateLimitResponse() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse()
+                .setResponseCode(429)
+                .addHeader("X-RateLimit-Limit", "90")
+                .addHeader("X-RateLimit-Remaining", "0")
+                .addHeader("Retry-After", "1"));
+            server.enqueue(new MockResponse()
+                .addHeader("X-RateLimit-Limit", "90")
+                .addHeader("X-RateLimit-Remaining", "89")
+                .setBody(PAGE_RESPONSE));
+            server.start();
+
+            AniListClient aniListClient = new AniListClient(server.url("/").toString());
+            List<AnilistResult> results = aniListClient.executeQuery("query { Page { media { id } } }", Map.of());
+
+            assertEquals(1, results.size());
+            assertEquals(2, server.getRequestCount());
+            assertEquals(89, aniListClient.getRateLimitGovernor().getRemaining());
+        }
+    }
+
+    @Test
+    void testExecuteQueryAsync_CallTimeoutCompletesWithEmptyList() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse()
+                .setBody(PAGE_RESPONSE)
+                .setHeadersDelay(2, TimeUnit.SECONDS));
+            server.start();
+
+            OkHttpClient httpClient = new OkHttpClient.Builder()
+                .callTimeout(Duration.ofMillis(200))
+                .build();
+            AniListClient aniListClient = new AniListClient(
+                server.url("/").toString(), httpClient, new RateLimitGovernor(90, Duration.ofSeconds(30)));
+            long start = System.nanoTime();
+            List<AnilistResult> results = aniListClient
+                .executeQueryAsync("query { Page { media { id } } }", Map.of())
+                .get(5, TimeUnit.SECONDS);
+
+            assertTrue(results.isEmpty());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        }
+    }
+
+    @Test
+    void testExecuteQuery_ServesLastGoodResultWhenUpstreamFails() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody(PAGE_RESPONSE));
+            server.enqueue(new MockResponse().setResponseCode(503));
+            server.start();
+
+            AniListClient aniListClient = new AniListClient(server.url("/").toString());
+            List<AnilistResult> first = aniListClient.executeQuery("query { Page { media { id } } }", Map.of());
+            List<AnilistResult> second = aniListClient.executeQuery("query { Page { media { id } } }", Map.of());
+
+            assertEquals(1, first.size());
+            assertSame(first, second);
+        }
+    }
+
+    @Test
+    void testExecuteQuery_OpenBreakerFailsFastWithoutCallingUpstream() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody(PAGE_RESPONSE));
+            server.enqueue(new MockResponse().setResponseCode(500));
+            server.start();
+
+            CircuitBreaker breaker = new CircuitBreaker(
+                4, 2, 0.5, Duration.ofSeconds(5), 0.8, Duration.ofMinutes(1), 1);
+            AniListClient aniListClient = new AniListClient(
+                server.url("/").toString(),
+                new OkHttpClient(),
+                new RateLimitGovernor(90, Duration.ofSeconds(30)),
+                breaker);
+            List<AnilistResult> good = aniListClient.executeQuery("query { a }", Map.of());
+            aniListClient.executeQuery("query { b }", Map.of());
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            assertSame(good, aniListClient.executeQuery("query { a }", Map.of()));
+            assertTrue(aniListClient.executeQuery("query { c }", Map.of()).isEmpty());
+            assertEquals(2, server.getRequestCount());
+        }
+    }
+
+    @Test
+    void testRequestKey_IgnoresWhitespaceAndVariableOrder() {
+        AniListClient aniListClient = new AniListClient("http://localhost");
+        Map<String, Object> first = new HashMap<>();
+        first.put("type", "ANIME");
+        first.put("search", "Naruto");
+        Map<String, Object> second = new HashMap<>();
+        second.put("search", "Naruto");
+        second.put("type", "ANIME");
+
+        assertEquals(
+            aniListClient.requestKey("query { Page { media { id } } }", first),
+            aniListClient.requestKey("query {\n    Page {\n media { id } } }\n", second));
+        assertFalse(aniListClient.requestKey("query { id }", Map.of("id", 1))
+            .equals(aniListClient.requestKey("query { id }", Map.of("id", 2))));
+    }
+
+    private static final String PAGE_RESPONSE = """
+        {"data": {"Page": {"media": [
+            {"id": 1, "type": "ANIME", "title": {"romaji": "Cowboy Bebop", "english": "Cowboy Bebop", "native": null}}
+        ]}}}
+        """;
 }
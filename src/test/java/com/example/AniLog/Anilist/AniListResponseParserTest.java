@@ -0,0 +1,121 @@
+package com.example.AniLog.Anilist;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+
+class AniListResponseParserTest {
+
+    private final AniListResponseParser parser = new AniListResponseParser();
+
+    @Test
+    void testParse_AllFields() throws IOException {
+        String json = """
+            {"data": {"Page": {
+                "pageInfo": {"total": 1, "currentPage": 1, "lastPage": 1, "hasNextPage": false},
+                "media": [{
+                    "id": 21,
+                    "type": "ANIME",
+                    "title": {"romaji": "ONE PIECE", "english": "ONE PIECE", "native": "ワンピース"},
+                    "description": "Gold Roger was known as the Pirate King.",
+                    "format": "TV",
+                    "episodes": null,
+                    "chapters": null,
+                    "volumes": null,
+                    "averageScore": 88,
+                    "nextAiringEpisode": {"episode": 1100, "airingAt": 1735689600},
+                    "startDate": {"day": 20, "month": 10, "year": 1999},
+                    "coverImage": {"extraLarge": "https://example.com/21.jpg"},
+                    "status": "RELEASING",
+                    "genres": ["Action", "Adventure", null],
+                    "streamingEpisodes": [{"site": "Crunchyroll", "thumbnail": "t", "title": "Ep 1", "url": "u"}],
+                    "studios": {"nodes": [{"name": "Toei Animation"}, {"name": " "}]},
+                    "synonyms": ["OP"],
+                    "trailer": {"site": "youtube", "thumbnail": "t"},
+                    "isAdult": false
+                }]
+            }}}
+            """;
+
+        List<AnilistResult> results = parser.parse(new StringReader(json));
+
+        assertEquals(1, results.size());
+        AnilistResult result = results.get(0);
+        assertEquals(21, result.getId());
+        assertEquals("ANIME", result.getType());
+        assertEquals("ONE PIECE", result.getTitle().getRomaji());
+        assertEquals("ワンピース", result.getTitle().getNativeTitle());
+        assertEquals("Gold Roger was known as the Pirate King.", result.getDescription());
+        assertEquals("TV", result.getFormat());
+        assertNull(result.getEpisodes());
+        assertEquals(88, result.getAverageScore());
+        assertEquals(1100, result.getNextAiringEpisode().getEpisode());
+        assertEquals(1735689600L, result.getNextAiringEpisode().getAiringAt());
+        assertEquals(20, result.getDay());
+        assertEquals(10, result.getMonth());
+        assertEquals(1999, result.getYear());
+        assertEquals("https://example.com/21.jpg", result.getCoverImageUrl());
+        assertEquals("RELEASING", result.getStatus());
+        assertEquals(List.of("Action", "Adventure"), result.getGenres());
+        assertEquals(List.of("Toei Animation"), result.getStudios());
+        assertEquals(List.of("OP"), result.getSynonyms());
+        assertFalse(result.isAdult());
+    }
+
+    @Test
+    void testParse_MissingFieldsUseDefaults() throws IOException {
+        String json = """
+            {"data": {"Page": {"media": [{"title": null, "nextAiringEpisode": {}, "averageScore": 7.5}, 42]}}}
+            """;
+
+        List<AnilistResult> results = parser.parse(new StringReader(json));
+
+        assertEquals(1, results.size());
+        AnilistResult result = results.get(0);
+        assertEquals(0, result.getId());
+        assertNull(result.getTitle().getEnglish());
+        assertNull(result.getNextAiringEpisode());
+        assertNull(result.getAverageScore());
+        assertTrue(result.getGenres().isEmpty());
+        assertTrue(result.getStudios().isEmpty());
+    }
+
+    @Test
+    void testParse_TimeUntilAiringIsDerivedFromAiringAt() throws IOException {
+        String json = """
+            {"data": {"Page": {"media": [{"id": 1, "nextAiringEpisode": {"episode": 5, "timeUntilAiring": 3600}}]}}}
+            """;
+
+        AnilistResult.NextAiringEpisode next = parser.parse(new StringReader(json)).get(0).getNextAiringEpisode();
+
+        // A countdown-only payload is pinned to an absolute time, which then counts down
+        Instant airingAt = Instant.ofEpochSecond(next.getAiringAt());
+        assertTrue(Math.abs(next.getTimeUntilAiring() - 3600) <= 1);
+        assertEquals(600, next.timeUntilAiring(airingAt.minusSeconds(600)));
+        assertEquals(0, next.timeUntilAiring(airingAt.plusSeconds(60)));
+    }
+
+    @Test
+    void testParse_ReadsHasNextPage() throws IOException {
+        String more = "{\"data\": {\"Page\": {\"pageInfo\": {\"hasNextPage\": true}, \"media\": [{\"id\": 1}]}}}";
+        String last = "{\"data\": {\"Page\": {\"media\": [{\"id\": 1}], \"pageInfo\": {\"hasNextPage\": false}}}}";
+
+        assertTrue(parser.parse(new StringReader(more)).hasNextPage());
+        assertFalse(parser.parse(new StringReader(last)).hasNextPage());
+        assertFalse(AnilistPage.hasNextPage(List.of()));
+    }
+
+    @Test
+    void testParse_NoPageReturnsEmpty() throws IOException {
+        assertTrue(parser.parse(new StringReader("{\"data\": {\"Media\": {\"id\": 1}}}")).isEmpty());
+        assertTrue(parser.parse(new StringReader("{\"data\": null, \"errors\": [{\"message\": \"Not Found.\"}]}")).isEmpty());
+        assertTrue(parser.parse(new StringReader("")).isEmpty());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.AniLog.Anilist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+class AnilistResultFootprintTest {
+
+    private static final String[] FORMATS = {"TV", "MOVIE", "OVA", "ONA", "TV_SHORT"};
+    private static final String[] STATUSES = {"FINISHED", "RELEASING", "AIRING"};
+    private static final String[][] GENRES = {
+        {"Action", "Adventure", "Fantasy"}, {"Comedy", "Slice of Life"}, {"Drama", "Romance"},
+        {"Action", "Sci-Fi", "Mecha"}, {"Mystery", "Psychological", "Thriller"}};
+    private static final String[] STUDIOS = {"MAPPA", "Kyoto Animation", "Bones", "Madhouse", "ufotable"};
+
+    @Test
+    void testRoundTripsAbsentAndPresentValues() {
+        AnilistResult result = new AnilistResult(
+            7, "ANIME", new AnilistResult.Title("Romaji", null, "Native"), null, "TV", 0, null, null, 100,
+            new AnilistResult.NextAiringEpisode(12, null), 31, 12, 2024, null, "AIRING",
+            List.of("Action"), null, List.of("Alt"), true, 250_000, null, 1_700_000_000);
+
+        assertEquals(0, result.getEpisodes());
+        assertNull(result.getChapters());
+        assertEquals(100, result.getAverageScore());
+        assertEquals(12, result.getNextAiringEpisode().getEpisode());
+        assertNull(result.getNextAiringEpisode().getAiringAt());
+        assertEquals(31, result.getDay());
+        assertEquals(12, result.getMonth());
+        assertEquals(2024, result.getYear());
+        assertEquals("AIRING", result.getStatus());
+        assertEquals("Native", result.getTitle().getNativeTitle());
+        assertNull(result.getTitle().getEnglish());
+        assertTrue(result.getStudios().isEmpty());
+        assertEquals(250_000, result.getPopularity());
+        assertNull(result.getTrending());
+        assertEquals(1_700_000_000, result.getUpdatedAt());
+    }
+
+    @Test
+    void testRepeatedVocabularyIsShared() {
+        AnilistResult first = result(1, 0);
+        AnilistResult second = result(2, 0);
+
+        assertSame(first.getFormat(), second.getFormat());
+        assertSame(first.getStatus(), second.getStatus());
+        assertSame(first.getGenres(), second.getGenres());
+        assertSame(first.getStudios(), second.getStudios());
+    }
+
+    // Compares the retained size of a cache-sized result list against the previous
+    // layout (boxed numbers, nested title/airing objects, per-item strings and lists)
+    @Test
+    void testRetainedSizeAgainstBoxedLayout() {
+        List<AnilistResult> compact = new ArrayList<>();
+        List<BoxedResult> boxed = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            compact.add(result(i, i));
+            boxed.add(boxedResult(i, i));
+        }
+
+        long compactBytes = GraphLayout.parseInstance(compact).totalSize();
+        long boxedBytes = GraphLayout.parseInstance(boxed).totalSize();
+        double reduction = (double) boxedBytes / compactBytes;
+
+        // About 0.68 MB against 2.0 MB (2.9x) on a 64-bit JVM with compressed oops. Titles
+        // and cover URLs are unique per item and dominate what remains
+        assertTrue(reduction >= 2.75, compactBytes + " vs " + boxedBytes + " bytes, " + reduction + "x");
+    }
+
+    private static AnilistResult result(int id, int variant) {
+        return new AnilistResult(
+            id, copy("ANIME"), new AnilistResult.Title("Title " + id, "English " + id, null), null,
+            copy(FORMATS[variant % FORMATS.length]), 12 + variant, null, null, 60 + variant % 40,
+            new AnilistResult.NextAiringEpisode(5, 1_800_000_000L + variant), null, null, 2000 + variant % 25,
+            "https://s4.anilist.co/file/anilistcdn/media/anime/cover/large/bx" + id + ".jpg",
+            copy(STATUSES[variant % STATUSES.length]), copies(GENRES[variant % GENRES.length]),
+            copies(new String[] {STUDIOS[variant % STUDIOS.length]}), List.of(), false,
+            10_000 + variant, 200 + variant, 1_700_000_000 + variant);
+    }
+
+    private static BoxedResult boxedResult(int id, int variant) {
+        return new BoxedResult(
+            id, copy("ANIME"), new AnilistResult.Title("Title " + id, "English " + id, null), null,
+            copy(FORMATS[variant % FORMATS.length]), 12 + variant, null, null, 60 + variant % 40,
+            new BoxedAiring(5, 1_800_000_000L + variant), null, null, 2000 + variant % 25,
+            "https://s4.anilist.co/file/anilistcdn/media/anime/cover/large/bx" + id + ".jpg",
+            copy(STATUSES[variant % STATUSES.length]), copies(GENRES[variant % GENRES.length]),
+            copies(new String[] {STUDIOS[variant % STUDIOS.length]}), new ArrayList<>(), false,
+            10_000 + variant, 200 + variant, 1_700_000_000 + variant);
+    }
+
+    // Fresh instances, as a JSON parser produces them
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static List<String> copies(String[] values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(copy(value));
+        }
+        return list;
+    }
+
+    // Plain classes rather than records: JOL cannot read record field offsets
+    @SuppressWarnings("unused")
+    private static class BoxedAiring {
+        private final Integer episode;
+        private final Long airingAt;
+
+        BoxedAiring(Integer episode, Long airingAt) {
+            this.episode = episode;
+            this.airingAt = airingAt;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class BoxedResult {
+        private final int id;
+        private final String type;
+        private final AnilistResult.Title title;
+        private final String description;
+        private final String format;
+        private final Integer episodes;
+        private final Integer chapters;
+        private final Integer volumes;
+        private final Integer averageScore;
+        private final BoxedAiring nextAiringEpisode;
+        private final Integer day;
+        private final Integer month;
+        private final Integer year;
+        private final String coverImageUrl;
+        private final String status;
+        private final List<String> genres;
+        private final List<String> studios;
+        private final List<String> synonyms;
+        private final boolean isAdult;
+        private final Integer popularity;
+        private final Integer trending;
+        private final Integer updatedAt;
+
+        BoxedResult(
+                int id, String type, AnilistResult.Title title, String description, String format,
+                Integer episodes, Integer chapters, Integer volumes, Integer averageScore,
+                BoxedAiring nextAiringEpisode, Integer day, Integer month, Integer year,
+                String coverImageUrl, String status, List<String> genres, List<String> studios,
+                List<String> synonyms, boolean isAdult, Integer popularity, Integer trending, Integer updatedAt) {
+            this.id = id;
+            this.type = type;
+            this.title = title;
+            this.description = description;
+            this.format = format;
+            this.episodes = episodes;
+            this.chapters = chapters;
+            this.volumes = volumes;
+            this.averageScore = averageScore;
+            this.nextAiringEpisode = nextAiringEpisode;
+            this.day = day;
+            this.month = month;
+            this.year = year;
+            this.coverImageUrl = coverImageUrl;
+            this.status = status;
+            this.genres = genres;
+            this.studios = studios;
+            this.synonyms = synonyms;
+            this.isAdult = isAdult;
+            this.popularity = popularity;
+            this.trending = trending;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.AniLog.Anilist;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(6);
+
+    private AtomicLong clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofSeconds(5), 0.8, Duration.ofSeconds(30), 2, clock::get);
+    }
+
+    @Test
+    void testOpensAtFailureRate() {
+        succeed(FAST);
+        succeed(FAST);
+        fail();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testNeedsMinimumCallsBeforeOpening() {
+        fail();
+        fail();
+        fail();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testOpensOnSlowCalls() {
+        for (int i = 0; i < 4; i++) {
+            succeed(SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenProbesCloseOnSuccess() {
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNull(breaker.tryAcquire());
+        breaker.onSuccess(first, FAST);
+        breaker.onSuccess(second, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testHalfOpenFailureReopens() {
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        breaker.onFailure(breaker.tryAcquire(), FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testReleaseReturnsProbePermit() {
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertNotNull(breaker.tryAcquire());
+        CircuitBreaker.Permit dropped = breaker.tryAcquire();
+
+        breaker.release(dropped);
+
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testLateSuccessFromBeforeOpeningIsNotAProbe() {
+        CircuitBreaker.Permit late = breaker.tryAcquire();
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(breaker.tryAcquire());
+
+        // Started while closed, so it neither frees a probe slot nor counts as one
+        breaker.onSuccess(late, FAST);
+        breaker.onSuccess(probe, FAST);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testLateFailureFromBeforeOpeningDoesNotReopen() {
+        CircuitBreaker.Permit late = breaker.tryAcquire();
+        trip();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+
+        breaker.onFailure(late, SLOW);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(probe, FAST);
+        breaker.onSuccess(breaker.tryAcquire(), FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testOldOutcomesLeaveWindow() {
+        for (int i = 0; i < 10; i++) {
+            succeed(FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Ten successes would hold the rate at 5/15; the window only sees the last ten
+        fail();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void succeed(long durationNanos) {
+        breaker.onSuccess(breaker.tryAcquire(), durationNanos);
+    }
+
+    private void fail() {
+        breaker.onFailure(breaker.tryAcquire(), FAST);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.AniLog.Anilist;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class RateLimitGovernorTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    void testReserve_WithinBudgetIsImmediate() {
+        RateLimitGovernor governor = new RateLimitGovernor(60, Duration.ofSeconds(30), clock::get);
+
+        for (int i = 0; i < 60; i++) {
+            assertEquals(0, governor.reserve());
+        }
+    }
+
+    @Test
+    void testReserve_QueuesWhenBucketIsEmpty() {
+        RateLimitGovernor governor = new RateLimitGovernor(60, Duration.ofSeconds(30), clock::get);
+        for (int i = 0; i < 60; i++) {
+            governor.reserve();
+        }
+
+        // 60 per minute refills one token per second
+        long first = governor.reserve();
+        long second = governor.reserve();
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), first);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), second);
+        assertEquals(2, governor.getQueued());
+    }
+
+    @Test
+    void testReserve_RejectsBeyondMaxQueueDelay() {
+        RateLimitGovernor governor = new RateLimitGovernor(60, Duration.ofSeconds(2), clock::get);
+        for (int i = 0; i < 62; i++) {
+            governor.reserve();
+        }
+
+        assertEquals(RateLimitGovernor.REJECTED, governor.reserve());
+    }
+
+    @Test
+    void testOnResponse_RemainingHeaderLowersBudget() {
+        RateLimitGovernor governor = new RateLimitGovernor(90, Duration.ofSeconds(30), clock::get);
+
+        governor.onResponse(200, "90", "0", null);
+
+        assertEquals(0, governor.getRemaining());
+        assertTrue(governor.reserve() > 0);
+    }
+
+    @Test
+    void testOnResponse_RetryAfterBlocksUntilElapsed() {
+        RateLimitGovernor governor = new RateLimitGovernor(90, Duration.ofMinutes(2), clock::get);
+
+        governor.onResponse(429, "90", "0", "30");
+
+        assertTrue(governor.reserve() >= TimeUnit.SECONDS.toNanos(30));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0, governor.reserve());
+    }
+
+    @Test
+    void testOnResponse_LimitHeaderResizesBucket() {
+        RateLimitGovernor governor = new RateLimitGovernor(90, Duration.ofSeconds(30), clock::get);
+
+        governor.onResponse(200, "30", "30", null);
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(0, governor.reserve());
+        }
+        assertTrue(governor.reserve() > 0);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.AniLog.Catalog;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Anilist.RateLimitGovernor;
+
+class CatalogSyncServiceTest {
+
+    @Mock
+    private AniListClient aniListClient;
+
+    @Mock
+    private CatalogMediaRepository mediaRepository;
+
+    @Mock
+    private CatalogSyncStateRepository stateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(aniListClient.getRateLimitGovernor()).thenReturn(new RateLimitGovernor(90, Duration.ofSeconds(30)));
+        when(stateRepository.findById(CatalogSyncState.ID)).thenReturn(Optional.empty());
+        when(mediaRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<CatalogMedia> saved = new ArrayList<>();
+            invocation.<Iterable<CatalogMedia>>getArgument(0).forEach(saved::add);
+            return saved;
+        });
+        when(aniListClient.executeQuery(anyQuery(), anyMap())).thenReturn(List.of());
+        syncService = newService(20, 0);
+    }
+
+    @Test
+    void testSync_EmptyCatalogBackfillsUntilShortPage() {
+        // Arrange
+        when(mediaRepository.findMaxUpdatedAt()).thenReturn(null);
+        when(aniListClient.executeQuery(query("id_greater"), anyMap()))
+                .thenReturn(range(1, 50, 100))
+                .thenReturn(range(51, 10, 100));
+        CatalogListener listener = mock(CatalogListener.class);
+        syncService.addListener(listener);
+
+        // Act
+        int written = syncService.sync();
+
+        // Assert
+        assertEquals(60, written);
+        verify(aniListClient, never()).executeQuery(query("UPDATED_AT_DESC"), anyMap());
+        verify(aniListClient, times(4)).executeQuery(query("$sort"), anyMap());
+        verify(aniListClient, times(2)).executeQuery(query("id_greater"), anyMap());
+
+        ArgumentCaptor<CatalogSyncState> state = ArgumentCaptor.forClass(CatalogSyncState.class);
+        verify(stateRepository).save(state.capture());
+        assertEquals(60, state.getValue().getBackfillCursor());
+        assertTrue(state.getValue().isBackfillComplete());
+        verify(listener).onBackfillComplete();
+    }
+
+    @Test
+    void testSync_IncrementalStopsAtWatermark() {
+        // Arrange
+        CatalogSyncState state = new CatalogSyncState();
+        state.setBackfillComplete(true);
+        state.setUpdatedWatermark(100);
+        when(stateRepository.findById(CatalogSyncState.ID)).thenReturn(Optional.of(state));
+        List<AnilistResult> page = new ArrayList<>(range(1, 49, 200));
+        page.add(result(50, 100));
+        when(aniListClient.executeQuery(query("UPDATED_AT_DESC"), anyMap())).thenReturn(page);
+
+        // Act
+        syncService.sync();
+
+        // Assert
+        verify(aniListClient, times(1)).executeQuery(query("UPDATED_AT_DESC"), anyMap());
+        verify(aniListClient, never()).executeQuery(query("id_greater"), anyMap());
+        assertEquals(200, state.getUpdatedWatermark());
+        assertNull(state.getUpdatedWalkPage());
+    }
+
+    @Test
+    void testSync_FirstRunSeedsWatermarkFromStoredRows() {
+        // Arrange
+        when(mediaRepository.findMaxUpdatedAt()).thenReturn(100);
+
+        // Act
+        syncService.sync();
+
+        // Assert
+        verify(aniListClient, never()).executeQuery(query("UPDATED_AT_DESC"), anyMap());
+        ArgumentCaptor<CatalogSyncState> state = ArgumentCaptor.forClass(CatalogSyncState.class);
+        verify(stateRepository).save(state.capture());
+        assertEquals(100, state.getValue().getUpdatedWatermark());
+    }
+
+    @Test
+    void testSync_WalkCutShortKeepsWatermarkAndResumes() {
+        // Arrange
+        syncService = newService(1, 0);
+        CatalogSyncState state = new CatalogSyncState();
+        state.setBackfillComplete(true);
+        state.setUpdatedWatermark(100);
+        when(stateRepository.findById(CatalogSyncState.ID)).thenReturn(Optional.of(state));
+        List<AnilistResult> lastPage = new ArrayList<>(range(51, 49, 150));
+        lastPage.add(result(100, 90));
+        when(aniListClient.executeQuery(query("UPDATED_AT_DESC"), anyMap()))
+                .thenReturn(range(1, 50, 300))
+                .thenReturn(lastPage);
+
+        // Act
+        syncService.sync();
+
+        // Assert: page 1 raised nothing, the walk is parked on page 2
+        assertEquals(100, state.getUpdatedWatermark());
+        assertEquals(2, state.getUpdatedWalkPage());
+        assertEquals(300, state.getUpdatedWalkTop());
+
+        // Act
+        syncService.sync();
+
+        // Assert: the resumed walk reached the old watermark, so the newest edit it saw is the new one
+        verify(aniListClient).executeQuery(query("UPDATED_AT_DESC"), argThat(v -> Integer.valueOf(2).equals(v.get("page"))));
+        assertEquals(300, state.getUpdatedWatermark());
+        assertNull(state.getUpdatedWalkPage());
+        assertNull(state.getUpdatedWalkTop());
+    }
+
+    @Test
+    void testSync_FailedPageLeavesWalkOpen() {
+        // Arrange
+        CatalogSyncState state = new CatalogSyncState();
+        state.setBackfillComplete(true);
+        state.setUpdatedWatermark(100);
+        when(stateRepository.findById(CatalogSyncState.ID)).thenReturn(Optional.of(state));
+
+        // Act
+        syncService.sync();
+
+        // Assert
+        assertEquals(100, state.getUpdatedWatermark());
+        assertNull(state.getUpdatedWalkTop());
+    }
+
+    @Test
+    void testSync_ZeroesTrendingForTitlesThatLeftTheHotPage() {
+        // Arrange
+        CatalogMedia dropped = CatalogMedia.create();
+        dropped.update(result(999, 100), java.time.Instant.now());
+        when(aniListClient.executeQuery(query("$sort"), argThat(v -> v != null && v.get("sort") != null
+                && v.get("sort").equals(List.of("TRENDING_DESC")) && "ANIME".equals(v.get("type")))))
+                .thenReturn(range(1, 50, 100));
+        when(mediaRepository.findByTypeAndTrendingGreaterThanAndIdNotIn(eq("ANIME"), eq(0), any()))
+                .thenReturn(List.of(dropped));
+        List<List<CatalogMedia>> notified = new ArrayList<>();
+        syncService.addListener(notified::add);
+
+        // Act
+        syncService.sync();
+
+        // Assert
+        assertEquals(0, dropped.getTrending());
+        verify(mediaRepository).findByTypeAndTrendingGreaterThanAndIdNotIn(eq("ANIME"), eq(0),
+                argThat(ids -> ids.size() == 50 && !ids.contains(999)));
+        verify(mediaRepository, never()).findByTypeAndTrendingGreaterThanAndIdNotIn(eq("MANGA"), any(), any());
+        assertTrue(notified.stream().anyMatch(rows -> rows.contains(dropped)));
+    }
+
+    @Test
+    void testUpsert_SkipsUnchangedRows() {
+        // Arrange
+        CatalogMedia stored = CatalogMedia.create();
+        stored.update(result(1, 100), java.time.Instant.now());
+        when(mediaRepository.findAllById(any())).thenReturn(List.of(stored));
+
+        // Act
+        int written = syncService.upsert(List.of(result(1, 100), result(2, 100)));
+
+        // Assert
+        assertEquals(1, written);
+    }
+
+    @Test
+    void testUpsert_WritesComputedFieldsThatLeaveUpdatedAtAlone() {
+        // Arrange
+        CatalogMedia stored = CatalogMedia.create();
+        stored.update(result(1, 100), java.time.Instant.now());
+        when(mediaRepository.findAllById(any())).thenReturn(List.of(stored));
+        AnilistResult airing = new AnilistResult(
+                1, "ANIME", new AnilistResult.Title("Romaji 1", null, null), null, "TV", 12, null, null, 84,
+                new AnilistResult.NextAiringEpisode(5, 1_800_000_000L), 1, 1, 2024, null, "RELEASING",
+                List.of("Action"), List.of(), List.of(), false, 1000, 5, 100);
+
+        // Act
+        int written = syncService.upsert(List.of(airing));
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(84, stored.getAverageScore());
+        assertEquals("RELEASING", stored.getStatus());
+    }
+
+    @Test
+    void testUpsert_SkipsHentai() {
+        // Arrange
+        AnilistResult hentai = new AnilistResult(
+                3, "ANIME", new AnilistResult.Title("Romaji", null, null), null, null, null, null, null, null,
+                null, null, null, null, null, null, List.of("Hentai"), List.of(), List.of(), true, 10, 0, 100);
+
+        // Act
+        int written = syncService.upsert(List.of(hentai));
+
+        // Assert
+        assertEquals(0, written);
+        verify(mediaRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testSync_StopsWhenBudgetBelowReserve() {
+        // Arrange
+        syncService = newService(20, 1000);
+
+        // Act
+        int written = syncService.sync();
+
+        // Assert
+        assertEquals(0, written);
+        verify(aniListClient, never()).executeQuery(anyQuery(), anyMap());
+        ArgumentCaptor<CatalogSyncState> state = ArgumentCaptor.forClass(CatalogSyncState.class);
+        verify(stateRepository).save(state.capture());
+        assertFalse(state.getValue().isBackfillComplete());
+    }
+
+    private CatalogSyncService newService(int maxPages, int tokenReserve) {
+        return new CatalogSyncService(
+                aniListClient, mediaRepository, stateRepository, transactionManager, true, maxPages, tokenReserve);
+    }
+
+    private static String anyQuery() {
+        return argThat(q -> true);
+    }
+
+    private static String query(String fragment) {
+        return argThat(q -> q != null && q.contains(fragment));
+    }
+
+    private static List<AnilistResult> range(int firstId, int count, int updatedAt) {
+        List<AnilistResult> results = new ArrayList<>();
+        for (int id = firstId; id < firstId + count; id++) {
+            results.add(result(id, updatedAt));
+        }
+        return results;
+    }
+
+    private static AnilistResult result(int id, int updatedAt) {
+        return new AnilistResult(
+                id, "ANIME", new AnilistResult.Title("Romaji " + id, null, null), null, "TV", 12, null, null, 80,
+                null, 1, 1, 2024, null, "FINISHED", List.of("Action"), List.of(), List.of(), false, 1000, 5, updatedAt);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.AniLog.Catalog;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class SuggestClientTest {
+
+    @Mock
+    private TitleSuggester titleSuggester;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSuggest_UnavailableWithoutSuggester() {
+        // Act
+        ResponseEntity<?> response = new SuggestClient(Optional.empty()).suggest("frie", 8);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    void testSuggest_UnavailableUntilReady() {
+        // Arrange
+        when(titleSuggester.isReady()).thenReturn(false);
+
+        // Act
+        ResponseEntity<?> response = new SuggestClient(Optional.of(titleSuggester)).suggest("frie", 8);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    void testSuggest_ReturnsSuggestionsWhenReady() {
+        // Arrange
+        when(titleSuggester.isReady()).thenReturn(true);
+        when(titleSuggester.suggest("frie", 8)).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<?> response = new SuggestClient(Optional.of(titleSuggester)).suggest("frie", 8);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(), response.getBody());
+    }
+}
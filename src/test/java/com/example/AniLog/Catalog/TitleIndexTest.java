@@ -0,0 +1,145 @@
+package com.example.AniLog.Catalog;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+class TitleIndexTest {
+
+    @Mock
+    private CatalogMediaRepository mediaRepository;
+
+    @Mock
+    private CatalogSyncService syncService;
+
+    private TitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new TitleIndex(mediaRepository, syncService);
+        index.index(List.of(
+                media(1, "ANIME", "TV", "FINISHED", "Shingeki no Kyojin", "Attack on Titan", List.of("AoT"), List.of("Action", "Drama"), 900),
+                media(2, "MANGA", "MANGA", "FINISHED", "Shingeki no Kyojin", "Attack on Titan", List.of(), List.of("Action"), 500),
+                media(3, "ANIME", "TV", "RELEASING", "Kimetsu no Yaiba", "Demon Slayer", List.of(), List.of("Action"), 800),
+                media(4, "ANIME", "MOVIE", "FINISHED", "Pokémon", "Pokemon the Movie", List.of(), List.of("Adventure"), 100)));
+    }
+
+    @Test
+    void testConstructor_RegistersWithSync() {
+        verify(syncService).addListener(index);
+    }
+
+    @Test
+    void testSearch_MatchesAnyTitleVariant() {
+        assertEquals(List.of(1, 2), index.searchIds("attack on", null, null, null, null, null));
+        assertEquals(List.of(1, 2), index.searchIds("kyojin", null, null, null, null, null));
+        assertEquals(List.of(1), index.searchIds("aot", "ANIME", null, null, null, null));
+    }
+
+    @Test
+    void testSearch_PrefixOfLastWord() {
+        assertEquals(List.of(3), index.searchIds("demon sl", null, null, null, null, null));
+    }
+
+    @Test
+    void testSearch_IgnoresCaseAndAccents() {
+        assertEquals(List.of(4), index.searchIds("POKEMON", null, null, null, null, null));
+    }
+
+    @Test
+    void testSearch_AppliesFilters() {
+        assertEquals(List.of(1, 3), index.searchIds("", "ANIME", List.of("TV"), null, null, "POPULARITY_DESC"));
+        assertEquals(List.of(3), index.searchIds("", null, null, List.of("RELEASING"), null, null));
+        assertEquals(List.of(1), index.searchIds("", null, null, null, List.of("Action", "Drama"), null));
+        assertEquals(List.of(4, 2, 3, 1), index.searchIds("", "Any", null, null, null, "POPULARITY"));
+    }
+
+    @Test
+    void testSearch_ExactTitleRanksFirst() {
+        index.index(List.of(media(5, "ANIME", "TV", "FINISHED", "Demon Slayer Extra", null, List.of(), List.of(), 5000)));
+
+        assertEquals(List.of(3, 5), index.searchIds("demon slayer", null, null, null, null, null));
+        assertEquals(List.of(5, 3), index.searchIds("demon slayer", null, null, null, null, "POPULARITY_DESC"));
+    }
+
+    @Test
+    void testIndex_ReplacesUpdatedRow() {
+        index.index(List.of(media(3, "ANIME", "TV", "FINISHED", "Renamed", null, List.of(), List.of(), 800)));
+
+        assertTrue(index.searchIds("demon", null, null, null, null, null).isEmpty());
+        assertEquals(List.of(3), index.searchIds("renamed", null, null, null, null, null));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testSearch_ServedFromMemory() {
+        List<AnilistResult> results = index.search("demon slayer", null, null, null, null, null);
+
+        assertEquals(1, results.size());
+        assertEquals(3, results.get(0).getId());
+        assertEquals("Demon Slayer", results.get(0).getTitle().getEnglish());
+        verifyNoInteractions(mediaRepository);
+    }
+
+    @Test
+    void testLoad_ReadyOnlyOnceBackfillCompletes() {
+        // Arrange
+        when(mediaRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        when(syncService.isBackfillComplete()).thenReturn(false);
+
+        // Act
+        index.load();
+
+        // Assert
+        assertFalse(index.isReady());
+        index.onBackfillComplete();
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void testLoad_FailureLeavesIndexNotReady() {
+        // Arrange
+        when(syncService.isBackfillComplete()).thenReturn(true);
+        when(mediaRepository.findAll(any(Pageable.class))).thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        index.load();
+
+        // Assert
+        assertFalse(index.isReady());
+    }
+
+    private static CatalogMedia media(
+            int id,
+            String type,
+            String format,
+            String status,
+            String romaji,
+            String english,
+            List<String> synonyms,
+            List<String> genres,
+            int popularity) {
+        CatalogMedia media = CatalogMedia.create();
+        media.update(new AnilistResult(
+                id, type, new AnilistResult.Title(romaji, english, null), null, format, null, null, null, 70,
+                null, null, null, 2020, null, status, genres, List.of(), synonyms, false, popularity, 0, 1),
+                Instant.now());
+        return media;
+    }
+}
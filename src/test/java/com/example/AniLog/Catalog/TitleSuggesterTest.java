@@ -0,0 +1,175 @@
+package com.example.AniLog.Catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+class TitleSuggesterTest {
+
+    @Mock
+    private CatalogMediaRepository mediaRepository;
+
+    @Mock
+    private CatalogSyncService syncService;
+
+    private TitleSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        suggester = new TitleSuggester(mediaRepository, syncService);
+        suggester.index(List.of(
+                media(1, "Shingeki no Kyojin", "Attack on Titan", List.of("AoT"), 900),
+                media(2, "Shingeki no Kyojin Season 2", "Attack on Titan Season 2", List.of(), 700),
+                media(3, "Atashin'chi", null, List.of(), 50),
+                media(4, "Kimetsu no Yaiba", "Demon Slayer", List.of(), 800)));
+    }
+
+    @Test
+    void testSuggest_RankedByPopularity() {
+        assertEquals(List.of(1, 2, 3), ids(suggester.suggest("at", 10)));
+        assertEquals(List.of(1, 2), ids(suggester.suggest("attack on", 10)));
+        assertEquals(List.of(1, 2), ids(suggester.suggest("shingeki", 10)));
+    }
+
+    @Test
+    void testSuggest_MatchesSynonymsAndPrefixInsideEdge() {
+        assertEquals(List.of(1), ids(suggester.suggest("ao", 10)));
+        assertEquals(List.of(4), ids(suggester.suggest("Demon Sl", 10)));
+    }
+
+    @Test
+    void testSuggest_ReturnsDisplayFields() {
+        Suggestion suggestion = suggester.suggest("kimetsu", 1).get(0);
+
+        assertEquals(4, suggestion.getId());
+        assertEquals("Demon Slayer", suggestion.getTitle());
+        assertEquals("https://img/4.jpg", suggestion.getCoverImageUrl());
+    }
+
+    @Test
+    void testSuggest_RespectsLimitAndMisses() {
+        assertEquals(List.of(1), ids(suggester.suggest("a", 1)));
+        assertTrue(suggester.suggest("zzz", 10).isEmpty());
+        assertTrue(suggester.suggest("attack of", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testIndex_UpdatedRowReplacesKeysAndRank() {
+        suggester.index(List.of(media(3, "Attack Tactics", null, List.of(), 5000)));
+
+        assertEquals(List.of(3, 1, 2), ids(suggester.suggest("at", 10)));
+        assertTrue(suggester.suggest("atashin", 10).isEmpty());
+        assertEquals(4, suggester.size());
+    }
+
+    @Test
+    void testIndex_RemovingKeyCompactsTrie() {
+        suggester.index(List.of(media(2, "Unrelated", null, List.of(), 700)));
+
+        assertEquals(List.of(1), ids(suggester.suggest("attack on titan", 10)));
+        assertEquals(List.of(1, 3), ids(suggester.suggest("at", 10)));
+    }
+
+    @Test
+    void testIndex_TopListsMatchFullRanking() {
+        // Arrange: more titles per prefix than a top list holds, inserted out of rank order,
+        // then some re-ranked so lists are both merged into and rebuilt
+        List<CatalogMedia> rows = new ArrayList<>();
+        for (int id = 10; id < 70; id++) {
+            rows.add(media(id, "Title " + (id % 7) + " " + id, null, List.of(), (id * 37) % 101));
+        }
+        suggester.index(rows);
+        suggester.index(List.of(media(15, "Title 1 15", null, List.of(), 5000), media(20, "Title 6 20", null, List.of(), 0)));
+        rows.set(5, media(15, "Title 1 15", null, List.of(), 5000));
+        rows.set(10, media(20, "Title 6 20", null, List.of(), 0));
+
+        for (String prefix : List.of("t", "title", "title 1", "title 6 2")) {
+            // Act
+            List<Integer> suggested = ids(suggester.suggest(prefix, TitleSuggester.MAX_SUGGESTIONS));
+
+            // Assert
+            List<Integer> expected = rows.stream()
+                    .filter(row -> TitleIndex.normalize(row.getRomajiTitle()).startsWith(prefix))
+                    .sorted(Comparator.comparing(CatalogMedia::getPopularity).reversed().thenComparing(CatalogMedia::getId))
+                    .map(CatalogMedia::getId)
+                    .limit(TitleSuggester.MAX_SUGGESTIONS)
+                    .toList();
+            assertEquals(expected, suggested, prefix);
+        }
+    }
+
+    @Test
+    void testLoad_MarksReady() {
+        // Arrange
+        when(mediaRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(media(5, "Frieren", null, List.of(), 10))));
+        when(syncService.isBackfillComplete()).thenReturn(true);
+        assertFalse(suggester.isReady());
+
+        // Act
+        suggester.load();
+
+        // Assert
+        assertTrue(suggester.isReady());
+        assertEquals(List.of(5), ids(suggester.suggest("frie", 10)));
+    }
+
+    @Test
+    void testLoad_WaitsForBackfill() {
+        // Arrange
+        when(mediaRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        when(syncService.isBackfillComplete()).thenReturn(false);
+
+        // Act
+        suggester.load();
+
+        // Assert
+        assertFalse(suggester.isReady());
+        suggester.onBackfillComplete();
+        assertTrue(suggester.isReady());
+    }
+
+    @Test
+    void testLoad_FailureLeavesSuggesterNotReady() {
+        // Arrange
+        when(syncService.isBackfillComplete()).thenReturn(true);
+        when(mediaRepository.findAll(any(Pageable.class))).thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        suggester.load();
+
+        // Assert
+        assertFalse(suggester.isReady());
+    }
+
+    private static List<Integer> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getId).toList();
+    }
+
+    private static CatalogMedia media(int id, String romaji, String english, List<String> synonyms, int popularity) {
+        CatalogMedia media = CatalogMedia.create();
+        media.update(new AnilistResult(
+                id, "ANIME", new AnilistResult.Title(romaji, english, null), null, "TV", null, null, null, 70,
+                null, null, null, 2020, "https://img/" + id + ".jpg", "FINISHED", List.of(), List.of(), synonyms,
+                false, popularity, 0, 1),
+                Instant.now());
+        return media;
+    }
+}
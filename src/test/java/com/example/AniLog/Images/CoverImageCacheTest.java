@@ -0,0 +1,86 @@
+package com.example.AniLog.Images;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CoverImageCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPut_EvictsLeastRecentlyServedOverBudget() {
+        // Arrange
+        CoverImageCache cache = new CoverImageCache(directory, 250);
+        cache.put("a.jpg", new byte[100]);
+        cache.put("b.jpg", new byte[100]);
+        cache.get("a.jpg");
+
+        // Act
+        cache.put("c.jpg", new byte[100]);
+
+        // Assert
+        assertNotNull(cache.get("a.jpg"));
+        assertNull(cache.get("b.jpg"));
+        assertNotNull(cache.get("c.jpg"));
+        assertFalse(Files.exists(directory.resolve("b.jpg")));
+        assertEquals(200, cache.getTotalBytes());
+    }
+
+    @Test
+    void testPut_SkipsAcquiredFilesUntilReleased() {
+        // Arrange
+        CoverImageCache cache = new CoverImageCache(directory, 250);
+        cache.putAcquired("a.jpg", new byte[100]);
+        cache.put("b.jpg", new byte[100]);
+
+        // Act
+        cache.put("c.jpg", new byte[100]);
+        boolean keptWhileAcquired = Files.exists(directory.resolve("a.jpg"));
+        cache.release("a.jpg");
+        cache.put("d.jpg", new byte[100]);
+
+        // Assert
+        assertTrue(keptWhileAcquired);
+        assertFalse(Files.exists(directory.resolve("b.jpg")));
+        assertFalse(Files.exists(directory.resolve("a.jpg")));
+        assertEquals(200, cache.getTotalBytes());
+    }
+
+    @Test
+    void testLoad_PicksUpExistingFilesAndDropsTempFiles() throws Exception {
+        // Arrange
+        Files.write(directory.resolve("a.jpg"), new byte[40]);
+        Files.write(directory.resolve("cover123.tmp"), new byte[10]);
+
+        // Act
+        CoverImageCache cache = new CoverImageCache(directory, 1000);
+
+        // Assert
+        assertEquals(1, cache.size());
+        assertEquals(40, cache.getTotalBytes());
+        assertNotNull(cache.get("a.jpg"));
+        assertFalse(Files.exists(directory.resolve("cover123.tmp")));
+    }
+
+    @Test
+    void testGet_ForgetsFilesDeletedOutsideTheCache() throws Exception {
+        // Arrange
+        CoverImageCache cache = new CoverImageCache(directory, 1000);
+        Path path = cache.put("a.jpg", new byte[40]);
+        assertTrue(Files.exists(path));
+        Files.delete(path);
+
+        // Act & Assert
+        assertNull(cache.get("a.jpg"));
+        assertEquals(0, cache.getTotalBytes());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.AniLog.Images;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.AniLog.Images.CoverImageService.CoverImage;
+
+class CoverImageClientTest {
+
+    @Mock
+    private CoverImageService coverImageService;
+
+    @TempDir
+    Path directory;
+
+    private CoverImageClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        client = new CoverImageClient(coverImageService, Duration.ofHours(1));
+    }
+
+    @Test
+    void testGetCover_NotModifiedForWeakTagInList() throws Exception {
+        // Arrange
+        CoverImage image = new CoverImage(directory.resolve("abc.jpg"), "image/jpeg", "\"abc\"");
+        when(coverImageService.getCover(1, 100)).thenReturn(image);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/cover/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"abc\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        client.getCover(1, 100, request, response);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+        verify(coverImageService).release(image);
+    }
+
+    @Test
+    void testGetCover_HandsTheFileToSendfile() throws Exception {
+        // Arrange
+        Path path = Files.write(directory.resolve("abc.jpg"), new byte[] {1, 2, 3});
+        CoverImage image = new CoverImage(path, "image/jpeg", "\"abc\"");
+        when(coverImageService.getCover(1, 100)).thenReturn(image);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/cover/1");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        client.getCover(1, 100, request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(3, response.getContentLengthLong());
+        assertEquals(path.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(3L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        verify(coverImageService).release(image);
+    }
+
+    @Test
+    void testGetCover_StreamsAFreshCopyWhenTheFileVanished() throws Exception {
+        // Arrange
+        CoverImage gone = new CoverImage(directory.resolve("gone.jpg"), "image/jpeg", "\"abc\"");
+        Path path = Files.write(directory.resolve("abc.jpg"), new byte[] {1, 2, 3});
+        CoverImage fresh = new CoverImage(path, "image/jpeg", "\"abc\"");
+        when(coverImageService.getCover(1, 100)).thenReturn(gone, fresh);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/cover/1");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        client.getCover(1, 100, request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(new byte[] {1, 2, 3}, response.getContentAsByteArray());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        verify(coverImageService).release(gone);
+        verify(coverImageService).release(fresh);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.AniLog.Images;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Images.CoverImageService.CoverImage;
+import com.example.AniLog.Images.CoverImageService.CoverUnavailableException;
+import com.example.AniLog.Search.SearchInterface;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+class CoverImageServiceTest {
+
+    @Mock
+    private SearchInterface searchService;
+
+    @TempDir
+    Path directory;
+
+    private MockWebServer server;
+    private CoverImageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        server = new MockWebServer();
+        server.start();
+        service = new CoverImageService(searchService, new OkHttpClient(), new CoverImageCache(directory, 1 << 20), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void testGetCover_ResizesOnceAndServesFromCache() throws Exception {
+        // Arrange
+        String url = server.url("/cover/1.png").toString();
+        when(searchService.searchAniListById(1)).thenReturn(List.of(media(1, url)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(png(920, 1300))));
+
+        // Act
+        CoverImage first = service.getCover(1, 200);
+        CoverImage second = service.getCover(1, 230);
+
+        // Assert
+        BufferedImage resized = ImageIO.read(first.getPath().toFile());
+        assertEquals(230, resized.getWidth());
+        assertEquals(325, resized.getHeight());
+        assertEquals("image/jpeg", first.getContentType());
+        assertEquals(first.getPath(), second.getPath());
+        assertEquals(first.getEtag(), second.getEtag());
+        assertEquals(1, server.getRequestCount());
+        verify(searchService, times(1)).searchAniListById(1);
+    }
+
+    @Test
+    void testGetCover_OriginalKeepsSourceFormat() throws Exception {
+        // Arrange
+        String url = server.url("/cover/1.png").toString();
+        when(searchService.searchAniListById(1)).thenReturn(List.of(media(1, url)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(png(50, 70))));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(png(50, 70))));
+
+        // Act
+        CoverImage original = service.getCover(1, null);
+        CoverImage resized = service.getCover(1, 100);
+
+        // Assert
+        assertEquals("image/png", original.getContentType());
+        assertNotEquals(original.getEtag(), resized.getEtag());
+        // Never upscaled past the source
+        assertEquals(50, ImageIO.read(resized.getPath().toFile()).getWidth());
+    }
+
+    @Test
+    void testGetCover_ReplacedCoverIsPickedUpOnceTheUrlExpires() throws Exception {
+        // Arrange
+        service = new CoverImageService(searchService, new OkHttpClient(), new CoverImageCache(directory, 1 << 20), Duration.ZERO);
+        String oldUrl = server.url("/cover/1-old.png").toString();
+        String newUrl = server.url("/cover/1-new.png").toString();
+        when(searchService.searchAniListById(1))
+                .thenReturn(List.of(media(1, oldUrl)))
+                .thenReturn(List.of(media(1, newUrl)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(png(50, 70))));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(png(60, 80))));
+
+        // Act
+        CoverImage before = service.getCover(1, 100);
+        CoverImage after = service.getCover(1, 100);
+
+        // Assert
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertEquals(60, ImageIO.read(after.getPath().toFile()).getWidth());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void testGetCover_MissingMediaReturnsNull() {
+        // Arrange
+        when(searchService.searchAniListById(2)).thenReturn(List.of());
+
+        // Act & Assert
+        assertNull(service.getCover(2, 100));
+    }
+
+    @Test
+    void testGetCover_UpstreamErrorIsUnavailable() {
+        // Arrange
+        String url = server.url("/cover/3.jpg").toString();
+        when(searchService.searchAniListById(3)).thenReturn(List.of(media(3, url)));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        // Act & Assert
+        assertThrows(CoverUnavailableException.class, () -> service.getCover(3, 100));
+    }
+
+    @Test
+    void testSnapWidth() {
+        assertEquals(0, CoverImageService.snapWidth(null));
+        assertEquals(100, CoverImageService.snapWidth(1));
+        assertEquals(230, CoverImageService.snapWidth(200));
+        assertEquals(460, CoverImageService.snapWidth(460));
+        assertEquals(0, CoverImageService.snapWidth(2000));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static AnilistResult media(int id, String coverUrl) {
+        return new AnilistResult(
+                id, "ANIME", new AnilistResult.Title("Title", null, null), null, "TV", null, null, null, 70,
+                null, null, null, 2020, coverUrl, "FINISHED", List.of(), List.of(), List.of(), false);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.AniLog.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.example.AniLog.Profile.WatchedItem;
+
+class ExportReaderTest {
+
+    private static final String MAL_EXPORT = """
+            <?xml version="1.0" encoding="UTF-8" ?>
+            <myanimelist>
+                <myinfo>
+                    <user_name>someone</user_name>
+                    <user_export_type>1</user_export_type>
+                </myinfo>
+                <anime>
+                    <series_animedb_id>5114</series_animedb_id>
+                    <series_title><![CDATA[Fullmetal Alchemist: Brotherhood]]></series_title>
+                    <series_episodes>64</series_episodes>
+                    <my_watched_episodes>64</my_watched_episodes>
+                    <my_start_date>2020-03-00</my_start_date>
+                    <my_finish_date>2020-04-12</my_finish_date>
+                    <my_score>10</my_score>
+                    <my_status>Completed</my_status>
+                    <my_comments><![CDATA[]]></my_comments>
+                </anime>
+                <manga>
+                    <manga_mangadb_id>2</manga_mangadb_id>
+                    <manga_title><![CDATA[Berserk]]></manga_title>
+                    <manga_chapters>0</manga_chapters>
+                    <my_read_chapters>120</my_read_chapters>
+                    <my_start_date>0000-00-00</my_start_date>
+                    <my_finish_date>0000-00-00</my_finish_date>
+                    <my_score>0</my_score>
+                    <my_status>Plan to Read</my_status>
+                </manga>
+            </myanimelist>
+            """;
+
+    private static final String ANILIST_EXPORT = """
+            {
+              "user": {"name": "someone", "options": {"entries": 3}},
+              "lists": [
+                {
+                  "name": "Watching",
+                  "entries": [
+                    {
+                      "id": 900,
+                      "mediaId": 21,
+                      "status": "CURRENT",
+                      "progress": 1100,
+                      "score": 85,
+                      "startedAt": {"year": 2019, "month": 7, "day": null},
+                      "completedAt": {"year": null, "month": null, "day": null},
+                      "notes": "Still going",
+                      "media": {
+                        "id": 21,
+                        "idMal": 21,
+                        "type": "ANIME",
+                        "title": {"romaji": "ONE PIECE", "english": "ONE PIECE", "userPreferred": "ONE PIECE"},
+                        "episodes": null,
+                        "coverImage": {"large": "https://img.example/21.jpg"}
+                      }
+                    }
+                  ]
+                },
+                {
+                  "name": "Reading",
+                  "entries": [
+                    {"mediaId": 30002, "status": "PLANNING", "score": 0, "media": {"type": "MANGA", "chapters": 380}}
+                  ]
+                }
+              ]
+            }
+            """;
+
+    @Test
+    void testMalExport_MapsAnimeAndMangaEntries() throws IOException {
+        // Arrange
+        MalExportReader reader = new MalExportReader(stream(MAL_EXPORT));
+
+        // Act
+        ImportEntry anime = reader.next();
+        ImportEntry manga = reader.next();
+        ImportEntry end = reader.next();
+        reader.close();
+
+        // Assert
+        assertEquals(WatchedItem.MediaType.ANIME, anime.type);
+        assertEquals(5114, anime.malId);
+        assertEquals("Fullmetal Alchemist: Brotherhood", anime.title);
+        assertEquals(64, anime.total);
+        assertEquals(64, anime.progress);
+        assertEquals(LocalDateTime.of(2020, 3, 1, 0, 0), anime.startedAt);
+        assertEquals(LocalDateTime.of(2020, 4, 12, 0, 0), anime.completedAt);
+        assertEquals(10.0, anime.rating);
+        assertEquals(WatchedItem.WatchStatus.COMPLETED, anime.status);
+        assertNull(anime.notes);
+
+        assertEquals(WatchedItem.MediaType.MANGA, manga.type);
+        assertNull(manga.total);
+        assertNull(manga.startedAt);
+        assertNull(manga.rating);
+        WatchedItem item = manga.toWatchedItem();
+        assertEquals(WatchedItem.WatchStatus.PLAN_TO_READ, item.getStatus());
+        assertEquals(120, item.getChaptersRead());
+        assertNull(end);
+    }
+
+    @Test
+    void testMalExport_RejectsExternalEntities() throws IOException {
+        // Arrange
+        String xml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE myanimelist [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <myanimelist><anime><series_title>&secret;</series_title></anime></myanimelist>
+                """;
+        MalExportReader reader = new MalExportReader(stream(xml));
+
+        // Act & Assert
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void testAniListExport_ReadsEntriesFromEveryList() throws IOException {
+        // Arrange
+        AniListExportReader reader = new AniListExportReader(stream(ANILIST_EXPORT));
+
+        // Act
+        ImportEntry watching = reader.next();
+        ImportEntry planned = reader.next();
+        ImportEntry end = reader.next();
+        reader.close();
+
+        // Assert
+        assertEquals(21, watching.anilistId);
+        assertEquals(21, watching.malId);
+        assertEquals(WatchedItem.MediaType.ANIME, watching.type);
+        assertEquals("ONE PIECE", watching.title);
+        assertEquals("https://img.example/21.jpg", watching.coverImageUrl);
+        assertEquals(1100, watching.progress);
+        assertEquals(8.5, watching.rating);
+        assertEquals(LocalDateTime.of(2019, 7, 1, 0, 0), watching.startedAt);
+        assertNull(watching.completedAt);
+        assertEquals(WatchedItem.WatchStatus.WATCHING, watching.status);
+        assertEquals("Still going", watching.notes);
+
+        assertEquals(30002, planned.anilistId);
+        assertNull(planned.title);
+        assertEquals(380, planned.total);
+        assertNull(planned.rating);
+        assertEquals(WatchedItem.WatchStatus.PLAN_TO_READ, planned.toWatchedItem().getStatus());
+        assertNull(end);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.AniLog.Import;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistResult;
+import com.example.AniLog.Anilist.RateLimitGovernor;
+import com.example.AniLog.Profile.WatchedItem;
+import com.example.AniLog.Profile.WatchedItemsService;
+
+class ImportServiceTest {
+
+    @Mock
+    private AniListClient mockAniListClient;
+
+    @Mock
+    private WatchedItemsService mockWatchedItemsService;
+
+    @TempDir
+    Path tempDir;
+
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Run imports on the calling thread so the job is finished when submit returns
+        importService = new ImportService(mockAniListClient, mockWatchedItemsService, Runnable::run, Duration.ofHours(1),
+            0, Duration.ZERO);
+        when(mockAniListClient.getRateLimitGovernor()).thenReturn(new RateLimitGovernor(90, Duration.ofSeconds(30)));
+        when(mockWatchedItemsService.bulkAddWatchedItems(any(), anyList()))
+            .thenAnswer(invocation -> {
+                List<WatchedItem> items = invocation.getArgument(1);
+                return new WatchedItemsService.BulkImportResult(items.size(), 0, 0);
+            });
+    }
+
+    @Test
+    void testSubmit_ResolvesMalIdsAndWritesInChunks() throws IOException {
+        // Arrange
+        int entries = ImportService.CHUNK_SIZE + 20;
+        Path file = malExport(entries);
+        when(mockAniListClient.executeQuery(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(1);
+            List<AnilistResult> found = new ArrayList<>();
+            for (Object malId : (List<?>) variables.get("ids")) {
+                found.add(media(100000 + (Integer) malId, (Integer) malId));
+            }
+            return found;
+        });
+
+        // Act
+        ImportJob job = importService.submit(1L, file);
+
+        // Assert
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(entries, job.getProcessed());
+        assertEquals(entries, job.getInserted());
+        assertFalse(Files.exists(file));
+
+        // 500 + 20 MAL IDs resolve in ceil(500/50) + 1 lookups
+        verify(mockAniListClient, times(11)).executeQuery(anyString(), anyMap());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WatchedItem>> written = ArgumentCaptor.forClass(List.class);
+        verify(mockWatchedItemsService, times(2)).bulkAddWatchedItems(eq(1L), written.capture());
+        assertEquals(ImportService.CHUNK_SIZE, written.getAllValues().get(0).size());
+        WatchedItem first = written.getAllValues().get(0).get(0);
+        assertEquals(100001, first.getAnilistId());
+        assertEquals("Title 1", first.getTitle());
+        assertEquals("https://img.example/1.jpg", first.getCoverImageUrl());
+        assertEquals(WatchedItem.WatchStatus.WATCHING, first.getStatus());
+        assertEquals(3, first.getEpisodesWatched());
+    }
+
+    @Test
+    void testSubmit_FlagsEntriesAniListCannotResolve() throws IOException {
+        // Arrange
+        Path file = gzip(malExport(2));
+        when(mockAniListClient.executeQuery(anyString(), anyMap())).thenReturn(Collections.emptyList());
+
+        // Act
+        ImportJob job = importService.submit(1L, file);
+
+        // Assert: retried, then reported instead of written without an AniList ID
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        verify(mockAniListClient, times(ImportService.LOOKUP_ATTEMPTS)).executeQuery(anyString(), anyMap());
+        verify(mockWatchedItemsService, never()).bulkAddWatchedItems(any(), anyList());
+        assertEquals(2, job.getProcessed());
+        assertEquals(2, job.getUnresolved());
+        assertEquals(List.of("Title 1 (MAL 1)", "Title 2 (MAL 2)"), job.getUnresolvedEntries());
+    }
+
+    @Test
+    void testSubmit_RetriesALookupThatCameBackEmpty() throws IOException {
+        // Arrange
+        Path file = malExport(1);
+        when(mockAniListClient.executeQuery(anyString(), anyMap()))
+            .thenReturn(Collections.emptyList())
+            .thenReturn(List.of(media(100001, 1)));
+
+        // Act
+        ImportJob job = importService.submit(1L, file);
+
+        // Assert
+        verify(mockAniListClient, times(2)).executeQuery(anyString(), anyMap());
+        assertEquals(0, job.getUnresolved());
+        assertEquals(1, job.getInserted());
+    }
+
+    @Test
+    void testSubmit_LookupsLeaveTheReserveToSearches() throws IOException {
+        // Arrange
+        ImportService reserved = new ImportService(mockAniListClient, mockWatchedItemsService, Runnable::run,
+            Duration.ofHours(1), 1000, Duration.ZERO);
+
+        // Act
+        ImportJob job = reserved.submit(1L, malExport(3));
+
+        // Assert
+        verify(mockAniListClient, never()).executeQuery(anyString(), anyMap());
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(3, job.getUnresolved());
+    }
+
+    @Test
+    void testSubmit_FullQueueRejectsWithoutKeepingTheJob() throws Exception {
+        // Arrange: one worker busy and the one queue slot taken
+        ExecutorService executor = ImportService.newExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(() -> { });
+        ImportService bounded = new ImportService(mockAniListClient, mockWatchedItemsService, executor,
+            Duration.ofHours(1), 0, Duration.ZERO);
+
+        try {
+            // Act & Assert: a rejected job does not count as the user's import in progress
+            assertThrows(RejectedExecutionException.class, () -> bounded.submit(1L, malExport(1)));
+            assertThrows(RejectedExecutionException.class, () -> bounded.submit(1L, malExport(1)));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSubmit_AniListExportOnlyLooksUpEntriesMissingDetails() throws IOException {
+        // Arrange
+        Path file = write("""
+                {"lists": [{"entries": [
+                  {"mediaId": 1, "status": "COMPLETED", "media": {"type": "ANIME", "title": {"romaji": "Cowboy Bebop"},
+                    "episodes": 26, "coverImage": {"extraLarge": "https://img.example/1.jpg"}}},
+                  {"mediaId": 30002, "status": "CURRENT"}
+                ]}]}
+                """);
+        when(mockAniListClient.executeQuery(anyString(), anyMap())).thenReturn(List.of(manga(30002)));
+
+        // Act
+        ImportJob job = importService.submit(1L, file);
+
+        // Assert
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(mockAniListClient).executeQuery(anyString(), variables.capture());
+        assertEquals(List.of(30002), variables.getValue().get("ids"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WatchedItem>> written = ArgumentCaptor.forClass(List.class);
+        verify(mockWatchedItemsService).bulkAddWatchedItems(eq(1L), written.capture());
+        WatchedItem manga = written.getValue().get(1);
+        assertEquals("Berserk", manga.getTitle());
+        assertEquals(WatchedItem.MediaType.MANGA, manga.getType());
+        assertEquals(WatchedItem.WatchStatus.READING, manga.getStatus());
+    }
+
+    @Test
+    void testSubmit_UnrecognisedFileFailsTheJob() throws IOException {
+        // Arrange
+        Path file = write("title,status\nBebop,COMPLETED\n");
+
+        // Act
+        ImportJob job = importService.submit(1L, file);
+
+        // Assert
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        verify(mockWatchedItemsService, never()).bulkAddWatchedItems(any(), anyList());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testSubmit_RejectsASecondImportWhileOneIsRunning() throws IOException {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        ImportService queuedService = new ImportService(mockAniListClient, mockWatchedItemsService, queued::add,
+            Duration.ofHours(1), 0, Duration.ZERO);
+        ImportJob first = queuedService.submit(1L, malExport(1));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> queuedService.submit(1L, malExport(1)));
+        assertSame(first, queuedService.getJob(1L, first.getId()));
+        assertNull(queuedService.getJob(2L, first.getId()));
+        assertEquals(ImportJob.State.QUEUED, first.getState());
+    }
+
+    private Path malExport(int entries) throws IOException {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<myanimelist>\n");
+        for (int i = 1; i <= entries; i++) {
+            xml.append("<anime><series_animedb_id>").append(i).append("</series_animedb_id>")
+                .append("<series_title>Title ").append(i).append("</series_title>")
+                .append("<my_watched_episodes>3</my_watched_episodes>")
+                .append("<my_status>Watching</my_status></anime>\n");
+        }
+        return write(xml.append("</myanimelist>\n").toString());
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "export", ".upload");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private Path gzip(Path file) throws IOException {
+        Path compressed = Files.createTempFile(tempDir, "export", ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(file, out);
+        }
+        return compressed;
+    }
+
+    private static AnilistResult media(int id, int idMal) {
+        return new AnilistResult(id, "ANIME", new AnilistResult.Title(null, null, null), null, "TV", 12, null, null,
+                null, null, null, null, null, "https://img.example/" + idMal + ".jpg", "FINISHED",
+                List.of(), List.of(), List.of(), false, null, null, null, idMal);
+    }
+
+    private static AnilistResult manga(int id) {
+        return new AnilistResult(id, "MANGA", new AnilistResult.Title("Berserk", null, null), null, "MANGA", null,
+                380, null, null, null, null, null, null, "https://img.example/" + id + ".jpg", "RELEASING",
+                List.of(), List.of(), List.of(), false, null, null, null, null);
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.AniLog.Profile;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
@@ -17,6 +21,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -41,6 +47,7 @@ class ListClientTest {
         testItem.setType(UserListItem.MediaType.ANIME);
         testItem.setAnilistId(38000);
         testItem.setCoverImageUrl("https://example.com/image.jpg");
+        testItem.setAddedDate(LocalDateTime.of(2024, 6, 2, 12, 0));
 
         UserListItem testItem2 = new UserListItem();
         testItem2.setId(2L);
@@ -49,6 +56,7 @@ class ListClientTest {
         testItem2.setType(UserListItem.MediaType.ANIME);
         testItem2.setAnilistId(16498);
         testItem2.setCoverImageUrl("https://example.com/image2.jpg");
+        testItem2.setAddedDate(LocalDateTime.of(2024, 6, 1, 12, 0));
 
         testList = Arrays.asList(testItem, testItem2);
     }
@@ -58,7 +66,7 @@ class ListClientTest {
     void testGetListSuccess() {
         when(listService.getUserList(1L, "ANIME")).thenReturn(testList);
 
-        ResponseEntity<?> response = listClient.getList(1L, "ANIME");
+        ResponseEntity<?> response = listClient.getList(1L, "ANIME", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testList, response.getBody());
@@ -69,7 +77,7 @@ class ListClientTest {
     void testGetListMangaSuccess() {
         when(listService.getUserList(1L, "MANGA")).thenReturn(testList);
 
-        ResponseEntity<?> response = listClient.getList(1L, "MANGA");
+        ResponseEntity<?> response = listClient.getList(1L, "MANGA", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testList, response.getBody());
@@ -78,7 +86,7 @@ class ListClientTest {
 
     @Test
     void testGetListNullUserId() {
-        ResponseEntity<?> response = listClient.getList(null, "ANIME");
+        ResponseEntity<?> response = listClient.getList(null, "ANIME", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -88,7 +96,7 @@ class ListClientTest {
 
     @Test
     void testGetListNullListType() {
-        ResponseEntity<?> response = listClient.getList(1L, null);
+        ResponseEntity<?> response = listClient.getList(1L, null, null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -98,7 +106,7 @@ class ListClientTest {
 
     @Test
     void testGetListInvalidType() {
-        ResponseEntity<?> response = listClient.getList(1L, "INVALID");
+        ResponseEntity<?> response = listClient.getList(1L, "INVALID", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -110,7 +118,7 @@ class ListClientTest {
     void testGetListEmptyList() {
         when(listService.getUserList(1L, "ANIME")).thenReturn(Arrays.asList());
 
-        ResponseEntity<?> response = listClient.getList(1L, "ANIME");
+        ResponseEntity<?> response = listClient.getList(1L, "ANIME", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Arrays.asList(), response.getBody());
@@ -290,4 +298,41 @@ class ListClientTest {
         assertEquals(HttpStatus.OK, response2.getStatusCode());
         verify(listService, times(2)).removeItemFromList(any());
     }
+
+    @Test
+    void testGetListPaged() {
+        Window<UserListItem> page = Window.from(testList, index -> ScrollPosition.keyset(), true);
+        when(listService.getUserListPage(1L, "ANIME", null, 2)).thenReturn(page);
+
+        ResponseEntity<?> response = listClient.getList(1L, "ANIME", 2, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testList, response.getBody());
+        KeysetCursor next = KeysetCursor.decode(response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(LocalDateTime.of(2024, 6, 1, 12, 0), next.getDate());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test
+    void testGetListLastPageHasNoCursor() {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.of(2024, 6, 1, 12, 0), 2L);
+        Window<UserListItem> page = Window.from(List.of(), index -> ScrollPosition.keyset(), false);
+        when(listService.getUserListPage(any(), any(), any(), eq(KeysetCursor.DEFAULT_LIMIT))).thenReturn(page);
+
+        ResponseEntity<?> response = listClient.getList(1L, "ANIME", null, after.encode());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst("X-Next-Cursor"));
+        ArgumentCaptor<KeysetCursor> cursor = ArgumentCaptor.forClass(KeysetCursor.class);
+        verify(listService).getUserListPage(eq(1L), eq("ANIME"), cursor.capture(), eq(KeysetCursor.DEFAULT_LIMIT));
+        assertEquals(after.getDate(), cursor.getValue().getDate());
+        assertEquals(2L, cursor.getValue().getId());
+    }
+
+    @Test
+    void testGetListPagedRejectsBadInput() {
+        assertEquals(HttpStatus.BAD_REQUEST, listClient.getList(1L, "ANIME", null, "not-a-cursor").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, listClient.getList(1L, "ANIME", 0, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, listClient.getList(1L, "ANIME", KeysetCursor.MAX_LIMIT + 1, null).getStatusCode());
+    }
 }
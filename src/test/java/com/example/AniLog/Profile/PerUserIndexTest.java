@@ -0,0 +1,173 @@
+package com.example.AniLog.Profile;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import org.flywaydb.core.Flyway;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Applies the migrations to a real Postgres and EXPLAINs the SQL behind each repository
+// finder. Sequential scans are priced out, so any usable index is chosen; a plan that
+// still has a Seq Scan means the finder has no index. Skipped when Docker is unavailable.
+@Testcontainers(disabledWithoutDocker = true)
+class PerUserIndexTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+            .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+            .load()
+            .migrate();
+
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // Enough rows across users for realistic statistics
+            statement.execute("""
+                INSERT INTO watched_items (user_id, title, type, watched_date, anilist_id, status)
+                SELECT n % 50, 'Title ' || n, CASE WHEN n % 3 = 0 THEN 'MANGA' ELSE 'ANIME' END,
+                       TIMESTAMP '2024-01-01' + n * INTERVAL '1 hour', n,
+                       (ARRAY['WATCHING', 'COMPLETED', 'ON_HOLD', 'DROPPED', 'PLAN_TO_WATCH'])[n % 5 + 1]
+                FROM generate_series(1, 5000) AS n
+                """);
+            statement.execute("""
+                INSERT INTO user_list_item (user_id, title, type, added_date, anilist_id)
+                SELECT n % 50, 'Title ' || n, CASE WHEN n % 3 = 0 THEN 'MANGA' ELSE 'ANIME' END,
+                       TIMESTAMP '2024-01-01' + n * INTERVAL '1 hour', n
+                FROM generate_series(1, 5000) AS n
+                """);
+            statement.execute("""
+                INSERT INTO follow (follower_id, followee_id, status)
+                SELECT n % 50, n, CASE WHEN n % 2 = 0 THEN 'FOLLOWING' ELSE 'REQUESTED' END
+                FROM generate_series(1, 5000) AS n
+                """);
+            statement.execute("ANALYZE");
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    static Stream<Arguments> finderQueries() {
+        return Stream.of(
+            Arguments.of("WatchedItemsRepository.findByUserId",
+                "SELECT * FROM watched_items WHERE user_id = 7"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndType",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND type = 'ANIME'"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndStatus",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND status = 'WATCHING'"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndTypeAndStatus",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND type = 'ANIME' AND status = 'WATCHING'"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndTitleAndType",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND title = 'Title 7' AND type = 'ANIME'"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndAnilistId",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND anilist_id = 7"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndStatusOrderByCompletedDateDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND status = 'COMPLETED' ORDER BY completed_date DESC"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndAnilistIdIn",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND anilist_id IN (7, 57, 107)"),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndTitleIn",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND title IN ('Title 7', 'Title 57')"),
+            Arguments.of("WatchedItemsRepository.findByUserIdOrderByWatchedDateDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 ORDER BY watched_date DESC"),
+            Arguments.of("ListsRepository.findByUserId",
+                "SELECT * FROM user_list_item WHERE user_id = 7"),
+            Arguments.of("ListsRepository.findByUserIdAndType",
+                "SELECT * FROM user_list_item WHERE user_id = 7 AND type = 'ANIME'"),
+            Arguments.of("ListsRepository.findByUserIdAndTitleAndType",
+                "SELECT * FROM user_list_item WHERE user_id = 7 AND title = 'Title 7' AND type = 'ANIME'"),
+            Arguments.of("ListsRepository.findByUserIdAndAnilistId",
+                "SELECT * FROM user_list_item WHERE user_id = 7 AND anilist_id = 7"),
+            Arguments.of("FollowRepository.getByFollowerIdAndFolloweeId",
+                "SELECT * FROM follow WHERE follower_id = 7 AND followee_id = 57"),
+            Arguments.of("FollowRepository.getByFollowerIdAndStatus",
+                "SELECT * FROM follow WHERE follower_id = 7 AND status = 'FOLLOWING'"),
+            Arguments.of("FollowRepository.getByFollowerId",
+                "SELECT * FROM follow WHERE follower_id = 7"),
+            Arguments.of("FollowRepository.getByFolloweeId",
+                "SELECT * FROM follow WHERE followee_id = 57")
+        );
+    }
+
+    // Keyset pages must also come off the index in order. Sorting is priced out the
+    // same way, so a Sort node means no index provides the order.
+    static Stream<Arguments> keysetQueries() {
+        String watchedAfter = "(watched_date < TIMESTAMP '2024-03-01' OR (watched_date = TIMESTAMP '2024-03-01' AND id < 1000))";
+        String watchedOrder = " ORDER BY watched_date DESC, id DESC LIMIT 51";
+        return Stream.of(
+            Arguments.of("WatchedItemsRepository.findByUserIdOrderByWatchedDateDescIdDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND " + watchedAfter + watchedOrder),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndTypeOrderByWatchedDateDescIdDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND type = 'ANIME' AND " + watchedAfter + watchedOrder),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndStatusOrderByWatchedDateDescIdDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND status = 'WATCHING' AND " + watchedAfter + watchedOrder),
+            Arguments.of("WatchedItemsRepository.findByUserIdAndTypeAndStatusOrderByWatchedDateDescIdDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 AND type = 'ANIME' AND status = 'WATCHING' AND "
+                    + watchedAfter + watchedOrder),
+            Arguments.of("WatchedItemsRepository.streamByUserIdOrderByWatchedDateDescIdDesc",
+                "SELECT * FROM watched_items WHERE user_id = 7 ORDER BY watched_date DESC, id DESC"),
+            Arguments.of("ListsRepository.findByUserIdAndTypeOrderByAddedDateDescIdDesc",
+                "SELECT * FROM user_list_item WHERE user_id = 7 AND type = 'ANIME' AND "
+                    + "(added_date < TIMESTAMP '2024-03-01' OR (added_date = TIMESTAMP '2024-03-01' AND id < 1000))"
+                    + " ORDER BY added_date DESC, id DESC LIMIT 51")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finderQueries")
+    void testFinderUsesAnIndex(String finder, String sql) throws SQLException {
+        // Act
+        String plan = explain(sql);
+
+        // Assert
+        assertFalse(plan.contains("Seq Scan"), finder + " falls back to a sequential scan:\n" + plan);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("keysetQueries")
+    void testKeysetPageReadsTheIndexInOrder(String finder, String sql) throws SQLException {
+        // Act
+        String plan;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_sort = off");
+            plan = explain(sql);
+            statement.execute("RESET enable_sort");
+        }
+
+        // Assert
+        assertFalse(plan.contains("Seq Scan"), finder + " falls back to a sequential scan:\n" + plan);
+        assertFalse(plan.contains("Sort"), finder + " sorts instead of reading the index in order:\n" + plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.AniLog.Profile;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Runs the migrations the way production does: over tables Hibernate already created,
+// baselined at version 0. Each test gets its own schema. Skipped when Docker is unavailable.
+@Testcontainers(disabledWithoutDocker = true)
+class PerUserMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void connect() throws SQLException {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testMigrate_MergesDuplicatesIntoTheOldestRow() throws SQLException {
+        // Arrange
+        createExistingTables("merged");
+        execute("""
+            INSERT INTO merged.watched_items (id, user_id, title, type, watched_date, anilist_id,
+                                              episodes_watched, total_episodes, status, rating, notes)
+            VALUES (1, 1, 'Frieren', 'ANIME', TIMESTAMP '2024-01-01', 10, 3, NULL, 'WATCHING', NULL, 'great'),
+                   (2, 1, 'Frieren', 'ANIME', TIMESTAMP '2024-03-01', 10, 28, 28, 'COMPLETED', 9.5, NULL),
+                   (3, 1, 'Dandadan', 'ANIME', TIMESTAMP '2024-02-01', 11, 1, 12, 'WATCHING', NULL, NULL),
+                   (4, 2, 'Frieren', 'ANIME', TIMESTAMP '2024-02-01', 10, 5, 28, 'WATCHING', 7.0, NULL);
+            INSERT INTO merged.follow (id, follower_id, followee_id, status)
+            VALUES (1, 1, 2, 'REQUESTED'), (2, 1, 2, 'FOLLOWING'), (3, 2, 1, 'REQUESTED');
+            """);
+
+        // Act
+        migrate("merged");
+
+        // Assert
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("""
+                 SELECT id, episodes_watched, total_episodes, status, rating, notes, watched_date
+                 FROM merged.watched_items WHERE user_id = 1 AND anilist_id = 10
+                 """)) {
+            assertTrue(rows.next());
+            assertEquals(1, rows.getLong("id"));
+            assertEquals(28, rows.getInt("episodes_watched"));
+            assertEquals(28, rows.getInt("total_episodes"));
+            assertEquals("COMPLETED", rows.getString("status"));
+            assertEquals(9.5, rows.getDouble("rating"));
+            assertEquals("great", rows.getString("notes"));
+            assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), rows.getTimestamp("watched_date").toLocalDateTime());
+            assertFalse(rows.next());
+        }
+        assertEquals(3, count("SELECT COUNT(*) FROM merged.watched_items"));
+        assertEquals(2, count("SELECT COUNT(*) FROM merged.follow"));
+        assertEquals(1, count("SELECT COUNT(*) FROM merged.follow WHERE follower_id = 1 AND status = 'FOLLOWING'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM merged.follow WHERE follower_id = 2 AND status = 'REQUESTED'"));
+    }
+
+    @Test
+    void testMigrate_ConflictingNotesStopTheMigration() throws SQLException {
+        // Arrange
+        createExistingTables("conflict");
+        execute("""
+            INSERT INTO conflict.watched_items (id, user_id, title, type, watched_date, anilist_id, notes)
+            VALUES (1, 1, 'Frieren', 'ANIME', TIMESTAMP '2024-01-01', 10, 'first watch'),
+                   (2, 1, 'Frieren', 'ANIME', TIMESTAMP '2024-03-01', 10, 'rewatch');
+            """);
+
+        // Act
+        FlywayException e = assertThrows(FlywayException.class, () -> migrate("conflict"));
+
+        // Assert
+        assertTrue(e.getMessage().contains("user 1, anilist_id 10 (ids 1, 2)"), e.getMessage());
+        assertEquals(2, count("SELECT COUNT(*) FROM conflict.watched_items"));
+        assertNull(indexNamed("conflict", "ux_watched_items_user_anilist"));
+    }
+
+    private static void migrate(String schema) {
+        Flyway.configure()
+            .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+            .schemas(schema)
+            .baselineOnMigrate(true)
+            .baselineVersion("0")
+            .load()
+            .migrate();
+    }
+
+    // The tables as Hibernate's ddl-auto created them before Flyway was introduced
+    private static void createExistingTables(String schema) throws SQLException {
+        execute("CREATE SCHEMA " + schema + ";"
+            + "CREATE TABLE " + schema + """
+            .watched_items (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                user_id BIGINT NOT NULL,
+                title VARCHAR(255) NOT NULL,
+                type VARCHAR(255) NOT NULL,
+                cover_image_url VARCHAR(255),
+                watched_date TIMESTAMP(6) NOT NULL,
+                completed_date TIMESTAMP(6),
+                anilist_id INTEGER,
+                episodes_watched INTEGER,
+                total_episodes INTEGER,
+                chapters_read INTEGER,
+                total_chapters INTEGER,
+                status VARCHAR(255),
+                rating FLOAT(53),
+                notes VARCHAR(1000)
+            );
+            """
+            + "CREATE TABLE " + schema + """
+            .user_list_item (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                user_id BIGINT NOT NULL,
+                title VARCHAR(255) NOT NULL,
+                type VARCHAR(255) NOT NULL,
+                cover_image_url VARCHAR(255),
+                added_date TIMESTAMP(6) NOT NULL,
+                anilist_id INTEGER
+            );
+            """
+            + "CREATE TABLE " + schema + """
+            .follow (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                follower_id BIGINT NOT NULL,
+                followee_id BIGINT NOT NULL,
+                status VARCHAR(255) NOT NULL
+            );
+            """);
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static String indexNamed(String schema, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                 "SELECT indexname FROM pg_indexes WHERE schemaname = '" + schema + "' AND indexname = '" + name + "'")) {
+            return rows.next() ? rows.getString(1) : null;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.AniLog.Profile;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Runs the INSERT ... ON CONFLICT upserts against a migrated Postgres, whose unique
+// (user_id, anilist_id) index they rely on. Skipped when Docker is unavailable.
+@Testcontainers(disabledWithoutDocker = true)
+class WatchedItemsBulkRepositoryImplTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withUrlParam("reWriteBatchedInserts", "true");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private WatchedItemsBulkRepositoryImpl repository;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+            .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+            .load()
+            .migrate();
+        jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE watched_items RESTART IDENTITY");
+        repository = new WatchedItemsBulkRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void testUpsert_InsertsEveryColumn() {
+        // Arrange
+        WatchedItem anime = item(1L, 5114, "Fullmetal Alchemist: Brotherhood", WatchedItem.MediaType.ANIME);
+        anime.setEpisodesWatched(64);
+        anime.setTotalEpisodes(64);
+        anime.setStatus(WatchedItem.WatchStatus.COMPLETED);
+        anime.setRating(10.0);
+        anime.setNotes("Rewatch someday");
+        anime.setCompletedDate(LocalDateTime.of(2024, 2, 1, 12, 0));
+        anime.setCoverImageUrl("https://img.example/5114.jpg");
+        WatchedItem manga = item(1L, 30002, "Berserk", WatchedItem.MediaType.MANGA);
+        manga.setChaptersRead(120);
+
+        // Act
+        WatchedItemsBulkRepository.UpsertResult result = repository.upsert(List.of(anime, manga));
+
+        // Assert
+        assertEquals(2, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertEquals(2, count());
+        Map<String, Object> row = row(1L, 5114);
+        assertEquals("Fullmetal Alchemist: Brotherhood", row.get("title"));
+        assertEquals("ANIME", row.get("type"));
+        assertEquals(64, row.get("episodes_watched"));
+        assertEquals(64, row.get("total_episodes"));
+        assertEquals("COMPLETED", row.get("status"));
+        assertEquals(10.0, row.get("rating"));
+        assertEquals("Rewatch someday", row.get("notes"));
+        assertEquals("https://img.example/5114.jpg", row.get("cover_image_url"));
+        assertEquals(LocalDateTime.of(2024, 2, 1, 12, 0), timestamp(row, "completed_date"));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 0), timestamp(row, "watched_date"));
+        Map<String, Object> mangaRow = row(1L, 30002);
+        assertEquals(120, mangaRow.get("chapters_read"));
+        assertNull(mangaRow.get("status"));
+        assertNull(mangaRow.get("rating"));
+    }
+
+    @Test
+    void testUpsert_MergesIntoRowAddedMeanwhile() {
+        // Arrange: a single add lands after the import looked for existing rows
+        WatchedItem stored = item(1L, 5114, "Fullmetal Alchemist: Brotherhood", WatchedItem.MediaType.ANIME);
+        stored.setEpisodesWatched(10);
+        stored.setStatus(WatchedItem.WatchStatus.WATCHING);
+        stored.setWatchedDate(LocalDateTime.of(2023, 12, 1, 9, 0));
+        repository.upsert(List.of(stored));
+        long id = idOf(1L, 5114);
+
+        WatchedItem imported = item(1L, 5114, "Fullmetal Alchemist: Brotherhood", WatchedItem.MediaType.ANIME);
+        imported.setEpisodesWatched(64);
+        imported.setStatus(WatchedItem.WatchStatus.COMPLETED);
+        imported.setCompletedDate(LocalDateTime.of(2024, 3, 1, 20, 0));
+        WatchedItem insert = item(1L, 21, "One Piece", WatchedItem.MediaType.ANIME);
+
+        // Act
+        WatchedItemsBulkRepository.UpsertResult result = repository.upsert(List.of(imported, insert));
+
+        // Assert
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, count());
+        Map<String, Object> row = row(1L, 5114);
+        assertEquals(id, ((Number) row.get("id")).longValue());
+        assertEquals(64, row.get("episodes_watched"));
+        assertEquals("COMPLETED", row.get("status"));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 20, 0), timestamp(row, "completed_date"));
+        assertEquals(LocalDateTime.of(2023, 12, 1, 9, 0), timestamp(row, "watched_date"));
+    }
+
+    @Test
+    void testUpsert_NullFieldsKeepStoredValues() {
+        // Arrange
+        WatchedItem stored = item(1L, 5114, "Fullmetal Alchemist: Brotherhood", WatchedItem.MediaType.ANIME);
+        stored.setEpisodesWatched(30);
+        stored.setTotalEpisodes(64);
+        stored.setStatus(WatchedItem.WatchStatus.WATCHING);
+        stored.setRating(9.0);
+        stored.setNotes("Best so far");
+        stored.setCompletedDate(LocalDateTime.of(2024, 1, 15, 0, 0));
+        repository.upsert(List.of(stored));
+
+        WatchedItem update = item(1L, 5114, "Fullmetal Alchemist: Brotherhood", WatchedItem.MediaType.ANIME);
+        update.setEpisodesWatched(31);
+
+        // Act
+        repository.upsert(List.of(update));
+
+        // Assert
+        Map<String, Object> row = row(1L, 5114);
+        assertEquals(31, row.get("episodes_watched"));
+        assertEquals(64, row.get("total_episodes"));
+        assertEquals("WATCHING", row.get("status"));
+        assertEquals(9.0, row.get("rating"));
+        assertEquals("Best so far", row.get("notes"));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 0, 0), timestamp(row, "completed_date"));
+    }
+
+    @Test
+    void testUpsert_TitleOnlyItemMergesByIdForItsOwnerOnly() {
+        // Arrange
+        repository.upsert(List.of(item(1L, null, "Some Doujin", WatchedItem.MediaType.MANGA)));
+        long id = jdbcTemplate.queryForObject("SELECT id FROM watched_items WHERE title = 'Some Doujin'", Long.class);
+        WatchedItem own = item(1L, null, "Some Doujin", WatchedItem.MediaType.MANGA);
+        own.setId(id);
+        own.setChaptersRead(12);
+        WatchedItem other = item(2L, null, "Some Doujin", WatchedItem.MediaType.MANGA);
+        other.setId(id);
+        other.setNotes("Not mine");
+
+        // Act
+        WatchedItemsBulkRepository.UpsertResult ownResult = repository.upsert(List.of(own));
+        WatchedItemsBulkRepository.UpsertResult otherResult = repository.upsert(List.of(other));
+
+        // Assert
+        assertEquals(1, ownResult.getUpdated());
+        assertEquals(0, otherResult.getInserted() + otherResult.getUpdated());
+        assertEquals(1, count());
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM watched_items WHERE id = ?", id);
+        assertEquals(12, row.get("chapters_read"));
+        assertNull(row.get("notes"));
+    }
+
+    @Test
+    void testUpsert_SplitsLargeImportsIntoStatements() {
+        // Arrange
+        List<WatchedItem> items = new ArrayList<>();
+        for (int i = 1; i <= WatchedItemsBulkRepositoryImpl.ROWS_PER_STATEMENT + 1; i++) {
+            items.add(item(1L, i, "Title " + i, WatchedItem.MediaType.ANIME));
+        }
+
+        // Act
+        WatchedItemsBulkRepository.UpsertResult result = repository.upsert(items);
+
+        // Assert
+        assertEquals(items.size(), result.getInserted());
+        assertEquals(items.size(), count());
+    }
+
+    private static WatchedItem item(Long userId, Integer anilistId, String title, WatchedItem.MediaType type) {
+        WatchedItem item = new WatchedItem();
+        item.setUserId(userId);
+        item.setAnilistId(anilistId);
+        item.setTitle(title);
+        item.setType(type);
+        item.setWatchedDate(LocalDateTime.of(2024, 1, 1, 9, 0));
+        return item;
+    }
+
+    private static long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM watched_items", Long.class);
+    }
+
+    private static long idOf(Long userId, int anilistId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT id FROM watched_items WHERE user_id = ? AND anilist_id = ?", Long.class, userId, anilistId);
+    }
+
+    private static Map<String, Object> row(Long userId, int anilistId) {
+        return jdbcTemplate.queryForMap(
+            "SELECT * FROM watched_items WHERE user_id = ? AND anilist_id = ?", userId, anilistId);
+    }
+
+    private static LocalDateTime timestamp(Map<String, Object> row, String column) {
+        return ((Timestamp) row.get(column)).toLocalDateTime();
+    }
+}
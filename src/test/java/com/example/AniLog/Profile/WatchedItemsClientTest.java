@@ -1,7 +1,10 @@
 package com.example.AniLog.Profile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -10,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
@@ -18,8 +22,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @ExtendWith(MockitoExtension.class)
 class WatchedItemsClientTest {
@@ -27,6 +36,9 @@ class WatchedItemsClientTest {
     @Mock
     private WatchedItemsService watchedItemsService;
 
+    @Mock
+    private WatchedItemsExporter watchedItemsExporter;
+
     @InjectMocks
     private WatchedItemsClient watchedItemsClient;
 
@@ -67,7 +79,7 @@ class WatchedItemsClientTest {
     void testGetAllWatchedItemsSuccess() {
         when(watchedItemsService.getAllWatchedItems(1L)).thenReturn(testWatchedList);
 
-        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(1L);
+        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(1L, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testWatchedList, response.getBody());
@@ -76,7 +88,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetAllWatchedItemsNullUserId() {
-        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(null);
+        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(null, null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -89,7 +101,7 @@ class WatchedItemsClientTest {
     void testGetAllWatchedItemsEmptyList() {
         when(watchedItemsService.getAllWatchedItems(2L)).thenReturn(Arrays.asList());
 
-        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(2L);
+        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(2L, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Arrays.asList(), response.getBody());
@@ -101,7 +113,7 @@ class WatchedItemsClientTest {
         when(watchedItemsService.getWatchedItemsByType(1L, "ANIME"))
             .thenReturn(testWatchedList);
 
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, "ANIME");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, "ANIME", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testWatchedList, response.getBody());
@@ -114,7 +126,7 @@ class WatchedItemsClientTest {
         when(watchedItemsService.getWatchedItemsByType(1L, "MANGA"))
             .thenReturn(mangaList);
 
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, "MANGA");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, "MANGA", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mangaList, response.getBody());
@@ -122,7 +134,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByTypeNullUserId() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(null, "ANIME");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(null, "ANIME", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -130,7 +142,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByTypeNullType() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, null);
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, null, null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -138,7 +150,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByTypeInvalidType() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, "INVALID");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByType(1L, "INVALID", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -153,7 +165,7 @@ class WatchedItemsClientTest {
         when(watchedItemsService.getWatchedItemsByStatus(1L, "WATCHING"))
             .thenReturn(testWatchedList);
 
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByStatus(1L, "WATCHING");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByStatus(1L, "WATCHING", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testWatchedList, response.getBody());
@@ -162,7 +174,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByStatusNullUserId() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByStatus(null, "COMPLETED");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByStatus(null, "COMPLETED", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -170,7 +182,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByStatusNullStatus() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByStatus(1L, null);
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByStatus(1L, null, null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -182,7 +194,7 @@ class WatchedItemsClientTest {
         when(watchedItemsService.getWatchedItemsByTypeAndStatus(1L, "ANIME", "COMPLETED"))
             .thenReturn(testWatchedList);
 
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(1L, "ANIME", "COMPLETED");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(1L, "ANIME", "COMPLETED", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testWatchedList, response.getBody());
@@ -191,7 +203,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByTypeAndStatusInvalidType() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(1L, "INVALID", "WATCHING");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(1L, "INVALID", "WATCHING", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -199,7 +211,7 @@ class WatchedItemsClientTest {
 
     @Test
     void testGetWatchedItemsByTypeAndStatusNullParams() {
-        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(null, "ANIME", "WATCHING");
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(null, "ANIME", "WATCHING", null, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
@@ -416,4 +428,89 @@ class WatchedItemsClientTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
     }
+
+    @Test
+    void testBulkAddWatchedItemsSuccess() {
+        WatchedItemsService.BulkImportResult result = new WatchedItemsService.BulkImportResult(2, 0, 0);
+        when(watchedItemsService.bulkAddWatchedItems(1L, testWatchedList)).thenReturn(result);
+
+        ResponseEntity<?> response = watchedItemsClient.bulkAddWatchedItems(1L, testWatchedList);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testBulkAddWatchedItemsEmpty() {
+        ResponseEntity<?> response = watchedItemsClient.bulkAddWatchedItems(1L, List.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody() instanceof ErrorResponse);
+    }
+
+    @Test
+    void testBulkAddWatchedItemsTooMany() {
+        List<WatchedItem> items = Collections.nCopies(2001, testWatchedItem);
+
+        ResponseEntity<?> response = watchedItemsClient.bulkAddWatchedItems(1L, items);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(watchedItemsService, times(0)).bulkAddWatchedItems(any(), any());
+    }
+
+    @Test
+    void testExportWatchedItemsCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<?> response = watchedItemsClient.exportWatchedItems(1L, "CSV");
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().isCompatibleWith(MediaType.parseMediaType("text/csv")));
+        assertEquals("attachment; filename=\"anilog-watched.csv\"",
+            response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        verify(watchedItemsExporter).writeCsv(1L, out);
+    }
+
+    @Test
+    void testExportWatchedItemsDefaultsToNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<?> response = watchedItemsClient.exportWatchedItems(1L, "ndjson");
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        verify(watchedItemsExporter).writeNdjson(1L, out);
+    }
+
+    @Test
+    void testExportWatchedItemsUnknownFormat() {
+        ResponseEntity<?> response = watchedItemsClient.exportWatchedItems(1L, "xml");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody() instanceof ErrorResponse);
+    }
+
+    @Test
+    void testGetWatchedItemsByTypeAndStatusPaged() {
+        Window<WatchedItem> page = Window.from(List.of(testWatchedItem), index -> ScrollPosition.keyset(), true);
+        when(watchedItemsService.getWatchedItemsPage(1L, "ANIME", "COMPLETED", null, 1)).thenReturn(page);
+
+        ResponseEntity<?> response = watchedItemsClient.getWatchedItemsByTypeAndStatus(1L, "ANIME", "COMPLETED", 1, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(testWatchedItem), response.getBody());
+        KeysetCursor next = KeysetCursor.decode(response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(testWatchedItem.getWatchedDate(), next.getDate());
+        assertEquals(1L, next.getId());
+        verify(watchedItemsService, times(0)).getWatchedItemsByTypeAndStatus(any(), any(), any());
+    }
+
+    @Test
+    void testGetAllWatchedItemsInvalidCursor() {
+        ResponseEntity<?> response = watchedItemsClient.getAllWatchedItems(1L, null, "bm9wZQ");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody() instanceof ErrorResponse);
+    }
 }
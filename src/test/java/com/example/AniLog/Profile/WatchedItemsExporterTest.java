@@ -0,0 +1,125 @@
+package com.example.AniLog.Profile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class WatchedItemsExporterTest {
+
+    @Mock
+    private WatchedItemsRepository watchedItemsRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private WatchedItemsExporter exporter;
+    private WatchedItem anime;
+    private WatchedItem manga;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new WatchedItemsExporter(watchedItemsRepository, entityManager, objectMapper);
+
+        anime = new WatchedItem();
+        anime.setId(1L);
+        anime.setUserId(1L);
+        anime.setTitle("Demon Slayer");
+        anime.setType(WatchedItem.MediaType.ANIME);
+        anime.setAnilistId(38000);
+        anime.setWatchedDate(LocalDateTime.of(2024, 5, 1, 20, 0));
+        anime.setEpisodesWatched(26);
+        anime.setStatus(WatchedItem.WatchStatus.COMPLETED);
+        anime.setRating(9.0);
+
+        manga = new WatchedItem();
+        manga.setId(2L);
+        manga.setUserId(1L);
+        manga.setTitle("Kaguya-sama: Love Is War");
+        manga.setType(WatchedItem.MediaType.MANGA);
+        manga.setWatchedDate(LocalDateTime.of(2024, 4, 1, 9, 30));
+        manga.setChaptersRead(120);
+        manga.setStatus(WatchedItem.WatchStatus.READING);
+        manga.setNotes("Re-read, \"best\" arc\nso far");
+    }
+
+    @Test
+    void testWriteNdjson_OneObjectPerLine() throws IOException {
+        // Arrange
+        when(watchedItemsRepository.streamByUserIdOrderByWatchedDateDescIdDesc(1L)).thenReturn(Stream.of(anime, manga));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int rows = exporter.writeNdjson(1L, out);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Demon Slayer", first.get("title").asText());
+        assertEquals("2024-05-01T20:00:00", first.get("watchedDate").asText());
+        assertEquals("Re-read, \"best\" arc\nso far", objectMapper.readTree(lines[1]).get("notes").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+        verify(entityManager, times(2)).detach(any());
+    }
+
+    @Test
+    void testWriteCsv_QuotesFieldsThatNeedIt() throws IOException {
+        // Arrange
+        when(watchedItemsRepository.streamByUserIdOrderByWatchedDateDescIdDesc(1L)).thenReturn(Stream.of(anime, manga));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int rows = exporter.writeCsv(1L, out);
+
+        // Assert
+        assertEquals(2, rows);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        List<String> records = List.of(csv.split("\r\n"));
+        assertEquals(3, records.size());
+        assertTrue(records.get(0).startsWith("id,anilistId,type,title,status"));
+        assertEquals("1,38000,ANIME,Demon Slayer,COMPLETED,26,,,,9.0,2024-05-01T20:00,,,", records.get(1));
+        assertTrue(records.get(2).endsWith(",\"Re-read, \"\"best\"\" arc\nso far\""));
+        verify(entityManager, times(2)).detach(any());
+    }
+
+    @Test
+    void testWriteCsv_EmptyLibraryWritesHeaderOnly() throws IOException {
+        // Arrange
+        when(watchedItemsRepository.streamByUserIdOrderByWatchedDateDescIdDesc(1L)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int rows = exporter.writeCsv(1L, out);
+
+        // Assert
+        assertEquals(0, rows);
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+    }
+}
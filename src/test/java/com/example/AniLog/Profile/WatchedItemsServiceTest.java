@@ -4,9 +4,11 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +23,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 @ExtendWith(MockitoExtension.class)
 class WatchedItemsServiceTest {
@@ -466,4 +471,98 @@ class WatchedItemsServiceTest {
 
         verify(watchedItemsRepository, times(2)).delete(any());
     }
+
+    @Test
+    void testBulkAddWatchedItems_InsertsNewAndUpdatesExisting() {
+        WatchedItem existing = new WatchedItem();
+        existing.setId(1L);
+        existing.setUserId(1L);
+        existing.setTitle("Demon Slayer");
+        existing.setType(WatchedItem.MediaType.ANIME);
+        existing.setAnilistId(38000);
+
+        WatchedItem update = bulkItem("Demon Slayer", 38000);
+        update.setStatus(WatchedItem.WatchStatus.COMPLETED);
+        WatchedItem insert = bulkItem("Attack on Titan", 16498);
+        WatchedItem repeat = bulkItem("Attack on Titan", 16498);
+        WatchedItem noTitle = bulkItem(null, 1);
+        WatchedItem byTitle = bulkItem("Some Doujin", null);
+
+        when(watchedItemsRepository.findByUserIdAndAnilistIdIn(1L, Set.of(38000, 16498)))
+            .thenReturn(List.of(existing));
+        when(watchedItemsRepository.findByUserIdAndTitleIn(1L, Set.of("Some Doujin")))
+            .thenReturn(List.of());
+        when(watchedItemsRepository.upsert(List.of(update, insert, byTitle)))
+            .thenReturn(new WatchedItemsBulkRepository.UpsertResult(2, 1));
+
+        WatchedItemsService.BulkImportResult result = watchedItemsService.bulkAddWatchedItems(
+            1L, Arrays.asList(update, insert, repeat, noTitle, byTitle));
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, result.getSkipped());
+        verify(watchedItemsRepository, never()).save(any());
+        assertEquals(1L, update.getId());
+        assertNotNull(update.getCompletedDate());
+        assertNull(insert.getId());
+        assertEquals(1L, insert.getUserId());
+        assertEquals(WatchedItem.WatchStatus.WATCHING, insert.getStatus());
+        assertNotNull(insert.getWatchedDate());
+    }
+
+    @Test
+    void testBulkAddWatchedItems_MatchesTitleOnlyItemsByType() {
+        WatchedItem existingManga = new WatchedItem();
+        existingManga.setId(5L);
+        existingManga.setTitle("Berserk");
+        existingManga.setType(WatchedItem.MediaType.MANGA);
+
+        WatchedItem anime = bulkItem("Berserk", null);
+
+        when(watchedItemsRepository.findByUserIdAndTitleIn(1L, Set.of("Berserk")))
+            .thenReturn(List.of(existingManga));
+        when(watchedItemsRepository.upsert(List.of(anime)))
+            .thenReturn(new WatchedItemsBulkRepository.UpsertResult(1, 0));
+
+        WatchedItemsService.BulkImportResult result = watchedItemsService.bulkAddWatchedItems(1L, List.of(anime));
+
+        assertEquals(1, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertNull(anime.getId());
+        verify(watchedItemsRepository, never()).findByUserIdAndAnilistIdIn(any(), any());
+    }
+
+    @Test
+    void testGetWatchedItemsPageAfterCursor() {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 20, 0), 7L);
+        Window<WatchedItem> page = Window.from(testWatchedList, index -> ScrollPosition.keyset(), false);
+        when(watchedItemsRepository.findByUserIdAndStatusOrderByWatchedDateDescIdDesc(
+            1L, WatchedItem.WatchStatus.WATCHING, after.toPosition("watchedDate"), Limit.of(20)))
+            .thenReturn(page);
+
+        Window<WatchedItem> result = watchedItemsService.getWatchedItemsPage(1L, null, "watching", after, 20);
+
+        assertEquals(page, result);
+        verify(watchedItemsRepository, never()).findByUserIdOrderByWatchedDateDescIdDesc(any(), any(), any());
+    }
+
+    @Test
+    void testGetWatchedItemsPageFirstPage() {
+        Window<WatchedItem> page = Window.from(testWatchedList, index -> ScrollPosition.keyset(), true);
+        when(watchedItemsRepository.findByUserIdOrderByWatchedDateDescIdDesc(1L, ScrollPosition.keyset(), Limit.of(50)))
+            .thenReturn(page);
+
+        Window<WatchedItem> result = watchedItemsService.getWatchedItemsPage(1L, null, null, null, 50);
+
+        assertEquals(2, result.size());
+        assertTrue(result.hasNext());
+    }
+
+    private WatchedItem bulkItem(String title, Integer anilistId) {
+        WatchedItem item = new WatchedItem();
+        item.setTitle(title);
+        item.setType(WatchedItem.MediaType.ANIME);
+        item.setAnilistId(anilistId);
+        return item;
+    }
 }
@@ -0,0 +1,141 @@
+package com.example.AniLog.Search;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+class DiscoveryCacheTest {
+
+    @Test
+    void testGet_FreshEntryServedFromCache() {
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofMinutes(10), 8);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<AnilistResult> first = cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> {
+            loads.incrementAndGet();
+            return List.of(result(1));
+        });
+        List<AnilistResult> second = cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> {
+            loads.incrementAndGet();
+            return List.of(result(2));
+        });
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+    }
+
+    @Test
+    void testGet_KeyedByEndpointAndType() {
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofMinutes(10), 8);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> { loads.incrementAndGet(); return List.of(result(1)); });
+        cache.get(DiscoveryCache.Endpoint.TRENDING, "MANGA", () -> { loads.incrementAndGet(); return List.of(result(2)); });
+        cache.get(DiscoveryCache.Endpoint.POPULAR, "ANIME", () -> { loads.incrementAndGet(); return List.of(result(3)); });
+
+        assertEquals(3, loads.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testGet_StaleEntryServedWhileRefreshing() throws InterruptedException {
+        DiscoveryCache cache = newCache(Duration.ZERO, Duration.ofMinutes(10), 8);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        cache.get(DiscoveryCache.Endpoint.POPULAR, "ANIME", () -> List.of(result(1)));
+        List<AnilistResult> stale = cache.get(DiscoveryCache.Endpoint.POPULAR, "ANIME", () -> {
+            refreshed.countDown();
+            return List.of(result(2));
+        });
+
+        assertEquals(1, stale.get(0).getId());
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGet_EmptyResultDoesNotReplaceEntry() {
+        DiscoveryCache cache = newCache(Duration.ZERO, Duration.ZERO, 8);
+
+        cache.get(DiscoveryCache.Endpoint.NEW, "ANIME", () -> List.of(result(1)));
+        List<AnilistResult> results = cache.get(DiscoveryCache.Endpoint.NEW, "ANIME", List::of);
+
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).getId());
+    }
+
+    @Test
+    void testGet_BoundedSize() {
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofMinutes(10), 2);
+
+        cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> List.of(result(1)));
+        cache.get(DiscoveryCache.Endpoint.POPULAR, "ANIME", () -> List.of(result(2)));
+        cache.get(DiscoveryCache.Endpoint.NEW, "ANIME", () -> List.of(result(3)));
+
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEtag_StableForSameContentAndChangesWithIt() {
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofMinutes(10), 8);
+
+        List<AnilistResult> cached = cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> List.of(result(1), result(2)));
+        String etag = cache.etag(cached);
+
+        assertEquals(etag, cache.etag(List.of(result(1), result(2))));
+        assertNotEquals(etag, cache.etag(List.of(result(2), result(1))));
+        assertNotEquals(etag, cache.etag(List.of(result(1))));
+        // Weak: the serialised countdown changes under the same tag
+        assertTrue(etag.startsWith("W/\"") && etag.endsWith("\""));
+    }
+
+    @Test
+    void testEtag_MatchesIfNoneMatchForms() {
+        String etag = ResultETag.of(List.of(result(1)));
+
+        assertTrue(ResultETag.matches(etag, etag));
+        assertTrue(ResultETag.matches("\"other\", " + etag, etag));
+        assertTrue(ResultETag.matches(etag.substring(2), etag));
+        assertTrue(ResultETag.matches("*", etag));
+        assertFalse(ResultETag.matches("\"other\"", etag));
+        assertFalse(ResultETag.matches(null, etag));
+    }
+
+    private DiscoveryCache newCache(Duration ttl, Duration staleWindow, int maxEntries) {
+        return new DiscoveryCache(ttl, ttl, ttl, ttl, staleWindow, maxEntries);
+    }
+
+    private AnilistResult result(int id) {
+        return new AnilistResult(
+            id,
+            "ANIME",
+            new AnilistResult.Title("", "Test Anime " + id, ""),
+            null,
+            "TV",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            List.of(),
+            List.of(),
+            List.of(),
+            false
+        );
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.AniLog.Search;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.AniLog.Anilist.AnilistResult;
+
+class DiscoverySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSaveAndLoad_RestoresFreshEntries() {
+        // Arrange
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofHours(1));
+        cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> List.of(detailed(1), result(2)));
+        cache.getAsync(DiscoveryCache.Endpoint.NEW, "MANGA", MediaProjection.SUMMARY,
+            () -> CompletableFuture.completedFuture(List.of(result(3)))).join();
+        Path file = directory.resolve("discovery.bin");
+        assertEquals(2, new DiscoverySnapshot(cache, file, true).save());
+
+        // Act
+        DiscoveryCache restarted = newCache(Duration.ofMinutes(10), Duration.ofHours(1));
+        int restored = new DiscoverySnapshot(restarted, file, true).load();
+
+        // Assert
+        assertEquals(2, restored);
+        AtomicInteger loads = new AtomicInteger();
+        List<AnilistResult> trending = restarted.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals(0, loads.get());
+        assertEquals(2, trending.size());
+        AnilistResult first = trending.get(0);
+        assertEquals("Frieren", first.getTitle().getRomaji());
+        assertNull(first.getTitle().getEnglish());
+        assertEquals("A long story.", first.getDescription());
+        assertEquals(28, first.getEpisodes());
+        assertNull(first.getChapters());
+        assertEquals(1_800_000_000L, first.getNextAiringEpisode().getAiringAt());
+        assertEquals(List.of("Adventure", "Drama"), first.getGenres());
+        assertEquals(List.of("Madhouse"), first.getStudios());
+        assertEquals(300_000, first.getPopularity());
+        assertEquals(cache.etag(cache.get(DiscoveryCache.Endpoint.TRENDING, "ANIME", List::of)), restarted.etag(trending));
+    }
+
+    @Test
+    void testLoad_DropsEntriesPastTheirStaleWindow() throws Exception {
+        // Arrange
+        DiscoveryCache cache = newCache(Duration.ofMillis(10), Duration.ofMillis(10));
+        cache.get(DiscoveryCache.Endpoint.POPULAR, "ANIME", () -> List.of(result(1)));
+        Path file = directory.resolve("discovery.bin");
+        new DiscoverySnapshot(cache, file, true).save();
+        Thread.sleep(50);
+
+        // Act
+        DiscoveryCache restarted = newCache(Duration.ofMinutes(10), Duration.ofHours(1));
+        int restored = new DiscoverySnapshot(restarted, file, true).load();
+
+        // Assert
+        assertEquals(0, restored);
+        assertEquals(0, restarted.size());
+    }
+
+    @Test
+    void testLoad_IgnoresMissingAndCorruptFiles() throws Exception {
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofHours(1));
+        Path file = directory.resolve("discovery.bin");
+
+        assertEquals(0, new DiscoverySnapshot(cache, file, true).load());
+
+        Files.write(file, new byte[] {0x41, 0x4E, 0x4C, 0x44, 0, 0, 0, 1, 0, 0, 0, 5, 0, 0});
+        assertEquals(0, new DiscoverySnapshot(cache, file, true).load());
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void testLoad_RejectsCountsLargerThanTheFile() throws Exception {
+        // Arrange: one entry whose result count claims far more than the file holds
+        DiscoveryCache cache = newCache(Duration.ofMinutes(10), Duration.ofHours(1));
+        Path file = directory.resolve("discovery.bin");
+        ByteBuffer corrupt = ByteBuffer.allocate(40)
+            .putInt(DiscoverySnapshot.MAGIC)
+            .putInt(DiscoverySnapshot.VERSION)
+            .putInt(1)
+            .putInt(1).put((byte) 'k')
+            .putLong(Long.MAX_VALUE)
+            .putLong(Long.MAX_VALUE)
+            .putInt(Integer.MAX_VALUE - 8);
+        Files.write(file, corrupt.array());
+
+        // Act
+        int restored = new DiscoverySnapshot(cache, file, true).load();
+
+        // Assert
+        assertEquals(0, restored);
+        assertEquals(0, cache.size());
+    }
+
+    private DiscoveryCache newCache(Duration ttl, Duration staleWindow) {
+        return new DiscoveryCache(ttl, ttl, ttl, ttl, staleWindow, 16);
+    }
+
+    private static AnilistResult detailed(int id) {
+        return new AnilistResult(
+            id, "ANIME", new AnilistResult.Title("Frieren", null, "葬送のフリーレン"), "A long story.", "TV",
+            28, null, null, 91, new AnilistResult.NextAiringEpisode(5, 1_800_000_000L), 29, 9, 2023,
+            "https://img/" + id + ".jpg", "FINISHED", List.of("Adventure", "Drama"), List.of("Madhouse"),
+            List.of("Sousou no Frieren"), false, 300_000, 500, 1_700_000_000);
+    }
+
+    private static AnilistResult result(int id) {
+        return new AnilistResult(
+            id, "ANIME", new AnilistResult.Title("", "Test Anime " + id, ""), null, "TV", null, null, null, 80,
+            null, null, null, 2024, null, "RELEASING", List.of(), List.of(), List.of(), false);
+    }
+}
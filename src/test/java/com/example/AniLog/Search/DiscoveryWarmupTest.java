@@ -0,0 +1,89 @@
+package com.example.AniLog.Search;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistResult;
+
+class DiscoveryWarmupTest {
+
+    @Mock
+    private AniListClient mockAniListClient;
+
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchService = new SearchService(mockAniListClient);
+    }
+
+    @Test
+    void testWarmUp_LoadsEveryListIntoTheCache() {
+        // Arrange
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(List.of(result())));
+        DiscoveryWarmup warmup = new DiscoveryWarmup(searchService, List.of(), "summary", Duration.ofSeconds(5));
+
+        // Act
+        int loaded = warmup.warmUp();
+        searchService.getTrendingAniListAsync("anime", MediaProjection.SUMMARY).join();
+        searchService.getComingSoonAniListAsync("MANGA", MediaProjection.SUMMARY).join();
+
+        // Assert
+        assertEquals(8, loaded);
+        verify(mockAniListClient, times(8)).executeQueryAsync(anyString(), anyMap());
+    }
+
+    @Test
+    void testWarmUp_SkipsInvalidQueriesAndSurvivesFailures() {
+        // Arrange
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenReturn(CompletableFuture.completedFuture(List.of(result())))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+        DiscoveryWarmup warmup = new DiscoveryWarmup(searchService,
+                List.of("trending:anime", "coming-soon:manga", "seasonal:anime", "popular"), "detail",
+                Duration.ofSeconds(5));
+
+        // Act
+        int loaded = warmup.warmUp();
+
+        // Assert
+        assertEquals(1, loaded);
+        verify(mockAniListClient, times(2)).executeQueryAsync(anyString(), anyMap());
+    }
+
+    @Test
+    void testWarmUp_DoesNotWaitPastTimeout() {
+        // Arrange
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenReturn(new CompletableFuture<>());
+        DiscoveryWarmup warmup = new DiscoveryWarmup(searchService, List.of("trending:anime"), "detail",
+                Duration.ofMillis(50));
+
+        // Act
+        int loaded = warmup.warmUp();
+
+        // Assert
+        assertEquals(0, loaded);
+    }
+
+    private static AnilistResult result() {
+        return new AnilistResult(
+            1, "ANIME", new AnilistResult.Title("", "Test Anime", ""), null, "TV", null, null, null, 80,
+            null, null, null, 2024, null, "RELEASING", List.of(), List.of(), List.of(), false);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.AniLog.Search;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.example.AniLog.Anilist.AnilistResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class SearchClientTest {
+
+    @Mock
+    private SearchInterface searchService;
+
+    private EncodedResponseCache encodedResponseCache;
+    private SearchClient searchClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        encodedResponseCache = new EncodedResponseCache(new ObjectMapper(), Duration.ofMinutes(1), 8);
+        searchClient = new SearchClient(
+            searchService, DiscoveryCache.withDefaults(), encodedResponseCache, "detail", "summary", "detail");
+    }
+
+    @Test
+    void testGetTrending_ReturnsEtagAndCacheControl() {
+        // Arrange
+        when(searchService.getTrendingAniListAsync("ANIME", MediaProjection.SUMMARY))
+            .thenReturn(CompletableFuture.completedFuture(List.of(result(1))));
+
+        // Act
+        ResponseEntity<byte[]> response = searchClient.getTrending("ANIME", null, null, null).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ResultETag.of(List.of(result(1))), response.getHeaders().getETag());
+        assertEquals("max-age=300, public, stale-while-revalidate=3600", response.getHeaders().getCacheControl());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).startsWith("[{\"id\":1,"));
+    }
+
+    @Test
+    void testGetTrending_GzipVariantIsEncodedOnce() throws Exception {
+        // Arrange
+        when(searchService.getTrendingAniListAsync("ANIME", MediaProjection.SUMMARY))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(List.of(result(1))));
+
+        // Act
+        ResponseEntity<byte[]> plain = searchClient.getTrending("ANIME", null, null, "br").join();
+        ResponseEntity<byte[]> gzip = searchClient.getTrending("ANIME", null, null, "gzip, deflate, br").join();
+
+        // Assert
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getHeaders().getETag(), gzip.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+        assertEquals(1, encodedResponseCache.size());
+    }
+
+    @Test
+    void testGetTrending_MatchingEtagReturnsNotModified() {
+        // Arrange
+        when(searchService.getTrendingAniListAsync("ANIME", MediaProjection.SUMMARY))
+            .thenReturn(CompletableFuture.completedFuture(List.of(result(1))));
+        String etag = ResultETag.of(List.of(result(1)));
+
+        // Act
+        ResponseEntity<byte[]> response = searchClient.getTrending("ANIME", null, etag, null).join();
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testSearchById_ChangedContentReturnsFullBody() {
+        // Arrange
+        when(searchService.searchAniListByIdAsync(2))
+            .thenReturn(CompletableFuture.completedFuture(List.of(result(2))));
+
+        // Act
+        ResponseEntity<List<AnilistResult>> response =
+            searchClient.searchById(2, ResultETag.of(List.of(result(1)))).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("max-age=3600, public", response.getHeaders().getCacheControl());
+        assertEquals(2, response.getBody().get(0).getId());
+    }
+
+    @Test
+    void testSearch_NextCursorFollowsTheLastPageNotTheMergedSize() {
+        // Arrange
+        SearchClient.SearchRequest request = new SearchClient.SearchRequest();
+        request.setQuery("Naruto");
+        request.setPage(1);
+        request.setPerPage(2);
+        request.setPages(2);
+        // A duplicate across the two pages left three results, but more pages follow
+        when(searchService.searchAniListAsync("Naruto", null, null, null, false, null, null, 1, 2, 2, MediaProjection.DETAIL))
+            .thenReturn(CompletableFuture.completedFuture(
+                new SearchPage(List.of(result(1), result(2), result(3)), true)));
+
+        // Act
+        ResponseEntity<?> response = searchClient.search(request, null).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new SearchCursor(3, 2).encode(), response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void testSearch_NoNextCursorOnTheLastPage() {
+        // Arrange
+        SearchClient.SearchRequest request = new SearchClient.SearchRequest();
+        request.setQuery("Naruto");
+        request.setPage(1);
+        request.setPerPage(2);
+        when(searchService.searchAniListAsync("Naruto", null, null, null, false, null, null, 1, 2, 1, MediaProjection.DETAIL))
+            .thenReturn(CompletableFuture.completedFuture(new SearchPage(List.of(result(1), result(2)), false)));
+
+        // Act
+        ResponseEntity<?> response = searchClient.search(request, null).join();
+
+        // Assert
+        assertNull(response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    private static AnilistResult result(int id) {
+        return new AnilistResult(
+            id, "ANIME", new AnilistResult.Title("", "Test Anime " + id, ""), null, "TV", null, null, null, 80,
+            null, null, null, 2024, null, "RELEASING", List.of(), List.of(), List.of(), false);
+    }
+}
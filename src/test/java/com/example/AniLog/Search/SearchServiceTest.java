@@ -3,8 +3,10 @@ package com.example.AniLog.Search;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +21,7 @@ import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 
 import com.example.AniLog.Anilist.AniListClient;
+import com.example.AniLog.Anilist.AnilistPage;
 import com.example.AniLog.Anilist.AnilistResult;
 
 
@@ -306,6 +309,211 @@ class SearchServiceTest {
         }));
     }
 
+    @Test
+    void testGetTrendingAniList_ServedFromCache() {
+        List<AnilistResult> mockResults = createMockResults();
+        when(mockAniListClient.executeQuery(anyString(), anyMap()))
+            .thenReturn(mockResults);
+
+        List<AnilistResult> first = searchService.getTrendingAniList("ANIME");
+        List<AnilistResult> second = searchService.getTrendingAniList("ANIME");
+
+        assertEquals(2, first.size());
+        assertEquals(first, second);
+        verify(mockAniListClient, times(1)).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void testSearchAniListAsync() {
+        List<AnilistResult> mockResults = createMockResults();
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenReturn(CompletableFuture.completedFuture(mockResults));
+
+        List<AnilistResult> results = searchService.searchAniListAsync(
+            "Naruto", "ANIME", List.of(), List.of(), false, List.of(), "POPULARITY_DESC"
+        ).join();
+
+        assertEquals(2, results.size());
+        verify(mockAniListClient, times(1)).executeQueryAsync(anyString(), argThat(vars -> {
+            Map<String, Object> map = (Map<String, Object>) vars;
+            return "Naruto".equals(map.get("search")) && "ANIME".equals(map.get("type"));
+        }));
+    }
+
+    @Test
+    void testGetTrendingAniListAsync_ServedFromCache() {
+        List<AnilistResult> mockResults = createMockResults();
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenReturn(CompletableFuture.completedFuture(mockResults));
+
+        List<AnilistResult> first = searchService.getTrendingAniListAsync("ANIME").join();
+        List<AnilistResult> second = searchService.getTrendingAniListAsync("ANIME").join();
+
+        assertEquals(2, first.size());
+        assertEquals(first, second);
+        verify(mockAniListClient, times(1)).executeQueryAsync(anyString(), anyMap());
+    }
+
+    @Test
+    void testSearchAniListByIds_ChunksAndKeepsRequestOrder() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 120; i >= 1; i--) {
+            ids.add(i);
+        }
+        ids.add(7);
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(1);
+            @SuppressWarnings("unchecked")
+            List<Integer> chunk = (List<Integer>) variables.get("ids");
+            // AniList returns id_in matches in its own order
+            List<AnilistResult> page = new ArrayList<>();
+            chunk.stream().sorted().forEach(id -> page.add(createResult(id)));
+            return CompletableFuture.completedFuture(page);
+        });
+
+        List<AnilistResult> results = searchService.searchAniListByIds(ids);
+
+        assertEquals(120, results.size());
+        assertEquals(120, results.get(0).getId());
+        assertEquals(1, results.get(119).getId());
+        verify(mockAniListClient, times(3)).executeQueryAsync(anyString(), argThat(vars -> {
+            Map<String, Object> map = (Map<String, Object>) vars;
+            return ((List<?>) map.get("ids")).size() <= 50;
+        }));
+    }
+
+    @Test
+    void testSearchAniListByIds_EmptyInput() {
+        List<AnilistResult> results = searchService.searchAniListByIds(List.of());
+
+        assertTrue(results.isEmpty());
+        verify(mockAniListClient, times(0)).executeQueryAsync(anyString(), anyMap());
+    }
+
+    @Test
+    void testSearchAniListAsync_SummaryProjectionRequestsFewerFields() {
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenReturn(CompletableFuture.completedFuture(createMockResults()));
+
+        searchService.searchAniListAsync(
+            "Naruto", "ANIME", List.of(), List.of(), false, List.of(), null, MediaProjection.SUMMARY
+        ).join();
+
+        verify(mockAniListClient).executeQueryAsync(argThat(query ->
+            query.contains("...MediaSummary")
+                && query.contains("fragment MediaSummary on Media")
+                && !query.contains("description")
+                && !query.contains("streamingEpisodes")), anyMap());
+    }
+
+    @Test
+    void testGetTrendingAniListAsync_ProjectionsCachedSeparately() {
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap()))
+            .thenReturn(CompletableFuture.completedFuture(createMockResults()));
+
+        searchService.getTrendingAniListAsync("ANIME", MediaProjection.SUMMARY).join();
+        searchService.getTrendingAniListAsync("ANIME", MediaProjection.DETAIL).join();
+        searchService.getTrendingAniListAsync("ANIME", MediaProjection.SUMMARY).join();
+
+        verify(mockAniListClient, times(1)).executeQueryAsync(argThat(query -> !query.contains("fragment MediaDetail")), anyMap());
+        verify(mockAniListClient, times(1)).executeQueryAsync(argThat(query -> query.contains("...MediaDetail")), anyMap());
+    }
+
+    @Test
+    void testMediaProjection_SummaryDropsDetailFields() {
+        AnilistResult full = createMockResults().get(0);
+
+        AnilistResult summary = MediaProjection.SUMMARY.apply(full);
+
+        assertEquals(full.getId(), summary.getId());
+        assertEquals(full.getCoverImageUrl(), summary.getCoverImageUrl());
+        assertEquals(null, summary.getDescription());
+        assertTrue(summary.getGenres().isEmpty());
+        assertEquals(full, MediaProjection.DETAIL.apply(full));
+        assertEquals(MediaProjection.DETAIL, MediaProjection.parse("bogus", MediaProjection.DETAIL));
+        assertEquals(MediaProjection.SUMMARY, MediaProjection.parse("summary", MediaProjection.DETAIL));
+    }
+
+    @Test
+    void testSearchAniListAsync_FetchesPagesConcurrentlyAndMergesInOrder() {
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(1);
+            int page = (Integer) variables.get("page");
+            // Page 3 repeats the last entry of page 2, as happens when rankings shift
+            List<AnilistResult> results = switch (page) {
+                case 2 -> new AnilistPage(List.of(createResult(3), createResult(4)), true);
+                case 3 -> new AnilistPage(List.of(createResult(4), createResult(5)), true);
+                default -> List.of();
+            };
+            return CompletableFuture.completedFuture(results);
+        });
+
+        SearchPage results = searchService.searchAniListAsync(
+            "Naruto", "ANIME", List.of(), List.of(), false, List.of(), null, 2, 2, 2, MediaProjection.SUMMARY
+        ).join();
+
+        assertEquals(List.of(3, 4, 5), results.getResults().stream().map(AnilistResult::getId).toList());
+        // Three merged entries, but AniList reports more pages
+        assertTrue(results.hasNextPage());
+        verify(mockAniListClient, times(2)).executeQueryAsync(anyString(), argThat(vars -> {
+            Map<String, Object> map = (Map<String, Object>) vars;
+            return Integer.valueOf(2).equals(map.get("perPage")) && "Naruto".equals(map.get("search"));
+        }));
+    }
+
+    @Test
+    void testSearchAniListAsync_FullLastPageWithoutNextPageEndsTheResults() {
+        when(mockAniListClient.executeQueryAsync(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(1);
+            int page = (Integer) variables.get("page");
+            // Exactly perPage items on the final page
+            List<AnilistResult> results = page == 1
+                ? new AnilistPage(List.of(createResult(1), createResult(2)), true)
+                : new AnilistPage(List.of(createResult(3), createResult(4)), false);
+            return CompletableFuture.completedFuture(results);
+        });
+
+        SearchPage results = searchService.searchAniListAsync(
+            "Naruto", "ANIME", List.of(), List.of(), false, List.of(), null, 1, 2, 2, MediaProjection.SUMMARY
+        ).join();
+
+        assertEquals(4, results.getResults().size());
+        assertFalse(results.hasNextPage());
+    }
+
+    @Test
+    void testSearchCursor_RoundTrip() {
+        SearchCursor cursor = SearchCursor.decode(new SearchCursor(4, 25).encode());
+
+        assertEquals(4, cursor.getPage());
+        assertEquals(25, cursor.getPerPage());
+        assertEquals(null, SearchCursor.decode("not a cursor"));
+    }
+
+    private AnilistResult createResult(int id) {
+        return new AnilistResult(
+            id,
+            "ANIME",
+            new AnilistResult.Title("", "Test Anime " + id, ""),
+            null,
+            "TV",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            List.of(),
+            List.of(),
+            List.of(),
+            false
+        );
+    }
+
     // Helper method to create mock results
     private List<AnilistResult> createMockResults() {
         List<AnilistResult> results = new ArrayList<>();